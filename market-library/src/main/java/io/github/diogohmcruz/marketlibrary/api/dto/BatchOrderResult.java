@@ -0,0 +1,22 @@
+package io.github.diogohmcruz.marketlibrary.api.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "Outcome of one order of a batch submission")
+public class BatchOrderResult {
+    @Schema(description = "Position of the order in the submitted batch", example = "0")
+    private int index;
+
+    @Schema(description = "Whether the order was accepted for matching")
+    private boolean accepted;
+
+    @Schema(description = "The accepted order, absent when it was rejected")
+    private OrderResponse order;
+
+    @Schema(description = "Why the order was rejected, absent when it was accepted")
+    private List<String> errors;
+}
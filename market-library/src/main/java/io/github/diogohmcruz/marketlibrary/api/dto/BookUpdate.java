@@ -0,0 +1,35 @@
+package io.github.diogohmcruz.marketlibrary.api.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "Change to a ticker's order book pushed on the market data stream")
+public class BookUpdate {
+    @Schema(description = "Stock ticker symbol", example = "AAPL")
+    private String ticker;
+
+    @Schema(description = "Version of the book after this update; intermediate versions may be skipped", example = "42")
+    private long version;
+
+    @Schema(description = "Whether the levels are the full depth rather than the changes since the previous update")
+    private boolean snapshot;
+
+    @Schema(description = "Best bid price, absent when there are no bids", example = "150.45")
+    private BigDecimal bestBid;
+
+    @Schema(description = "Best ask price, absent when there are no asks", example = "150.50")
+    private BigDecimal bestAsk;
+
+    @Schema(description = "Latest trade price, absent before the first trade", example = "150.50")
+    private BigDecimal lastPrice;
+
+    @Schema(description = "Changed buy side levels; a quantity of 0 removes the level")
+    private List<PriceLevelResponse> bids;
+
+    @Schema(description = "Changed sell side levels; a quantity of 0 removes the level")
+    private List<PriceLevelResponse> asks;
+}
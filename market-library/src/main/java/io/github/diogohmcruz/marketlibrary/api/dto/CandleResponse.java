@@ -0,0 +1,32 @@
+package io.github.diogohmcruz.marketlibrary.api.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "OHLCV bar of a ticker's trades over one period")
+public class CandleResponse {
+    @Schema(description = "Start of the period")
+    private Instant openTime;
+
+    @Schema(description = "Price of the first trade in the period", example = "150.00")
+    private BigDecimal open;
+
+    @Schema(description = "Highest trade price in the period", example = "151.25")
+    private BigDecimal high;
+
+    @Schema(description = "Lowest trade price in the period", example = "149.80")
+    private BigDecimal low;
+
+    @Schema(description = "Price of the last trade in the period", example = "150.50")
+    private BigDecimal close;
+
+    @Schema(description = "Number of shares traded in the period", example = "12000")
+    private long volume;
+
+    @Schema(description = "Number of trades in the period", example = "87")
+    private int tradeCount;
+}
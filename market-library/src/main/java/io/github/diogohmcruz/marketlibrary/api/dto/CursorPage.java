@@ -0,0 +1,20 @@
+package io.github.diogohmcruz.marketlibrary.api.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "One page of a cursor-paginated result")
+public class CursorPage<T> {
+    @Schema(description = "Items of this page")
+    private List<T> items;
+
+    @Schema(description = "Cursor of the next page, absent on the last page")
+    private String nextCursor;
+}
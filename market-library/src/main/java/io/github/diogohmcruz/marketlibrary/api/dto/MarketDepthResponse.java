@@ -0,0 +1,26 @@
+package io.github.diogohmcruz.marketlibrary.api.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "Aggregated order book depth of a ticker")
+public class MarketDepthResponse {
+    @Schema(description = "Stock ticker symbol", example = "AAPL")
+    private String ticker;
+
+    @Schema(description = "Version of the book this depth was taken from; higher versions are newer", example = "42")
+    private long version;
+
+    @Schema(description = "Latest trade price, absent before the first trade", example = "150.50")
+    private BigDecimal lastPrice;
+
+    @Schema(description = "Buy side price levels, best first")
+    private List<PriceLevelResponse> bids;
+
+    @Schema(description = "Sell side price levels, best first")
+    private List<PriceLevelResponse> asks;
+}
@@ -0,0 +1,30 @@
+package io.github.diogohmcruz.marketlibrary.api.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "Snapshot of the orders resting on a ticker's book")
+public class OrderBookView {
+    @Schema(description = "Stock ticker symbol", example = "AAPL")
+    private String ticker;
+
+    @Schema(
+            description = "Version of the book this snapshot is at least as new as; higher versions are newer",
+            example = "42")
+    private long version;
+
+    @Schema(description = "Resting buy orders, in matching priority")
+    private List<RestingOrderView> buyOrders;
+
+    @Schema(description = "Resting sell orders, in matching priority")
+    private List<RestingOrderView> sellOrders;
+
+    @Schema(description = "Number of buy orders resting on the book, which may exceed those listed", example = "3")
+    private int totalBuyOrders;
+
+    @Schema(description = "Number of sell orders resting on the book, which may exceed those listed", example = "2")
+    private int totalSellOrders;
+}
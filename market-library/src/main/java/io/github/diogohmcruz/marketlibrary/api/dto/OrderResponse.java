@@ -2,10 +2,12 @@ package io.github.diogohmcruz.marketlibrary.api.dto;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 
+import io.github.diogohmcruz.marketlibrary.domain.model.OrderStatus;
 import io.github.diogohmcruz.marketlibrary.domain.model.OrderType;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
@@ -28,6 +30,9 @@ public class OrderResponse {
     @Schema(description = "Number of shares to trade")
     private int quantity;
 
+    @Schema(description = "Number of shares still waiting to be filled")
+    private int remainingQuantity;
+
     @Schema(description = "Time when the order was created")
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
     private Instant timestamp;
@@ -41,4 +46,10 @@ public class OrderResponse {
 
     @Schema(description = "Whether the order is still active")
     private boolean active;
+
+    @Schema(description = "Where the order stands in matching")
+    private OrderStatus status;
+
+    @Schema(description = "Trades the order made on arrival; only set in the response to its submission")
+    private List<TradeResponse> fills;
 }
@@ -0,0 +1,28 @@
+package io.github.diogohmcruz.marketlibrary.api.dto;
+
+import java.math.BigDecimal;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "A user's holding in one ticker")
+public class PositionResponse {
+    @Schema(description = "Stock ticker symbol", example = "AAPL")
+    private String ticker;
+
+    @Schema(description = "Net shares held; negative when short", example = "100")
+    private long quantity;
+
+    @Schema(description = "Average price per share held, absent when flat", example = "150.25")
+    private BigDecimal averageCost;
+
+    @Schema(description = "Profit or loss realized by closing shares", example = "42.50")
+    private BigDecimal realizedPnl;
+
+    @Schema(description = "Last trade price of the ticker", example = "151.00")
+    private BigDecimal lastPrice;
+
+    @Schema(description = "Profit or loss of the open shares at the last trade price", example = "75.00")
+    private BigDecimal unrealizedPnl;
+}
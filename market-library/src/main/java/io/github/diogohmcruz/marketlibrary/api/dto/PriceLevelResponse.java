@@ -0,0 +1,19 @@
+package io.github.diogohmcruz.marketlibrary.api.dto;
+
+import java.math.BigDecimal;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "Resting interest at one price")
+public class PriceLevelResponse {
+    @Schema(description = "Price of the level", example = "150.50")
+    private BigDecimal price;
+
+    @Schema(description = "Total remaining quantity at this price", example = "1200")
+    private long quantity;
+
+    @Schema(description = "Number of resting orders at this price", example = "7")
+    private int orderCount;
+}
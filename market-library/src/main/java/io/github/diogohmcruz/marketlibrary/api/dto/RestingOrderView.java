@@ -0,0 +1,37 @@
+package io.github.diogohmcruz.marketlibrary.api.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+import io.github.diogohmcruz.marketlibrary.domain.model.OrderType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "Order resting on a book, as listed in order book snapshots")
+public class RestingOrderView {
+    @Schema(description = "Unique identifier of the order")
+    private UUID id;
+
+    @Schema(description = "Type of order (BUY/SELL)")
+    private OrderType type;
+
+    @Schema(description = "Order price per unit", example = "150.50")
+    private BigDecimal price;
+
+    @Schema(description = "Number of shares the order was entered for", example = "100")
+    private int quantity;
+
+    @Schema(description = "Number of shares still waiting to be filled", example = "40")
+    private int remainingQuantity;
+
+    @Schema(description = "Time when the order was created")
+    private Instant timestamp;
+
+    @Schema(description = "Time when the order will expire")
+    private Instant expirationTime;
+
+    @Schema(description = "User ID of the trader", example = "trader-1")
+    private String userId;
+}
@@ -0,0 +1,39 @@
+package io.github.diogohmcruz.marketlibrary.api.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "Trade details response")
+public class TradeResponse {
+    @Schema(description = "Unique identifier of the trade")
+    private UUID id;
+
+    @Schema(description = "Stock ticker symbol", example = "AAPL")
+    private String ticker;
+
+    @Schema(description = "Execution price per unit", example = "150.50")
+    private BigDecimal price;
+
+    @Schema(description = "Number of shares traded", example = "100")
+    private int quantity;
+
+    @Schema(description = "Time of the trade")
+    private Instant timestamp;
+
+    @Schema(description = "Buy order that traded")
+    private UUID buyOrderId;
+
+    @Schema(description = "Sell order that traded")
+    private UUID sellOrderId;
+
+    @Schema(description = "User who bought", example = "trader-1")
+    private String buyerId;
+
+    @Schema(description = "User who sold", example = "trader-2")
+    private String sellerId;
+}
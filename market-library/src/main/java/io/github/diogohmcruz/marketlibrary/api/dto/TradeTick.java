@@ -0,0 +1,27 @@
+package io.github.diogohmcruz.marketlibrary.api.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "Trade pushed on the market data stream")
+public class TradeTick {
+    @Schema(description = "Unique identifier of the trade")
+    private UUID id;
+
+    @Schema(description = "Stock ticker symbol", example = "AAPL")
+    private String ticker;
+
+    @Schema(description = "Execution price per unit", example = "150.50")
+    private BigDecimal price;
+
+    @Schema(description = "Number of shares traded", example = "100")
+    private int quantity;
+
+    @Schema(description = "Time of the trade")
+    private Instant timestamp;
+}
@@ -0,0 +1,13 @@
+package io.github.diogohmcruz.marketlibrary.domain.model;
+
+public enum OrderStatus {
+    /** Accepted, but matching had not finished with it when the response was sent. */
+    PENDING,
+    RESTING,
+    PARTIALLY_FILLED,
+    FILLED,
+    /** Left the book unfilled, cancelled or expired. */
+    CANCELLED,
+    /** Refused by the matching engine, e.g. because it had already expired. */
+    REJECTED
+}
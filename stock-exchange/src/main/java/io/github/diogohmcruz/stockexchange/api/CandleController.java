@@ -0,0 +1,79 @@
+package io.github.diogohmcruz.stockexchange.api;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.github.diogohmcruz.marketlibrary.api.dto.CandleResponse;
+import io.github.diogohmcruz.stockexchange.domain.model.Candle;
+import io.github.diogohmcruz.stockexchange.domain.model.CandleResolution;
+import io.github.diogohmcruz.stockexchange.domain.service.CandleService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/candles")
+@RequiredArgsConstructor
+@Tag(name = "Candles", description = "OHLCV Bar APIs")
+public class CandleController {
+    private final CandleService candleService;
+
+    @Operation(
+            summary = "Get candles of a ticker",
+            description = "OHLCV bars opening within the range, oldest first; periods without trades have no bar")
+    @ApiResponses({
+        @ApiResponse(
+                responseCode = "200",
+                description = "Candles found",
+                content =
+                        @Content(
+                                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                array = @ArraySchema(schema = @Schema(implementation = CandleResponse.class)))),
+        @ApiResponse(responseCode = "400", description = "Invalid or too large range")
+    })
+    @GetMapping("/{ticker}")
+    public ResponseEntity<List<CandleResponse>> getCandles(
+            @Parameter(description = "Stock ticker symbol") @PathVariable String ticker,
+            @Parameter(description = "Bar size: SECOND, MINUTE, FIVE_MINUTES or HOUR")
+                    @RequestParam(defaultValue = "MINUTE")
+                    CandleResolution resolution,
+            @Parameter(description = "Start time, inclusive")
+                    @RequestParam
+                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                    Instant from,
+            @Parameter(description = "End time, exclusive; now when omitted")
+                    @RequestParam(required = false)
+                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                    Instant to) {
+        var candles = candleService.getCandles(ticker, resolution, from, to == null ? Instant.now() : to);
+        return ResponseEntity.ok(
+                candles.stream().map(CandleController::fromCandle).toList());
+    }
+
+    private static CandleResponse fromCandle(Candle candle) {
+        var response = new CandleResponse();
+        response.setOpenTime(candle.getOpenTime());
+        response.setOpen(candle.getOpenPrice());
+        response.setHigh(candle.getHighPrice());
+        response.setLow(candle.getLowPrice());
+        response.setClose(candle.getClosePrice());
+        response.setVolume(candle.getVolume());
+        response.setTradeCount(candle.getTradeCount());
+        return response;
+    }
+}
@@ -1,10 +1,12 @@
 package io.github.diogohmcruz.stockexchange.api;
 
 import jakarta.validation.ConstraintViolationException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -12,11 +14,15 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import io.github.diogohmcruz.stockexchange.domain.engine.EngineOverloadedException;
+import io.github.diogohmcruz.stockexchange.domain.service.RateLimitExceededException;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @ControllerAdvice
 public class GlobalExceptionHandler {
+    /** Overloaded shards usually drain within milliseconds, so clients may retry as soon as the header allows. */
+    private static final Duration OVERLOAD_RETRY_AFTER = Duration.ofSeconds(1);
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Object> handleValidationExceptions(MethodArgumentNotValidException ex) {
@@ -70,6 +76,16 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(body);
     }
 
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<Object> handleRateLimitExceeded(RateLimitExceededException ex) {
+        return tooManyRequests(ex.getMessage(), ex.getRetryAfter());
+    }
+
+    @ExceptionHandler(EngineOverloadedException.class)
+    public ResponseEntity<Object> handleEngineOverloaded(EngineOverloadedException ex) {
+        return tooManyRequests(ex.getMessage(), OVERLOAD_RETRY_AFTER);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Object> handleAllExceptions(Exception ex) {
         var body = Map.of(
@@ -81,4 +97,16 @@ public class GlobalExceptionHandler {
         log.error("Unexpected error occurred", ex);
         return ResponseEntity.internalServerError().body(body);
     }
+
+    private static ResponseEntity<Object> tooManyRequests(String message, Duration retryAfter) {
+        var retryAfterSeconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        var body = Map.of(
+                "timestamp", Instant.now(),
+                "status", HttpStatus.TOO_MANY_REQUESTS.value(),
+                "error", HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase(),
+                "message", message);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .body(body);
+    }
 }
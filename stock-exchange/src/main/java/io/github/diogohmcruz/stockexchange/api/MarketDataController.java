@@ -0,0 +1,36 @@
+package io.github.diogohmcruz.stockexchange.api;
+
+import java.util.Set;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import io.github.diogohmcruz.stockexchange.infrastructure.streaming.MarketDataStream;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/market-data")
+@RequiredArgsConstructor
+@Tag(name = "Market Data", description = "Streaming Market Data APIs")
+public class MarketDataController {
+    private final MarketDataStream marketDataStream;
+
+    @Operation(
+            summary = "Stream trades and book updates",
+            description = "Server-sent events: 'trade' events with every trade and 'book' events with the top of book"
+                    + " and the depth levels that changed. The first book event of each ticker is a full snapshot;"
+                    + " slow consumers skip intermediate book versions.")
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @Parameter(description = "Tickers to follow, all when omitted") @RequestParam(defaultValue = "")
+                    Set<String> tickers) {
+        return marketDataStream.subscribe(tickers);
+    }
+}
@@ -1,11 +1,15 @@
 package io.github.diogohmcruz.stockexchange.api;
 
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -13,6 +17,7 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -25,13 +30,28 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import io.github.diogohmcruz.marketlibrary.api.dto.BatchOrderResult;
 import io.github.diogohmcruz.marketlibrary.api.dto.CreateOrderRequest;
+import io.github.diogohmcruz.marketlibrary.api.dto.MarketDepthResponse;
+import io.github.diogohmcruz.marketlibrary.api.dto.OrderBookView;
 import io.github.diogohmcruz.marketlibrary.api.dto.OrderResponse;
+import io.github.diogohmcruz.marketlibrary.api.dto.PriceLevelResponse;
+import io.github.diogohmcruz.marketlibrary.api.dto.RestingOrderView;
+import io.github.diogohmcruz.marketlibrary.domain.model.OrderStatus;
+import io.github.diogohmcruz.marketlibrary.domain.model.OrderType;
+import io.github.diogohmcruz.stockexchange.domain.engine.OrderResult;
+import io.github.diogohmcruz.stockexchange.domain.model.BookDepth;
+import io.github.diogohmcruz.stockexchange.domain.model.DepthLevel;
 import io.github.diogohmcruz.stockexchange.domain.model.Order;
+import io.github.diogohmcruz.stockexchange.domain.model.TickSize;
 import io.github.diogohmcruz.stockexchange.domain.service.OrderBookService;
 import io.github.diogohmcruz.stockexchange.domain.service.OrderMatchingService;
+import io.github.diogohmcruz.stockexchange.domain.service.TickSizeRegistry;
+import io.github.diogohmcruz.stockexchange.infrastructure.serialization.EncodedView;
+import io.github.diogohmcruz.stockexchange.infrastructure.serialization.EncodedViewCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -44,16 +64,32 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 @Tag(name = "Orders", description = "Stock Exchange Order Management APIs")
 public class OrderController {
+    public static final int MAX_BATCH_SIZE = 1000;
+    public static final int MAX_BOOK_ORDERS_PER_SIDE = 500;
+
     private final OrderMatchingService orderMatchingService;
     private final OrderBookService orderBookService;
+    private final TickSizeRegistry tickSizeRegistry;
+    private final Validator validator;
+    private final ThreadPoolTaskExecutor brokerTaskExecutor;
+    private final EncodedViewCache encodedViewCache;
 
     @Operation(
             summary = "Submit a new order",
-            description = "Creates a new buy or sell order in the stock exchange system")
+            description = "Creates a new buy or sell order and answers once the matching engine has processed it,"
+                    + " with the trades it made on arrival and what is left of it")
     @ApiResponses({
+        @ApiResponse(
+                responseCode = "200",
+                description = "Order processed by the matching engine",
+                content =
+                        @Content(
+                                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                schema = @Schema(implementation = OrderResponse.class))),
         @ApiResponse(
                 responseCode = "202",
-                description = "Order accepted for processing",
+                description = "Order accepted, but the matching engine did not process it in time; its status is"
+                        + " PENDING",
                 content =
                         @Content(
                                 mediaType = MediaType.APPLICATION_JSON_VALUE,
@@ -63,12 +99,78 @@ public class OrderController {
     @PostMapping
     public CompletableFuture<ResponseEntity<OrderResponse>> submitOrder(
             @Valid @RequestBody CreateOrderRequest request, @Valid @RequestHeader("user") String userId) {
-        return CompletableFuture.supplyAsync(() -> toOrder(request, userId)).thenApply(order -> {
-            var isAdded = orderMatchingService.submitOrder(order);
-            var status = isAdded ? HttpStatus.OK : HttpStatus.INTERNAL_SERVER_ERROR;
-            var orderResponse = fromOrder(order);
-            return ResponseEntity.status(status).body(orderResponse);
-        });
+        var order = toOrder(request, userId);
+        return orderMatchingService
+                .submitOrderAsync(order)
+                .thenApplyAsync(result -> ResponseEntity.ok(fromResult(order, result)), brokerTaskExecutor)
+                .exceptionally(e -> {
+                    if (!(unwrap(e) instanceof TimeoutException)) {
+                        throw e instanceof CompletionException completion ? completion : new CompletionException(e);
+                    }
+                    var response = fromOrder(order);
+                    response.setRemainingQuantity(order.getQuantity());
+                    response.setStatus(OrderStatus.PENDING);
+                    return ResponseEntity.accepted().body(response);
+                });
+    }
+
+    @Operation(
+            summary = "Submit a batch of orders",
+            description = "Validates every order, publishes the valid ones to the engine together and reports the"
+                    + " outcome of each order in submission order")
+    @ApiResponses({
+        @ApiResponse(
+                responseCode = "200",
+                description = "Batch processed; see each result for whether its order was accepted",
+                content =
+                        @Content(
+                                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                array = @ArraySchema(schema = @Schema(implementation = BatchOrderResult.class)))),
+        @ApiResponse(responseCode = "400", description = "Empty batch or more than " + MAX_BATCH_SIZE + " orders")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchOrderResult>> submitOrders(
+            @RequestBody List<CreateOrderRequest> requests, @Valid @RequestHeader("user") String userId) {
+        if (requests.isEmpty() || requests.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("A batch must hold between 1 and " + MAX_BATCH_SIZE + " orders");
+        }
+        var results = new ArrayList<BatchOrderResult>(requests.size());
+        var orders = new ArrayList<Order>(requests.size());
+        var positions = new ArrayList<Integer>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            var result = new BatchOrderResult();
+            result.setIndex(i);
+            results.add(result);
+            var request = requests.get(i);
+            var violations = request == null ? null : validator.validate(request);
+            if (request == null || !violations.isEmpty()) {
+                result.setErrors(
+                        request == null
+                                ? List.of("Order is required")
+                                : violations.stream()
+                                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                                        .sorted()
+                                        .toList());
+                continue;
+            }
+            orders.add(toOrder(request, userId));
+            positions.add(i);
+        }
+
+        var rejections = orderMatchingService.submitOrders(orders);
+        for (int i = 0; i < orders.size(); i++) {
+            var result = results.get(positions.get(i));
+            var rejection = rejections.get(i);
+            if (rejection == null) {
+                var order = fromOrder(orders.get(i));
+                order.setStatus(OrderStatus.PENDING);
+                result.setAccepted(true);
+                result.setOrder(order);
+            } else {
+                result.setErrors(List.of(rejection));
+            }
+        }
+        return ResponseEntity.ok(results);
     }
 
     @Operation(summary = "Get order by ID")
@@ -88,20 +190,54 @@ public class OrderController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    @Operation(summary = "Get all active orders for a ticker")
+    @Operation(
+            summary = "Get all active orders for a ticker",
+            description = "Snapshot of the best orders resting on each side of the book, in matching priority, with"
+                    + " how many rest on each side in total")
+    @ApiResponses({
+        @ApiResponse(
+                responseCode = "200",
+                description = "Order book found",
+                content = @Content(schema = @Schema(implementation = OrderBookView.class))),
+        @ApiResponse(responseCode = "400", description = "Limit below 1")
+    })
     @GetMapping("/by-ticker/{ticker}")
-    public ResponseEntity<Map<String, List<OrderResponse>>> getOrdersByTicker(
+    public ResponseEntity<EncodedView> getOrdersByTicker(
+            @Parameter(description = "Stock ticker symbol") @PathVariable String ticker,
+            @Parameter(description = "Most orders to list per side, at most " + MAX_BOOK_ORDERS_PER_SIDE)
+                    @RequestParam(defaultValue = "" + MAX_BOOK_ORDERS_PER_SIDE)
+                    int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        var depth = orderBookService.getDepth(ticker);
+        if (depth.isEmpty()) {
+            return ResponseEntity.ok(emptyBookView(ticker));
+        }
+        var perSide = Math.min(limit, MAX_BOOK_ORDERS_PER_SIDE);
+        var key = new BookKey(ticker, depth.get().version(), perSide);
+        return ResponseEntity.ok(encodedViewCache.get(key, () -> toBookView(depth.get(), perSide)));
+    }
+
+    @Operation(
+            summary = "Get the market depth of a ticker",
+            description = "Total quantity and order count of the best price levels on each side of the book")
+    @ApiResponses({
+        @ApiResponse(
+                responseCode = "200",
+                description = "Depth found",
+                content = @Content(schema = @Schema(implementation = MarketDepthResponse.class))),
+        @ApiResponse(responseCode = "404", description = "No book for this ticker")
+    })
+    @GetMapping("/by-ticker/{ticker}/depth")
+    public ResponseEntity<MarketDepthResponse> getDepth(
             @Parameter(description = "Stock ticker symbol") @PathVariable String ticker) {
-        var orderBook = Map.of(
-                "buyOrders",
-                        orderBookService.getActiveBuyOrders(ticker).stream()
-                                .map(OrderController::fromOrder)
-                                .toList(),
-                "sellOrders",
-                        orderBookService.getActiveSellOrders(ticker).stream()
-                                .map(OrderController::fromOrder)
-                                .toList());
-        return ResponseEntity.ok(orderBook);
+        var tickSize = tickSizeRegistry.forTicker(ticker);
+        return orderBookService
+                .getDepth(ticker)
+                .map(depth -> fromDepth(depth, tickSize))
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @Operation(summary = "Get user's orders")
@@ -118,14 +254,28 @@ public class OrderController {
     @Operation(summary = "Cancel an order")
     @ApiResponses({
         @ApiResponse(responseCode = "204", description = "Order cancelled successfully"),
+        @ApiResponse(
+                responseCode = "202",
+                description = "Cancel accepted, but the matching engine did not process it in time; check the order"
+                        + " to see whether it was cancelled"),
         @ApiResponse(responseCode = "404", description = "Order not found"),
         @ApiResponse(responseCode = "403", description = "Not authorized to cancel this order")
     })
     @DeleteMapping("/{orderId}")
-    public ResponseEntity<Void> cancelOrder(@PathVariable UUID orderId, String userId) {
-        return orderBookService.cancelOrder(orderId, userId)
-                ? ResponseEntity.noContent().build()
-                : ResponseEntity.notFound().build();
+    public CompletableFuture<ResponseEntity<Void>> cancelOrder(@PathVariable UUID orderId, String userId) {
+        return orderMatchingService
+                .cancelOrderAsync(orderId, userId)
+                .thenApplyAsync(
+                        cancelled -> cancelled
+                                ? ResponseEntity.noContent().<Void>build()
+                                : ResponseEntity.notFound().<Void>build(),
+                        brokerTaskExecutor)
+                .exceptionally(e -> {
+                    if (!(unwrap(e) instanceof TimeoutException)) {
+                        throw e instanceof CompletionException completion ? completion : new CompletionException(e);
+                    }
+                    return ResponseEntity.accepted().build();
+                });
     }
 
     @Operation(summary = "Get order book statistics")
@@ -142,6 +292,11 @@ public class OrderController {
         return ResponseEntity.badRequest().body(ex.getMessage());
     }
 
+    /** Timeouts reach {@code exceptionally} wrapped or not depending on which stage failed. */
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException ? e.getCause() : e;
+    }
+
     private static Order toOrder(CreateOrderRequest request, String userId) {
         var order = new Order();
         order.setType(request.getType());
@@ -153,6 +308,49 @@ public class OrderController {
         return order;
     }
 
+    /**
+     * Lists the book after reading its published version, so the snapshot is at least as new as the version it is
+     * cached under, and a later version always gets a fresh one. The totals come from that same published depth.
+     */
+    private EncodedView toBookView(BookDepth depth, int perSide) {
+        var ticker = depth.ticker();
+        var view = new OrderBookView();
+        view.setTicker(ticker);
+        view.setVersion(depth.version());
+        view.setBuyOrders(orderMatchingService.getActiveOrders(ticker, OrderType.BUY, perSide).stream()
+                .map(OrderController::toRestingOrderView)
+                .toList());
+        view.setSellOrders(orderMatchingService.getActiveOrders(ticker, OrderType.SELL, perSide).stream()
+                .map(OrderController::toRestingOrderView)
+                .toList());
+        view.setTotalBuyOrders(depth.bidOrderCount());
+        view.setTotalSellOrders(depth.askOrderCount());
+        return EncodedView.of(
+                view, view.getBuyOrders().size() + view.getSellOrders().size());
+    }
+
+    /** A ticker with no book has nothing to list, so it is answered without asking the engine or filling the cache. */
+    private static EncodedView emptyBookView(String ticker) {
+        var view = new OrderBookView();
+        view.setTicker(ticker);
+        view.setBuyOrders(List.of());
+        view.setSellOrders(List.of());
+        return EncodedView.of(view, 0);
+    }
+
+    private static RestingOrderView toRestingOrderView(Order order) {
+        var view = new RestingOrderView();
+        view.setId(order.getId());
+        view.setType(order.getType());
+        view.setPrice(order.getPrice());
+        view.setQuantity(order.getQuantity());
+        view.setRemainingQuantity(order.getRemainingQuantity());
+        view.setTimestamp(order.getTimestamp());
+        view.setExpirationTime(order.getExpirationTime());
+        view.setUserId(order.getUserId());
+        return view;
+    }
+
     private static OrderResponse fromOrder(Order order) {
         var response = new OrderResponse();
         response.setId(order.getId());
@@ -160,10 +358,69 @@ public class OrderController {
         response.setTicker(order.getTicker());
         response.setPrice(order.getPrice());
         response.setQuantity(order.getQuantity());
+        response.setRemainingQuantity(order.getRemainingQuantity());
         response.setTimestamp(order.getTimestamp());
         response.setExpirationTime(order.getExpirationTime());
         response.setUserId(order.getUserId());
         response.setActive(order.isActive());
+        response.setStatus(statusOf(order.getQuantity(), order.getRemainingQuantity(), order.isActive()));
         return response;
     }
+
+    /**
+     * Builds the response from the submitted order's own fields, which the engine never changes, and the state matching
+     * left it in, which the order itself may no longer show by the time this runs.
+     */
+    private static OrderResponse fromResult(Order order, OrderResult result) {
+        var response = fromOrder(order);
+        if (!result.accepted()) {
+            response.setRemainingQuantity(order.getQuantity());
+            response.setActive(false);
+            response.setStatus(OrderStatus.REJECTED);
+            response.setFills(List.of());
+            return response;
+        }
+        response.setRemainingQuantity(result.remainingQuantity());
+        response.setActive(result.active());
+        response.setStatus(statusOf(order.getQuantity(), result.remainingQuantity(), result.active()));
+        response.setFills(
+                result.fills().stream().map(TradeController::fromTrade).toList());
+        return response;
+    }
+
+    private static OrderStatus statusOf(int quantity, int remainingQuantity, boolean active) {
+        if (remainingQuantity == 0) {
+            return OrderStatus.FILLED;
+        }
+        if (!active) {
+            return OrderStatus.CANCELLED;
+        }
+        return remainingQuantity < quantity ? OrderStatus.PARTIALLY_FILLED : OrderStatus.RESTING;
+    }
+
+    private static MarketDepthResponse fromDepth(BookDepth depth, TickSize tickSize) {
+        var response = new MarketDepthResponse();
+        response.setTicker(depth.ticker());
+        response.setVersion(depth.version());
+        if (depth.lastTradePriceTicks() > 0) {
+            response.setLastPrice(tickSize.toPrice(depth.lastTradePriceTicks()));
+        }
+        response.setBids(fromLevels(depth.bids(), tickSize));
+        response.setAsks(fromLevels(depth.asks(), tickSize));
+        return response;
+    }
+
+    private static List<PriceLevelResponse> fromLevels(List<DepthLevel> levels, TickSize tickSize) {
+        return levels.stream()
+                .map(level -> {
+                    var response = new PriceLevelResponse();
+                    response.setPrice(tickSize.toPrice(level.priceTicks()));
+                    response.setQuantity(level.quantity());
+                    response.setOrderCount(level.orderCount());
+                    return response;
+                })
+                .toList();
+    }
+
+    private record BookKey(String ticker, long version, int limit) {}
 }
@@ -0,0 +1,91 @@
+package io.github.diogohmcruz.stockexchange.api;
+
+import java.util.List;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.github.diogohmcruz.marketlibrary.api.dto.PositionResponse;
+import io.github.diogohmcruz.stockexchange.domain.model.MarketState;
+import io.github.diogohmcruz.stockexchange.domain.model.Position;
+import io.github.diogohmcruz.stockexchange.domain.service.MarketStateRegistry;
+import io.github.diogohmcruz.stockexchange.domain.service.PositionTracker;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/positions")
+@RequiredArgsConstructor
+@Tag(name = "Positions", description = "User Position and P&L APIs")
+public class PositionController {
+    private final PositionTracker positionTracker;
+    private final MarketStateRegistry marketStateRegistry;
+
+    @Operation(
+            summary = "Get a user's positions",
+            description = "Net quantity, average cost and P&L of every ticker the user traded")
+    @ApiResponses({
+        @ApiResponse(
+                responseCode = "200",
+                description = "Positions retrieved successfully",
+                content =
+                        @Content(
+                                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                array = @ArraySchema(schema = @Schema(implementation = PositionResponse.class))))
+    })
+    @GetMapping("/{userId}")
+    public ResponseEntity<List<PositionResponse>> getPositions(
+            @Parameter(description = "User ID") @PathVariable String userId) {
+        return ResponseEntity.ok(positionTracker.getPositions(userId).stream()
+                .map(this::fromPosition)
+                .toList());
+    }
+
+    @Operation(summary = "Get a user's position in a ticker")
+    @ApiResponses({
+        @ApiResponse(
+                responseCode = "200",
+                description = "Position found",
+                content =
+                        @Content(
+                                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                schema = @Schema(implementation = PositionResponse.class))),
+        @ApiResponse(responseCode = "404", description = "User never traded the ticker")
+    })
+    @GetMapping("/{userId}/{ticker}")
+    public ResponseEntity<PositionResponse> getPosition(
+            @Parameter(description = "User ID") @PathVariable String userId,
+            @Parameter(description = "Stock ticker symbol") @PathVariable String ticker) {
+        return positionTracker
+                .getPosition(userId, ticker)
+                .map(this::fromPosition)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private PositionResponse fromPosition(Position position) {
+        var lastPrice = marketStateRegistry
+                .getState(position.ticker())
+                .map(MarketState::lastPrice)
+                .orElse(null);
+        var response = new PositionResponse();
+        response.setTicker(position.ticker());
+        response.setQuantity(position.quantity());
+        response.setAverageCost(position.averageCost());
+        response.setRealizedPnl(position.realizedPnl());
+        response.setLastPrice(lastPrice);
+        response.setUnrealizedPnl(position.unrealizedPnl(lastPrice));
+        return response;
+    }
+}
@@ -9,7 +9,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import io.github.diogohmcruz.marketlibrary.api.dto.TickerInfo;
+import io.github.diogohmcruz.stockexchange.domain.model.MarketState;
 import io.github.diogohmcruz.stockexchange.domain.service.TickerService;
+import io.github.diogohmcruz.stockexchange.infrastructure.serialization.EncodedView;
+import io.github.diogohmcruz.stockexchange.infrastructure.serialization.EncodedViewCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -26,6 +29,7 @@ import lombok.RequiredArgsConstructor;
 public class TickerController {
 
     private final TickerService tickerService;
+    private final EncodedViewCache encodedViewCache;
 
     @Operation(
             summary = "Get all active tickers",
@@ -40,8 +44,10 @@ public class TickerController {
                                 array = @ArraySchema(schema = @Schema(implementation = String.class))))
     })
     @GetMapping
-    public ResponseEntity<List<String>> getAllTickers() {
-        return ResponseEntity.ok(tickerService.getAllActiveTickers());
+    public ResponseEntity<EncodedView> getAllTickers() {
+        var tickers = tickerService.getAllActiveTickers();
+        return ResponseEntity.ok(
+                encodedViewCache.get(new TickersKey(tickers), () -> EncodedView.of(tickers, tickers.size())));
     }
 
     @Operation(
@@ -58,8 +64,29 @@ public class TickerController {
                                 array = @ArraySchema(schema = @Schema(implementation = TickerInfo.class))))
     })
     @GetMapping("/info")
-    public ResponseEntity<List<TickerInfo>> getTickerInfo() {
-        // This will be implemented in the next version
-        return ResponseEntity.ok(List.of());
+    public ResponseEntity<EncodedView> getTickerInfo() {
+        var states = tickerService.getActiveStates();
+        return ResponseEntity.ok(encodedViewCache.get(
+                new TickerInfoKey(states),
+                () -> EncodedView.of(
+                        states.stream().map(TickerController::toTickerInfo).toList(), states.size())));
     }
+
+    private static TickerInfo toTickerInfo(MarketState state) {
+        var info = new TickerInfo();
+        info.setSymbol(state.ticker());
+        info.setLastPrice(state.lastPrice());
+        info.setActiveBuyOrders(state.activeBuyOrders());
+        info.setActiveSellOrders(state.activeSellOrders());
+        info.setLastTradeTime(state.lastTradeTime());
+        return info;
+    }
+
+    /**
+     * Market states are small immutable records, so the states themselves identify the encoded snapshot: comparing them
+     * is far cheaper than mapping and encoding them again.
+     */
+    private record TickerInfoKey(List<MarketState> states) {}
+
+    private record TickersKey(List<String> tickers) {}
 }
@@ -1,14 +1,10 @@
 package io.github.diogohmcruz.stockexchange.api;
 
 import java.math.BigDecimal;
-import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,11 +13,18 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import io.github.diogohmcruz.marketlibrary.api.dto.CursorPage;
+import io.github.diogohmcruz.marketlibrary.api.dto.TradeResponse;
+import io.github.diogohmcruz.stockexchange.domain.model.StatisticsWindow;
 import io.github.diogohmcruz.stockexchange.domain.model.Trade;
+import io.github.diogohmcruz.stockexchange.domain.model.TradeCursor;
 import io.github.diogohmcruz.stockexchange.domain.model.TradeStatistics;
 import io.github.diogohmcruz.stockexchange.domain.service.TradeService;
+import io.github.diogohmcruz.stockexchange.infrastructure.serialization.EncodedView;
+import io.github.diogohmcruz.stockexchange.infrastructure.serialization.EncodedViewCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -36,6 +39,7 @@ import lombok.RequiredArgsConstructor;
 public class TradeController {
 
     private final TradeService tradeService;
+    private final EncodedViewCache encodedViewCache;
 
     @Operation(summary = "Get trade by ID", description = "Retrieves a specific trade by its UUID")
     @ApiResponses({
@@ -45,36 +49,47 @@ public class TradeController {
                 content =
                         @Content(
                                 mediaType = MediaType.APPLICATION_JSON_VALUE,
-                                schema = @Schema(implementation = Trade.class))),
+                                schema = @Schema(implementation = TradeResponse.class))),
         @ApiResponse(responseCode = "404", description = "Trade not found")
     })
     @GetMapping("/{tradeId}")
-    public ResponseEntity<Trade> getTradeById(@Parameter(description = "Trade ID") @PathVariable UUID tradeId) {
-        return tradeService
+    public ResponseEntity<EncodedView> getTradeById(@Parameter(description = "Trade ID") @PathVariable UUID tradeId) {
+        var view = encodedViewCache.get(new TradeKey(tradeId), () -> tradeService
                 .getTradeById(tradeId)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+                .map(trade -> EncodedView.of(fromTrade(trade), 1))
+                .orElse(null));
+        return view == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(view);
     }
 
-    @Operation(summary = "Get trades by ticker", description = "Retrieves all trades for a specific stock ticker")
+    @Operation(
+            summary = "Get trades by ticker",
+            description = "Retrieves a page of trades for a specific stock ticker, newest first")
     @ApiResponses({
         @ApiResponse(
                 responseCode = "200",
-                description = "List of trades found",
+                description = "Page of trades found",
                 content =
                         @Content(
                                 mediaType = MediaType.APPLICATION_JSON_VALUE,
-                                schema = @Schema(implementation = Trade.class)))
+                                schema = @Schema(implementation = CursorPage.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or limit")
     })
     @GetMapping("/by-ticker/{ticker}")
-    public ResponseEntity<List<Trade>> getTradesByTicker(
-            @Parameter(description = "Stock ticker symbol") @PathVariable String ticker) {
-        return ResponseEntity.ok(tradeService.getTradesByTicker(ticker));
+    public ResponseEntity<EncodedView> getTradesByTicker(
+            @Parameter(description = "Stock ticker symbol") @PathVariable String ticker,
+            @Parameter(description = "Cursor returned with the previous page") @RequestParam(required = false)
+                    String cursor,
+            @Parameter(description = "Maximum number of trades to return, at most 500")
+                    @RequestParam(defaultValue = "100")
+                    int limit) {
+        var trades = tradeService.getTradesByTicker(ticker, decode(cursor), limit);
+        return ResponseEntity.ok(toPage(PageKey.of("by-ticker", ticker, cursor, limit, trades), trades, limit));
     }
 
     @Operation(
             summary = "Get trades by user",
-            description = "Retrieves all trades where the specified user was either buyer or seller")
+            description =
+                    "Retrieves a page of trades where the specified user was either buyer or seller, newest first")
     @ApiResponses({
         @ApiResponse(
                 responseCode = "200",
@@ -82,12 +97,19 @@ public class TradeController {
                 content =
                         @Content(
                                 mediaType = MediaType.APPLICATION_JSON_VALUE,
-                                schema = @Schema(implementation = Trade.class)))
+                                schema = @Schema(implementation = CursorPage.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or limit")
     })
     @GetMapping("/by-user/{userId}")
-    public ResponseEntity<Page<Trade>> getTradesByUser(
-            @Parameter(description = "User ID") @PathVariable String userId, Pageable pageable) {
-        return ResponseEntity.ok(tradeService.getTradesByUser(userId, pageable));
+    public ResponseEntity<EncodedView> getTradesByUser(
+            @Parameter(description = "User ID") @PathVariable String userId,
+            @Parameter(description = "Cursor returned with the previous page") @RequestParam(required = false)
+                    String cursor,
+            @Parameter(description = "Maximum number of trades to return, at most 500")
+                    @RequestParam(defaultValue = "100")
+                    int limit) {
+        var trades = tradeService.getTradesByUser(userId, decode(cursor), limit);
+        return ResponseEntity.ok(toPage(PageKey.of("by-user", userId, cursor, limit, trades), trades, limit));
     }
 
     @Operation(summary = "Get latest prices for all tickers")
@@ -96,26 +118,93 @@ public class TradeController {
         return ResponseEntity.ok(tradeService.getLatestPrices());
     }
 
-    @Operation(summary = "Get trading statistics")
+    @Operation(
+            summary = "Get trading statistics",
+            description = "Trade count, price range, average price and volume per ticker over a rolling window")
     @GetMapping("/statistics")
     public ResponseEntity<Map<String, TradeStatistics>> getStatistics(
-            @Parameter(description = "Start time") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
-                    Instant since) {
-        return ResponseEntity.ok(tradeService.getTickerStatistics(since));
+            @Parameter(description = "Rolling window: MINUTE, HOUR or DAY") @RequestParam(defaultValue = "DAY")
+                    StatisticsWindow window) {
+        return ResponseEntity.ok(tradeService.getTickerStatistics(window));
     }
 
     @Operation(summary = "Get daily trading volume")
     @GetMapping("/daily-volume")
-    public ResponseEntity<Map<String, Integer>> getDailyVolume() {
+    public ResponseEntity<Map<String, Long>> getDailyVolume() {
         return ResponseEntity.ok(tradeService.getDailyTradingVolume());
     }
 
     @Operation(summary = "Get user's recent trades")
+    @ApiResponses({
+        @ApiResponse(
+                responseCode = "200",
+                description = "List of trades found",
+                content =
+                        @Content(
+                                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                array = @ArraySchema(schema = @Schema(implementation = TradeResponse.class))))
+    })
     @GetMapping("/user/{userId}/recent")
-    public ResponseEntity<List<Trade>> getUserRecentTrades(
+    public ResponseEntity<EncodedView> getUserRecentTrades(
             @Parameter(description = "User ID") @PathVariable String userId,
             @Parameter(description = "Maximum number of trades to return") @RequestParam(defaultValue = "10")
                     int limit) {
-        return ResponseEntity.ok(tradeService.getUserRecentTrades(userId, limit));
+        var trades = tradeService.getUserRecentTrades(userId, limit);
+        var key = PageKey.of("recent", userId, null, limit, trades);
+        return ResponseEntity.ok(encodedViewCache.get(
+                key,
+                () -> EncodedView.of(
+                        trades.stream().map(TradeController::fromTrade).toList(), trades.size())));
+    }
+
+    private static TradeCursor decode(String cursor) {
+        return cursor == null || cursor.isEmpty() ? null : TradeCursor.decode(cursor);
+    }
+
+    /**
+     * A full page may be followed by more trades, so it carries the cursor of its last one. The page is encoded once
+     * for every request that gets the same trades.
+     */
+    private EncodedView toPage(PageKey key, List<Trade> trades, int limit) {
+        return encodedViewCache.get(key, () -> {
+            var isFull = !trades.isEmpty() && trades.size() >= Math.min(limit, TradeService.MAX_TRADES_PER_PAGE);
+            var nextCursor = isFull ? TradeCursor.after(trades.getLast()).encode() : null;
+            var page = new CursorPage<>(
+                    trades.stream().map(TradeController::fromTrade).toList(), nextCursor);
+            return EncodedView.of(page, trades.size());
+        });
+    }
+
+    /** Only the ids of the traded orders are read, which does not load them. */
+    static TradeResponse fromTrade(Trade trade) {
+        var response = new TradeResponse();
+        response.setId(trade.getId());
+        response.setTicker(trade.getTicker());
+        response.setPrice(trade.getPrice());
+        response.setQuantity(trade.getQuantity());
+        response.setTimestamp(trade.getTimestamp());
+        response.setBuyOrderId(trade.getBuyOrder().getId());
+        response.setSellOrderId(trade.getSellOrder().getId());
+        response.setBuyerId(trade.getBuyerId());
+        response.setSellerId(trade.getSellerId());
+        return response;
+    }
+
+    private record TradeKey(UUID tradeId) {}
+
+    /**
+     * Identifies a page of trades by the request and the ids of every trade it got. Trades never change once stored,
+     * but shards persist them out of timestamp order, so an older trade can still land inside a page that is already
+     * full; only the whole list of ids pins down the page's content.
+     */
+    private record PageKey(String scope, String owner, String cursor, int limit, List<UUID> tradeIds) {
+        static PageKey of(String scope, String owner, String cursor, int limit, List<Trade> trades) {
+            return new PageKey(
+                    scope,
+                    owner,
+                    cursor,
+                    limit,
+                    trades.stream().map(Trade::getId).toList());
+        }
     }
 }
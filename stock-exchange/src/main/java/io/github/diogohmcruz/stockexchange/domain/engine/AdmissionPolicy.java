@@ -0,0 +1,9 @@
+package io.github.diogohmcruz.stockexchange.domain.engine;
+
+/** What the engine does with a new order when the ring buffer of its shard is full. */
+public enum AdmissionPolicy {
+    /** Refuse the order straight away. */
+    REJECT,
+    /** Wait up to a deadline for the shard to catch up, then refuse the order. */
+    BLOCK
+}
@@ -0,0 +1,17 @@
+package io.github.diogohmcruz.stockexchange.domain.engine;
+
+import java.util.List;
+
+import io.github.diogohmcruz.stockexchange.domain.model.Order;
+import io.github.diogohmcruz.stockexchange.domain.model.Position;
+
+/**
+ * Copy of one ticker's book: its resting orders in priority order, best bid first then best ask first, and the price of
+ * the last trade in ticks. It also holds every user's position in the ticker. Positions only change with the ticker's
+ * trades, so they are taken at the same point of the journal as the book.
+ */
+public record BookSnapshot(String ticker, long lastTradePriceTicks, List<Order> orders, List<Position> positions) {
+    public BookSnapshot withPositions(List<Position> positions) {
+        return new BookSnapshot(ticker, lastTradePriceTicks, orders, positions);
+    }
+}
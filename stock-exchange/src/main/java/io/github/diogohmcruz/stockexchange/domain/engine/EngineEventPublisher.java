@@ -0,0 +1,85 @@
+package io.github.diogohmcruz.stockexchange.domain.engine;
+
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import io.github.diogohmcruz.stockexchange.domain.model.BookDepth;
+import io.github.diogohmcruz.stockexchange.domain.model.Order;
+import io.github.diogohmcruz.stockexchange.domain.model.Trade;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fans engine state changes out to every {@link EngineListener}. A failing listener is logged and skipped so it can
+ * never stall matching.
+ */
+@Slf4j
+@Component
+public class EngineEventPublisher {
+    private final List<EngineListener> listeners;
+
+    public EngineEventPublisher(ObjectProvider<EngineListener> listeners) {
+        this.listeners = listeners.orderedStream().toList();
+    }
+
+    /** @return whether any listener asks for new orders to be held back */
+    public boolean isBackpressured() {
+        for (var listener : listeners) {
+            if (listener.isBackpressured()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void orderAccepted(Order order) {
+        for (var listener : listeners) {
+            try {
+                listener.onOrderAccepted(order);
+            } catch (RuntimeException e) {
+                log.error("Listener {} failed on accepted order {}", listener, order.getId(), e);
+            }
+        }
+    }
+
+    public void orderUpdated(Order order) {
+        for (var listener : listeners) {
+            try {
+                listener.onOrderUpdated(order);
+            } catch (RuntimeException e) {
+                log.error("Listener {} failed on updated order {}", listener, order.getId(), e);
+            }
+        }
+    }
+
+    public void orderExpired(Order order) {
+        for (var listener : listeners) {
+            try {
+                listener.onOrderExpired(order);
+            } catch (RuntimeException e) {
+                log.error("Listener {} failed on expired order {}", listener, order.getId(), e);
+            }
+        }
+    }
+
+    public void tradeExecuted(Trade trade) {
+        for (var listener : listeners) {
+            try {
+                listener.onTrade(trade);
+            } catch (RuntimeException e) {
+                log.error("Listener {} failed on trade {}", listener, trade.getId(), e);
+            }
+        }
+    }
+
+    public void depthPublished(BookDepth depth) {
+        for (var listener : listeners) {
+            try {
+                listener.onDepth(depth);
+            } catch (RuntimeException e) {
+                log.error("Listener {} failed on depth of {}", listener, depth.ticker(), e);
+            }
+        }
+    }
+}
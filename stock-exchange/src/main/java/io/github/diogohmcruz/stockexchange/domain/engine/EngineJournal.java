@@ -0,0 +1,32 @@
+package io.github.diogohmcruz.stockexchange.domain.engine;
+
+import java.util.function.Consumer;
+
+/**
+ * Durable log of the commands that change the books. Each shard appends from its own journalling stage, ahead of the
+ * matching stage, so an event is only matched once it has been journalled; replaying the log in order rebuilds the
+ * books. A failing append stops its shard rather than matching events that could not be made durable.
+ */
+public interface EngineJournal {
+    EngineJournal NONE = new EngineJournal() {};
+
+    default boolean isEnabled() {
+        return false;
+    }
+
+    /**
+     * Hands the books of the newest complete snapshot to {@code restore}, then feeds every event journalled after it to
+     * {@code replay} in the order it was appended to its shard.
+     */
+    default void recover(Consumer<BookSnapshot> restore, Consumer<OrderEvent> replay) {}
+
+    default void open(int shardCount) {}
+
+    /**
+     * Called on the shard's journalling thread only, so implementations need no locking per shard. A
+     * {@link EventType#SNAPSHOT} event is not written but stamped with the shard's current journal position.
+     */
+    default void append(int shard, OrderEvent event, boolean endOfBatch) {}
+
+    default void close() {}
+}
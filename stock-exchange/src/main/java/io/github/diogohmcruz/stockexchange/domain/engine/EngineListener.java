@@ -0,0 +1,34 @@
+package io.github.diogohmcruz.stockexchange.domain.engine;
+
+import io.github.diogohmcruz.stockexchange.domain.model.BookDepth;
+import io.github.diogohmcruz.stockexchange.domain.model.Order;
+import io.github.diogohmcruz.stockexchange.domain.model.Trade;
+
+/**
+ * Receives the state changes produced by the matching engine. Callbacks run on the matching thread that owns the
+ * ticker, so implementations must be quick, must not block and must copy whatever they keep: the orders passed in keep
+ * being mutated by the engine.
+ */
+public interface EngineListener {
+    default void onOrderAccepted(Order order) {}
+
+    default void onOrderUpdated(Order order) {}
+
+    /** An order reached its expiration time and left the book; by default just another update. */
+    default void onOrderExpired(Order order) {
+        onOrderUpdated(order);
+    }
+
+    default void onTrade(Trade trade) {}
+
+    /** A book published a new depth after the command that changed it; the depth itself is immutable. */
+    default void onDepth(BookDepth depth) {}
+
+    /**
+     * Whether this listener has fallen so far behind that new orders should be refused until it catches up. Asked at
+     * admission, off the matching threads.
+     */
+    default boolean isBackpressured() {
+        return false;
+    }
+}
@@ -0,0 +1,11 @@
+package io.github.diogohmcruz.stockexchange.domain.engine;
+
+/**
+ * A new order was refused because its matching shard had no room left for it, or because a listener behind the engine
+ * fell too far behind to take the events it would cause.
+ */
+public class EngineOverloadedException extends RuntimeException {
+    public EngineOverloadedException(String message) {
+        super(message);
+    }
+}
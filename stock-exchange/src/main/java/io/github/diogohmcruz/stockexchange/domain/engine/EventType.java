@@ -0,0 +1,9 @@
+package io.github.diogohmcruz.stockexchange.domain.engine;
+
+public enum EventType {
+    NEW_ORDER,
+    CANCEL_ORDER,
+    QUERY,
+    SNAPSHOT,
+    TIMER
+}
@@ -0,0 +1,70 @@
+package io.github.diogohmcruz.stockexchange.domain.engine;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Snowflake-style 64-bit ids assigned on admission: 41 bits of milliseconds since {@link #EPOCH}, 10 bits of node id
+ * and a 12-bit sequence within the millisecond. Ids only ever increase, even when the clock steps back or more than
+ * 4096 ids are taken in one millisecond, in which case the sequence borrows from the next millisecond.
+ *
+ * <p>Ids travel as UUIDs whose most significant half is the 64-bit id and whose least significant half tags the kind of
+ * entity, so they sort by admission time both in the database, which compares UUIDs as unsigned bytes, and in
+ * {@link UUID#compareTo} for ids made within 34 years of the epoch.
+ */
+@Component
+public class IdGenerator {
+    public static final Instant EPOCH = Instant.parse("2025-01-01T00:00:00Z");
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long ORDER_TAG = 0x01L << 56;
+    private static final long TRADE_TAG = 0x02L << 56;
+
+    private final Clock clock;
+    private final long node;
+    private final AtomicLong lastTick = new AtomicLong();
+
+    @Autowired
+    public IdGenerator(@Value("${engine.node-id:0}") long nodeId) {
+        this(nodeId, Clock.systemUTC());
+    }
+
+    public IdGenerator(long nodeId, Clock clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.clock = clock;
+        this.node = nodeId << SEQUENCE_BITS;
+    }
+
+    public long nextId() {
+        var now = (clock.millis() - EPOCH.toEpochMilli()) << SEQUENCE_BITS;
+        var tick = lastTick.updateAndGet(last -> Math.max(last + 1, now));
+        return ((tick >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS)) | node | (tick & SEQUENCE_MASK);
+    }
+
+    public UUID nextOrderId() {
+        return new UUID(nextId(), ORDER_TAG);
+    }
+
+    /**
+     * Id of the {@code fill}-th trade of an incoming order. Every trade is produced by exactly one incoming order, so
+     * the id is unique, sorts with the order's admission and is the same when the journal replays the order.
+     */
+    public static UUID tradeId(UUID incomingOrderId, int fill) {
+        return new UUID(incomingOrderId.getMostSignificantBits(), TRADE_TAG | fill);
+    }
+
+    /** Admission time of an id made by this generator. */
+    public static Instant timestampOf(UUID id) {
+        return EPOCH.plusMillis(id.getMostSignificantBits() >>> (NODE_BITS + SEQUENCE_BITS));
+    }
+}
@@ -0,0 +1,4 @@
+package io.github.diogohmcruz.stockexchange.domain.engine;
+
+/** Point in a shard's journal: the byte {@code offset} into segment {@code segment} of {@code generation}. */
+public record JournalPosition(long generation, int segment, int offset) {}
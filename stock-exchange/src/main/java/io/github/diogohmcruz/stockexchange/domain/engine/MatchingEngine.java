@@ -0,0 +1,415 @@
+package io.github.diogohmcruz.stockexchange.domain.engine;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.InsufficientCapacityException;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.TimeoutException;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+
+import io.github.diogohmcruz.marketlibrary.infrastructure.SimpleThreadFactory;
+import io.github.diogohmcruz.stockexchange.domain.model.Order;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ticker-sharded matching engine. Every ticker is pinned to one shard and every shard is drained by exactly one thread,
+ * so all orders for a ticker are matched sequentially in the order they were published.
+ *
+ * <p>A shard's ring buffer bounds how many events wait for it. New orders that find it full are handled by the
+ * {@link AdmissionPolicy}: refused with an {@link EngineOverloadedException} at once, or after waiting up to a
+ * deadline. Cancels, queries and snapshots wait for room up to a fixed deadline whatever the policy, and fail their
+ * future with an {@link EngineOverloadedException} past it, so a stuck shard never holds their callers forever. A timer
+ * event that finds no room is skipped: the next tick carries a later time and expires everything this one would have.
+ */
+@Slf4j
+public class MatchingEngine implements AutoCloseable {
+    private static final Duration DEFAULT_ADMISSION_TIMEOUT = Duration.ofSeconds(1);
+    private static final long ADMISSION_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long CONTROL_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Disruptor<OrderEvent>[] disruptors;
+    private final OrderEventProcessor processor;
+    private final EngineJournal journal;
+    private final long admissionTimeoutNanos;
+    private final LongAdder rejectedOrders = new LongAdder();
+    private final LongAdder skippedTicks = new LongAdder();
+    private RingBuffer<OrderEvent>[] ringBuffers;
+
+    public MatchingEngine(int shardCount, int ringBufferSize, OrderEventProcessor processor) {
+        this(shardCount, ringBufferSize, processor, EngineJournal.NONE);
+    }
+
+    public MatchingEngine(int shardCount, int ringBufferSize, OrderEventProcessor processor, EngineJournal journal) {
+        this(shardCount, ringBufferSize, processor, journal, AdmissionPolicy.BLOCK, DEFAULT_ADMISSION_TIMEOUT);
+    }
+
+    @SuppressWarnings("unchecked")
+    public MatchingEngine(
+            int shardCount,
+            int ringBufferSize,
+            OrderEventProcessor processor,
+            EngineJournal journal,
+            AdmissionPolicy admissionPolicy,
+            Duration admissionTimeout) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be at least 1");
+        }
+        if (Integer.bitCount(ringBufferSize) != 1) {
+            throw new IllegalArgumentException("Ring buffer size must be a power of 2");
+        }
+        this.processor = processor;
+        this.journal = journal;
+        this.admissionTimeoutNanos = admissionPolicy == AdmissionPolicy.BLOCK ? admissionTimeout.toNanos() : 0;
+        this.disruptors = new Disruptor[shardCount];
+        for (int shard = 0; shard < shardCount; shard++) {
+            var threadFactory = SimpleThreadFactory.builder()
+                    .nameFormat("matching-" + shard + "-%d")
+                    .build();
+            var disruptor = new Disruptor<OrderEvent>(
+                    OrderEvent::new, ringBufferSize, threadFactory, ProducerType.MULTI, new BlockingWaitStrategy());
+            if (journal.isEnabled()) {
+                disruptor.handleEventsWith(new JournalHandler(shard)).then(new ShardHandler(shard));
+            } else {
+                disruptor.handleEventsWith(new ShardHandler(shard));
+            }
+            disruptors[shard] = disruptor;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public void start() {
+        journal.open(disruptors.length);
+        ringBuffers = new RingBuffer[disruptors.length];
+        for (int shard = 0; shard < disruptors.length; shard++) {
+            ringBuffers[shard] = disruptors[shard].start();
+        }
+        log.info("Matching engine started with {} shards", disruptors.length);
+    }
+
+    public void publish(Order order) {
+        publish(order, null);
+    }
+
+    /**
+     * Publishes an order whose outcome the caller wants. The result completes on the matching thread as soon as the
+     * order was processed, so whatever the caller chains onto it should move to another thread first.
+     */
+    public CompletableFuture<OrderResult> submit(Order order) {
+        var result = new CompletableFuture<OrderResult>();
+        publish(order, result);
+        return result;
+    }
+
+    private void publish(Order order, CompletableFuture<OrderResult> result) {
+        var shard = shardOf(order.getTicker());
+        var ringBuffer = ringBuffers[shard];
+        var sequence = claim(shard, ringBuffer, 1);
+        try {
+            var event = ringBuffer.get(sequence);
+            event.setType(EventType.NEW_ORDER);
+            event.setOrder(order);
+            event.setOrderResult(result);
+        } finally {
+            ringBuffer.publish(sequence);
+        }
+    }
+
+    /**
+     * Publishes orders for many tickers at once. Each shard's orders are claimed and published as one contiguous run of
+     * its ring buffer, in the order they were given, so a shard sees the whole batch in one go and other publishers
+     * cannot interleave with it. Runs longer than the ring buffer are split.
+     *
+     * @return the orders that were refused because their shard was overloaded
+     */
+    public List<Order> publishAll(List<Order> orders) {
+        var byShard = new ArrayList<List<Order>>(ringBuffers.length);
+        for (int shard = 0; shard < ringBuffers.length; shard++) {
+            byShard.add(new ArrayList<>());
+        }
+        for (var order : orders) {
+            byShard.get(shardOf(order.getTicker())).add(order);
+        }
+        var refused = new ArrayList<Order>();
+        for (int shard = 0; shard < ringBuffers.length; shard++) {
+            var ringBuffer = ringBuffers[shard];
+            var shardOrders = byShard.get(shard);
+            for (int from = 0; from < shardOrders.size(); from += ringBuffer.getBufferSize()) {
+                var count = Math.min(ringBuffer.getBufferSize(), shardOrders.size() - from);
+                long hi;
+                try {
+                    hi = claim(shard, ringBuffer, count);
+                } catch (EngineOverloadedException e) {
+                    refused.addAll(shardOrders.subList(from, shardOrders.size()));
+                    rejectedOrders.add(shardOrders.size() - from - count);
+                    break;
+                }
+                var lo = hi - count + 1;
+                try {
+                    for (int i = 0; i < count; i++) {
+                        var event = ringBuffer.get(lo + i);
+                        event.setType(EventType.NEW_ORDER);
+                        event.setOrder(shardOrders.get(from + i));
+                    }
+                } finally {
+                    ringBuffer.publish(lo, hi);
+                }
+            }
+        }
+        return refused;
+    }
+
+    /**
+     * Claims {@code count} slots of a shard's ring buffer for new orders, following the admission policy when it does
+     * not have that many free.
+     *
+     * @return the highest claimed sequence
+     * @throws EngineOverloadedException if the slots could not be claimed in time
+     */
+    private long claim(int shard, RingBuffer<OrderEvent> ringBuffer, int count) {
+        var sequence = tryClaim(ringBuffer, count, admissionTimeoutNanos);
+        if (sequence < 0) {
+            rejectedOrders.add(count);
+            throw overloaded(shard);
+        }
+        return sequence;
+    }
+
+    /** @return the highest claimed sequence, or -1 if the slots did not free up within {@code timeoutNanos} */
+    private static long tryClaim(RingBuffer<OrderEvent> ringBuffer, int count, long timeoutNanos) {
+        var deadline = System.nanoTime() + timeoutNanos;
+        while (true) {
+            try {
+                return ringBuffer.tryNext(count);
+            } catch (InsufficientCapacityException e) {
+                if (System.nanoTime() - deadline >= 0) {
+                    return -1;
+                }
+                LockSupport.parkNanos(ADMISSION_PARK_NANOS);
+            }
+        }
+    }
+
+    private static EngineOverloadedException overloaded(int shard) {
+        return new EngineOverloadedException("Matching shard " + shard + " is overloaded, try again later");
+    }
+
+    /** @return events published to a shard that it has not processed yet */
+    public long queueDepth(int shard) {
+        var ringBuffer = ringBuffers[shard];
+        return ringBuffer.getBufferSize() - ringBuffer.remainingCapacity();
+    }
+
+    /** @return new orders refused so far because their shard was overloaded */
+    public long getRejectedOrders() {
+        return rejectedOrders.sum();
+    }
+
+    /** @return timer events not published because their shard was full */
+    public long getSkippedTicks() {
+        return skippedTicks.sum();
+    }
+
+    public CompletableFuture<Boolean> cancel(String ticker, UUID orderId, String userId) {
+        var shard = shardOf(ticker);
+        var ringBuffer = ringBuffers[shard];
+        var sequence = tryClaim(ringBuffer, 1, CONTROL_TIMEOUT_NANOS);
+        if (sequence < 0) {
+            return CompletableFuture.failedFuture(overloaded(shard));
+        }
+        var result = new CompletableFuture<Boolean>();
+        try {
+            var event = ringBuffer.get(sequence);
+            event.setType(EventType.CANCEL_ORDER);
+            event.setOrderId(orderId);
+            event.setUserId(userId);
+            event.setCancelResult(result);
+        } finally {
+            ringBuffer.publish(sequence);
+        }
+        return result;
+    }
+
+    /**
+     * Runs a read-only query on the matching thread that owns the ticker, ordered after everything already published
+     * for it.
+     */
+    public <T> CompletableFuture<T> query(String ticker, Supplier<T> query) {
+        var shard = shardOf(ticker);
+        var ringBuffer = ringBuffers[shard];
+        var sequence = tryClaim(ringBuffer, 1, CONTROL_TIMEOUT_NANOS);
+        if (sequence < 0) {
+            return CompletableFuture.failedFuture(overloaded(shard));
+        }
+        var result = new CompletableFuture<T>();
+        try {
+            var event = ringBuffer.get(sequence);
+            event.setType(EventType.QUERY);
+            event.setTask(() -> {
+                try {
+                    result.complete(query.get());
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } finally {
+            ringBuffer.publish(sequence);
+        }
+        return result;
+    }
+
+    /**
+     * Snapshots every shard at a consistent point of its own journal. The copies are taken on the matching threads
+     * between two events, so matching is never stopped, and the future completes once every shard has answered.
+     */
+    public CompletableFuture<List<ShardSnapshot>> snapshot() {
+        var results = new ArrayList<CompletableFuture<ShardSnapshot>>(ringBuffers.length);
+        for (int shard = 0; shard < ringBuffers.length; shard++) {
+            var ringBuffer = ringBuffers[shard];
+            var sequence = tryClaim(ringBuffer, 1, CONTROL_TIMEOUT_NANOS);
+            if (sequence < 0) {
+                return CompletableFuture.failedFuture(overloaded(shard));
+            }
+            var result = new CompletableFuture<ShardSnapshot>();
+            try {
+                var event = ringBuffer.get(sequence);
+                event.setType(EventType.SNAPSHOT);
+                event.setSnapshotResult(result);
+            } finally {
+                ringBuffer.publish(sequence);
+            }
+            results.add(result);
+        }
+        return CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+                .thenApply(done -> results.stream().map(CompletableFuture::join).toList());
+    }
+
+    /**
+     * Publishes the engine time to every shard. Timer events are journalled like any other input, so expiries replay at
+     * the same point relative to the orders around them. A shard with no free slot skips this tick rather than holding
+     * up the scheduler.
+     */
+    public void tick(Instant now) {
+        tick(now, shard -> true);
+    }
+
+    /** Publishes the engine time to the shards {@code due} accepts, leaving out those with nothing to expire yet. */
+    public void tick(Instant now, IntPredicate due) {
+        for (int shard = 0; shard < ringBuffers.length; shard++) {
+            if (!due.test(shard)) {
+                continue;
+            }
+            var ringBuffer = ringBuffers[shard];
+            var sequence = tryClaim(ringBuffer, 1, 0);
+            if (sequence < 0) {
+                skippedTicks.increment();
+                log.debug("Skipping the timer of full matching shard {}", shard);
+                continue;
+            }
+            try {
+                var event = ringBuffer.get(sequence);
+                event.setType(EventType.TIMER);
+                event.setTime(now);
+                event.setShard(shard);
+                event.setShardCount(ringBuffers.length);
+            } finally {
+                ringBuffer.publish(sequence);
+            }
+        }
+    }
+
+    public int shardOf(String ticker) {
+        return shardOf(ticker, disruptors.length);
+    }
+
+    public static int shardOf(String ticker, int shardCount) {
+        return Math.floorMod(ticker.hashCode(), shardCount);
+    }
+
+    public int getShardCount() {
+        return disruptors.length;
+    }
+
+    @Override
+    public void close() {
+        for (var disruptor : disruptors) {
+            try {
+                disruptor.shutdown(30, TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                log.warn("Matching shard did not drain in time, halting it", e);
+                disruptor.halt();
+            }
+        }
+        journal.close();
+        log.info("Matching engine stopped");
+    }
+
+    private class JournalHandler implements EventHandler<OrderEvent> {
+        private final int shard;
+
+        private JournalHandler(int shard) {
+            this.shard = shard;
+        }
+
+        @Override
+        public void onEvent(OrderEvent event, long sequence, boolean endOfBatch) {
+            journal.append(shard, event, endOfBatch);
+        }
+    }
+
+    private class ShardHandler implements EventHandler<OrderEvent> {
+        private final int shard;
+
+        private ShardHandler(int shard) {
+            this.shard = shard;
+        }
+
+        @Override
+        public void onEvent(OrderEvent event, long sequence, boolean endOfBatch) {
+            try {
+                switch (event.getType()) {
+                    case NEW_ORDER -> {
+                        var result = processor.processOrder(event.getOrder());
+                        if (event.getOrderResult() != null) {
+                            event.getOrderResult().complete(result);
+                        }
+                    }
+                    case CANCEL_ORDER ->
+                        event.getCancelResult()
+                                .complete(processor.processCancel(event.getOrderId(), event.getUserId()));
+                    case QUERY -> event.getTask().run();
+                    case TIMER -> processor.processTimer(event.getTime(), event.getShard(), event.getShardCount());
+                    case SNAPSHOT ->
+                        event.getSnapshotResult()
+                                .complete(new ShardSnapshot(
+                                        shard, event.getJournalPosition(), processor.processSnapshot(shard)));
+                }
+            } catch (RuntimeException e) {
+                log.error("Shard {} failed to process {} event", shard, event.getType(), e);
+                if (event.getOrderResult() != null) {
+                    event.getOrderResult().completeExceptionally(e);
+                }
+                if (event.getCancelResult() != null) {
+                    event.getCancelResult().completeExceptionally(e);
+                }
+                if (event.getSnapshotResult() != null) {
+                    event.getSnapshotResult().completeExceptionally(e);
+                }
+            } finally {
+                event.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.diogohmcruz.stockexchange.domain.engine;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import io.github.diogohmcruz.stockexchange.domain.model.Order;
+import lombok.Getter;
+import lombok.Setter;
+
+/** Pre-allocated ring buffer slot carrying a command from the publishing thread to the shard's matching thread. */
+@Getter
+@Setter
+public class OrderEvent {
+    private EventType type;
+    private Order order;
+    private UUID orderId;
+    private String userId;
+    private CompletableFuture<OrderResult> orderResult;
+    private CompletableFuture<Boolean> cancelResult;
+    private Runnable task;
+    private JournalPosition journalPosition;
+    private CompletableFuture<ShardSnapshot> snapshotResult;
+    private Instant time;
+    private int shard;
+    private int shardCount;
+
+    void clear() {
+        this.type = null;
+        this.order = null;
+        this.orderId = null;
+        this.userId = null;
+        this.orderResult = null;
+        this.cancelResult = null;
+        this.task = null;
+        this.journalPosition = null;
+        this.snapshotResult = null;
+        this.time = null;
+        this.shard = 0;
+        this.shardCount = 0;
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.diogohmcruz.stockexchange.domain.engine;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import io.github.diogohmcruz.stockexchange.domain.model.Order;
+
+/** Book-mutating side of the engine, invoked on the matching thread that owns the ticker. */
+public interface OrderEventProcessor {
+    /** Matches a new order, returning the outcome rather than recording it anywhere. */
+    OrderResult processOrder(Order order);
+
+    boolean processCancel(UUID orderId, String userId);
+
+    /**
+     * Advances the engine clock to {@code now} for every ticker that {@link MatchingEngine#shardOf(String, int)} maps
+     * to {@code shard} out of {@code shardCount}, expiring whatever it passed.
+     */
+    void processTimer(Instant now, int shard, int shardCount);
+
+    /** Copies the books of every ticker owned by {@code shard}. */
+    List<BookSnapshot> processSnapshot(int shard);
+}
@@ -0,0 +1,13 @@
+package io.github.diogohmcruz.stockexchange.domain.engine;
+
+import java.util.List;
+
+import io.github.diogohmcruz.stockexchange.domain.model.Trade;
+
+/**
+ * What matching did with a new order, captured on the matching thread right after processing it: whether the engine
+ * took it, the trades it made on arrival, and what was left of it at that point.
+ */
+public record OrderResult(boolean accepted, List<Trade> fills, int remainingQuantity, boolean active) {
+    public static final OrderResult REJECTED = new OrderResult(false, List.of(), 0, false);
+}
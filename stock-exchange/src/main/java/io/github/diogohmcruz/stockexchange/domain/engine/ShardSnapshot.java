@@ -0,0 +1,6 @@
+package io.github.diogohmcruz.stockexchange.domain.engine;
+
+import java.util.List;
+
+/** Books of one shard as they stood after every event up to {@code position} in its journal, and none after it. */
+public record ShardSnapshot(int shard, JournalPosition position, List<BookSnapshot> books) {}
@@ -0,0 +1,17 @@
+package io.github.diogohmcruz.stockexchange.domain.model;
+
+import java.util.List;
+
+/**
+ * Immutable aggregated view of the top of one ticker's book, best level first on each side, along with how many orders
+ * rest on each whole side. Prices are in ticks and {@code version} increases with every change to the book, so readers
+ * can tell whether anything moved.
+ */
+public record BookDepth(
+        String ticker,
+        long version,
+        long lastTradePriceTicks,
+        List<DepthLevel> bids,
+        List<DepthLevel> asks,
+        int bidOrderCount,
+        int askOrderCount) {}
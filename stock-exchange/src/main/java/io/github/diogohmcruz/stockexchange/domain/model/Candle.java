@@ -0,0 +1,63 @@
+package io.github.diogohmcruz.stockexchange.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Open, high, low, close and volume of a ticker's trades over one period of a {@link CandleResolution}. */
+@Entity
+@Table(
+        name = "candles",
+        indexes =
+                @Index(name = "idx_candles_ticker_resolution_open_time", columnList = "ticker, resolution, open_time"))
+@Data
+@NoArgsConstructor
+public class Candle {
+    @Id
+    private UUID id;
+
+    @Column(nullable = false)
+    private String ticker;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CandleResolution resolution;
+
+    @Column(name = "open_time", nullable = false)
+    private Instant openTime;
+
+    @Column(nullable = false)
+    private BigDecimal openPrice;
+
+    @Column(nullable = false)
+    private BigDecimal highPrice;
+
+    @Column(nullable = false)
+    private BigDecimal lowPrice;
+
+    @Column(nullable = false)
+    private BigDecimal closePrice;
+
+    @Column(nullable = false)
+    private long volume;
+
+    @Column(nullable = false)
+    private int tradeCount;
+
+    /** A bar is identified by its ticker, resolution and period, so flushing it again overwrites the same row. */
+    public static UUID candleId(String ticker, CandleResolution resolution, Instant openTime) {
+        var key = ticker + '/' + resolution.name() + '/' + openTime.toEpochMilli();
+        return UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,19 @@
+package io.github.diogohmcruz.stockexchange.domain.model;
+
+import java.time.Duration;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/** Bar sizes maintained for every ticker, with how many of the latest bars stay in memory. */
+@Getter
+@RequiredArgsConstructor
+public enum CandleResolution {
+    SECOND(Duration.ofSeconds(1), 600),
+    MINUTE(Duration.ofMinutes(1), 720),
+    FIVE_MINUTES(Duration.ofMinutes(5), 576),
+    HOUR(Duration.ofHours(1), 336);
+
+    private final Duration period;
+    private final int retainedBars;
+}
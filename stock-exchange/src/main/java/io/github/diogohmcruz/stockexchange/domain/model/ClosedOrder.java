@@ -0,0 +1,79 @@
+package io.github.diogohmcruz.stockexchange.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+import io.github.diogohmcruz.marketlibrary.domain.model.OrderType;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An order that was filled, cancelled or expired, moved out of the orders table so that it only holds the orders that
+ * can still trade. Closed orders never change again and are deleted once the history's retention has passed.
+ */
+@Entity
+@Table(
+        name = "order_history",
+        indexes = {
+            @Index(name = "idx_order_history_user_timestamp", columnList = "user_id, timestamp"),
+            @Index(name = "idx_order_history_closed_at", columnList = "closed_at")
+        })
+@Data
+@NoArgsConstructor
+public class ClosedOrder {
+    @Id
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderType type;
+
+    @Column(nullable = false)
+    private String ticker;
+
+    @Column(nullable = false)
+    private BigDecimal price;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Column(nullable = false)
+    private int remainingQuantity;
+
+    @Column(nullable = false)
+    private Instant timestamp;
+
+    @Column(nullable = false)
+    private Instant expirationTime;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    /** When the order was moved to the history, at most one move interval after it closed. */
+    @Column(name = "closed_at", nullable = false)
+    private Instant closedAt;
+
+    public Order toOrder() {
+        var order = new Order();
+        order.setId(id);
+        order.setType(type);
+        order.setTicker(ticker);
+        order.setPrice(price);
+        order.setQuantity(quantity);
+        order.setRemainingQuantity(remainingQuantity);
+        order.setTimestamp(timestamp);
+        order.setExpirationTime(expirationTime);
+        order.setUserId(userId);
+        order.setActive(false);
+        order.setVersion(0L);
+        return order;
+    }
+}
@@ -0,0 +1,4 @@
+package io.github.diogohmcruz.stockexchange.domain.model;
+
+/** Resting interest at one price of a book: the summed remaining quantity and the number of orders behind it. */
+public record DepthLevel(long priceTicks, long quantity, int orderCount) {}
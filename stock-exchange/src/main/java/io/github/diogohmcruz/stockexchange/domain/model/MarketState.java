@@ -0,0 +1,21 @@
+package io.github.diogohmcruz.stockexchange.domain.model;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Latest known market state of one ticker. The last trade fields are {@code null} until the ticker first trades.
+ *
+ * @param activeBuyOrders orders resting on the bid side of the book
+ * @param activeSellOrders orders resting on the ask side of the book
+ */
+public record MarketState(
+        String ticker, BigDecimal lastPrice, Instant lastTradeTime, int activeBuyOrders, int activeSellOrders) {
+    public boolean hasActiveOrders() {
+        return activeBuyOrders > 0 || activeSellOrders > 0;
+    }
+
+    public boolean tradedSince(Instant since) {
+        return lastTradeTime != null && lastTradeTime.isAfter(since);
+    }
+}
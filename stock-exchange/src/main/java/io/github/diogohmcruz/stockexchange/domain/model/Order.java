@@ -4,11 +4,11 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.persistence.Version;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Future;
@@ -16,6 +16,7 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.Objects;
@@ -28,14 +29,20 @@ import lombok.Setter;
 import lombok.ToString;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = @Index(name = "idx_orders_user_timestamp", columnList = "user_id, timestamp"))
 @Getter
 @Setter
 @ToString
 @NoArgsConstructor
 public class Order {
+    /** Longest ticker admitted; journal and snapshot records store tickers with a bounded length. */
+    public static final int MAX_TICKER_LENGTH = 16;
+
+    /** Longest user id admitted, for the same reason as {@link #MAX_TICKER_LENGTH}. */
+    public static final int MAX_USER_ID_LENGTH = 64;
+
+    /** Assigned on admission, see {@link io.github.diogohmcruz.stockexchange.domain.engine.IdGenerator}. */
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
     @NotNull(message = "Order type is required")
@@ -53,10 +60,18 @@ public class Order {
     @Column(nullable = false)
     private BigDecimal price;
 
+    /** Price in whole ticks of the ticker's {@link TickSize}, assigned on admission and used for all matching. */
+    @Transient
+    private long priceTicks;
+
     @Min(value = 1, message = "Quantity must be at least 1")
     @Column(nullable = false)
     private int quantity;
 
+    @Min(value = 0, message = "Remaining quantity cannot be negative")
+    @Column(nullable = false)
+    private int remainingQuantity;
+
     @Column(nullable = false)
     private Instant timestamp = Instant.now();
 
@@ -65,6 +80,7 @@ public class Order {
     private Instant expirationTime;
 
     @NotBlank(message = "User ID is required")
+    @Size(max = MAX_USER_ID_LENGTH, message = "User ID must be at most " + MAX_USER_ID_LENGTH + " characters")
     @Column(name = "user_id", nullable = false)
     private String userId;
 
@@ -73,10 +89,18 @@ public class Order {
 
     @Version
     @Column(nullable = false)
-    private Long version = 0L;
+    private Long version;
 
     @PrePersist
     protected void onCreate() {
+        applyDefaults();
+    }
+
+    /**
+     * Fills in the timestamp, expiration and version of a new order. Runs on admission, since orders reach the database
+     * through batched JDBC writes that bypass the JPA lifecycle callbacks.
+     */
+    public void applyDefaults() {
         if (timestamp == null) {
             timestamp = Instant.now();
         }
@@ -89,11 +113,45 @@ public class Order {
     }
 
     public boolean isExpired() {
-        return Instant.now().isAfter(expirationTime);
+        return isExpired(Instant.now());
+    }
+
+    public boolean isExpired(Instant now) {
+        return now.isAfter(expirationTime);
     }
 
     public boolean isValidForMatching() {
-        return active && !isExpired();
+        return isValidForMatching(Instant.now());
+    }
+
+    /**
+     * Validity at a given engine time. Matching passes the incoming order's timestamp rather than reading the clock, so
+     * replaying the journal makes the same decisions as the original run.
+     */
+    public boolean isValidForMatching(Instant now) {
+        return active && !isExpired(now);
+    }
+
+    public boolean isFilled() {
+        return remainingQuantity == 0;
+    }
+
+    /** Detached copy, safe to hand to other threads while the engine keeps mutating the original. */
+    public Order copy() {
+        var copy = new Order();
+        copy.id = id;
+        copy.type = type;
+        copy.ticker = ticker;
+        copy.price = price;
+        copy.priceTicks = priceTicks;
+        copy.quantity = quantity;
+        copy.remainingQuantity = remainingQuantity;
+        copy.timestamp = timestamp;
+        copy.expirationTime = expirationTime;
+        copy.userId = userId;
+        copy.active = active;
+        copy.version = version;
+        return copy;
     }
 
     @Override
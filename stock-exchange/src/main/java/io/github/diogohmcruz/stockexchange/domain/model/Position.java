@@ -0,0 +1,51 @@
+package io.github.diogohmcruz.stockexchange.domain.model;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * A user's holding in one ticker: positive quantities are long, negative ones short. The cost basis is what the open
+ * quantity cost, so the average cost is derived from it; closing part of a position releases its share of the basis and
+ * realizes the difference to the closing price.
+ */
+public record Position(String userId, String ticker, long quantity, BigDecimal costBasis, BigDecimal realizedPnl) {
+    public static Position empty(String userId, String ticker) {
+        return new Position(userId, ticker, 0, BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    /** Average price paid (or received, when short) per share held, or {@code null} when flat. */
+    public BigDecimal averageCost() {
+        return quantity == 0 ? null : costBasis.divide(BigDecimal.valueOf(Math.abs(quantity)), MathContext.DECIMAL64);
+    }
+
+    /** Profit the open quantity would realize at {@code price}, or {@code null} when there is no price. */
+    public BigDecimal unrealizedPnl(BigDecimal price) {
+        if (price == null) {
+            return null;
+        }
+        var marketValue = price.multiply(BigDecimal.valueOf(Math.abs(quantity)));
+        return quantity >= 0 ? marketValue.subtract(costBasis) : costBasis.subtract(marketValue);
+    }
+
+    /** The position after buying ({@code quantity > 0}) or selling ({@code quantity < 0}) shares at {@code price}. */
+    public Position apply(long quantity, BigDecimal price) {
+        if (this.quantity == 0 || Long.signum(this.quantity) == Long.signum(quantity)) {
+            var cost = price.multiply(BigDecimal.valueOf(Math.abs(quantity)));
+            return new Position(userId, ticker, this.quantity + quantity, costBasis.add(cost), realizedPnl);
+        }
+        var held = Math.abs(this.quantity);
+        var closed = Math.min(held, Math.abs(quantity));
+        var released = closed == held
+                ? costBasis
+                : costBasis
+                        .multiply(BigDecimal.valueOf(closed))
+                        .divide(BigDecimal.valueOf(held), MathContext.DECIMAL64);
+        var proceeds = price.multiply(BigDecimal.valueOf(closed));
+        var pnl = this.quantity > 0 ? proceeds.subtract(released) : released.subtract(proceeds);
+        var remaining = this.quantity + quantity;
+        var basis = closed == Math.abs(quantity)
+                ? costBasis.subtract(released)
+                : price.multiply(BigDecimal.valueOf(Math.abs(remaining)));
+        return new Position(userId, ticker, remaining, basis, realizedPnl.add(pnl));
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.diogohmcruz.stockexchange.domain.model;
+
+import java.time.Duration;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Rolling windows of trade statistics. Each window is split into buckets and slides one bucket at a time, so it covers
+ * the current, partly elapsed bucket plus the {@code bucketCount - 1} full ones before it.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum StatisticsWindow {
+    MINUTE(Duration.ofSeconds(1), 60),
+    HOUR(Duration.ofMinutes(1), 60),
+    DAY(Duration.ofHours(1), 24);
+
+    private final Duration bucketSize;
+    private final int bucketCount;
+}
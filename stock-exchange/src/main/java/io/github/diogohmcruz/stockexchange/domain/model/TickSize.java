@@ -0,0 +1,32 @@
+package io.github.diogohmcruz.stockexchange.domain.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Minimum price increment of a ticker. Inside the engine prices are whole numbers of ticks, so comparisons and
+ * arithmetic are exact and allocation-free; this is the only place they are converted to and from decimals.
+ */
+public record TickSize(BigDecimal increment) {
+    public TickSize {
+        if (increment == null || increment.signum() <= 0) {
+            throw new IllegalArgumentException("Tick size must be greater than 0");
+        }
+    }
+
+    public long toTicks(BigDecimal price) {
+        var quotientAndRemainder = price.divideAndRemainder(increment);
+        if (quotientAndRemainder[1].signum() != 0) {
+            var errorMessage = String.format("Price %s is not a multiple of the tick size %s", price, increment);
+            throw new IllegalArgumentException(errorMessage);
+        }
+        try {
+            return quotientAndRemainder[0].longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Price " + price + " is out of range", e);
+        }
+    }
+
+    public BigDecimal toPrice(long ticks) {
+        return increment.multiply(BigDecimal.valueOf(ticks));
+    }
+}
@@ -1,16 +1,17 @@
 package io.github.diogohmcruz.stockexchange.domain.model;
 
-import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
+import jakarta.persistence.ConstraintMode;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import jakarta.persistence.ForeignKey;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.persistence.Version;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
@@ -25,12 +26,12 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "trades")
+@Table(name = "trades", indexes = @Index(name = "idx_trades_ticker_timestamp", columnList = "ticker, timestamp, id"))
 @Data
 @NoArgsConstructor
 public class Trade {
+    /** Assigned by the engine, see {@link io.github.diogohmcruz.stockexchange.domain.engine.IdGenerator#tradeId}. */
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
     @NotBlank(message = "Ticker symbol is required")
@@ -43,6 +44,9 @@ public class Trade {
     @Column(nullable = false)
     private BigDecimal price;
 
+    @Transient
+    private long priceTicks;
+
     @Min(value = 1, message = "Quantity must be at least 1")
     @Column(nullable = false)
     private int quantity;
@@ -50,16 +54,16 @@ public class Trade {
     @Column(nullable = false)
     private Instant timestamp;
 
-    @ManyToOne(
-            fetch = FetchType.LAZY,
-            cascade = {CascadeType.PERSIST, CascadeType.MERGE})
-    @JoinColumn(name = "buy_order_id", nullable = false)
+    /**
+     * Only the id of a trade's orders is guaranteed to resolve: closed orders move to the order history, so there is no
+     * foreign key to the orders table.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "buy_order_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Order buyOrder;
 
-    @ManyToOne(
-            fetch = FetchType.LAZY,
-            cascade = {CascadeType.PERSIST, CascadeType.MERGE})
-    @JoinColumn(name = "sell_order_id", nullable = false)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "sell_order_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Order sellOrder;
 
     @NotBlank(message = "Buyer ID is required")
@@ -72,13 +76,22 @@ public class Trade {
 
     @Version
     @Column(nullable = false)
-    private Long version = 0L;
+    private Long version;
 
-    public Trade(Order buyOrder, Order sellOrder, BigDecimal executionPrice) {
+    public Trade(
+            UUID id,
+            Order buyOrder,
+            Order sellOrder,
+            int quantity,
+            long priceTicks,
+            TickSize tickSize,
+            Instant timestamp) {
+        this.id = id;
         this.ticker = buyOrder.getTicker();
-        this.price = executionPrice;
-        this.quantity = Math.min(buyOrder.getQuantity(), sellOrder.getQuantity());
-        this.timestamp = Instant.now();
+        this.priceTicks = priceTicks;
+        this.price = tickSize.toPrice(priceTicks);
+        this.quantity = quantity;
+        this.timestamp = timestamp;
         this.buyOrder = buyOrder;
         this.sellOrder = sellOrder;
         this.buyerId = buyOrder.getUserId();
@@ -0,0 +1,33 @@
+package io.github.diogohmcruz.stockexchange.domain.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a trade history ordered by timestamp then id, both descending. The next page starts strictly after the
+ * last trade of the previous one, so it is found by an index seek however deep the history goes.
+ */
+public record TradeCursor(Instant timestamp, UUID id) {
+    public static TradeCursor after(Trade trade) {
+        return new TradeCursor(trade.getTimestamp(), trade.getId());
+    }
+
+    /** Opaque form handed to clients. */
+    public String encode() {
+        var value = timestamp.getEpochSecond() + ":" + timestamp.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TradeCursor decode(String cursor) {
+        try {
+            var value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var parts = value.split(":", 3);
+            var timestamp = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new TradeCursor(timestamp, UUID.fromString(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
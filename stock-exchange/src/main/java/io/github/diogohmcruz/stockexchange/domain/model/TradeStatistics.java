@@ -14,5 +14,5 @@ public class TradeStatistics {
     private BigDecimal minPrice;
     private BigDecimal maxPrice;
     private BigDecimal avgPrice;
-    private int totalVolume;
+    private long totalVolume;
 }
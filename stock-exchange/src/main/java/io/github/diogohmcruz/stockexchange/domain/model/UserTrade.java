@@ -0,0 +1,69 @@
+package io.github.diogohmcruz.stockexchange.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+import io.github.diogohmcruz.marketlibrary.domain.model.OrderType;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One side of a trade as seen by the user on that side. Every trade has a buy and a sell entry, so a user's trades are
+ * a single range of the {@code (user_id, timestamp, trade_id)} index rather than a union over buyers and sellers.
+ */
+@Entity
+@Table(
+        name = "user_trades",
+        indexes = @Index(name = "idx_user_trades_user_timestamp", columnList = "user_id, timestamp, trade_id"))
+@Data
+@NoArgsConstructor
+public class UserTrade {
+    @Id
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderType side;
+
+    @Column(name = "counterparty_id", nullable = false)
+    private String counterpartyId;
+
+    @Column(nullable = false)
+    private String ticker;
+
+    @Column(nullable = false)
+    private BigDecimal price;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Column(nullable = false)
+    private Instant timestamp;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "trade_id", nullable = false)
+    private Trade trade;
+
+    /**
+     * An entry is identified by its trade and side, so writing it again overwrites the same row. The side is folded
+     * into the low half of the trade id, so entries keep the trade's time order.
+     */
+    public static UUID entryId(UUID tradeId, OrderType side) {
+        return new UUID(
+                tradeId.getMostSignificantBits(), tradeId.getLeastSignificantBits() ^ ((side.ordinal() + 1L) << 48));
+    }
+}
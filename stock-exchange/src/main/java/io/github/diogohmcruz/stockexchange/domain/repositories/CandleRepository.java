@@ -0,0 +1,27 @@
+package io.github.diogohmcruz.stockexchange.domain.repositories;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import io.github.diogohmcruz.stockexchange.domain.model.Candle;
+import io.github.diogohmcruz.stockexchange.domain.model.CandleResolution;
+
+@Repository
+public interface CandleRepository extends JpaRepository<Candle, UUID> {
+
+    @Query("SELECT c FROM Candle c "
+            + "WHERE c.ticker = :ticker AND c.resolution = :resolution "
+            + "AND c.openTime >= :from AND c.openTime < :to "
+            + "ORDER BY c.openTime")
+    List<Candle> findRange(
+            @Param("ticker") String ticker,
+            @Param("resolution") CandleResolution resolution,
+            @Param("from") Instant from,
+            @Param("to") Instant to);
+}
@@ -0,0 +1,16 @@
+package io.github.diogohmcruz.stockexchange.domain.repositories;
+
+import java.util.UUID;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import io.github.diogohmcruz.stockexchange.domain.model.ClosedOrder;
+
+@Repository
+public interface ClosedOrderRepository extends JpaRepository<ClosedOrder, UUID> {
+
+    Page<ClosedOrder> findAllByUserIdOrderByTimestampDesc(String userId, Pageable pageable);
+}
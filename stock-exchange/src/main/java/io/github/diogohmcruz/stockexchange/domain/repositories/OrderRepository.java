@@ -1,6 +1,5 @@
 package io.github.diogohmcruz.stockexchange.domain.repositories;
 
-import jakarta.persistence.LockModeType;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
@@ -8,7 +7,6 @@ import java.util.UUID;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -20,9 +18,6 @@ import io.github.diogohmcruz.stockexchange.domain.model.TickerCandle;
 @Repository
 public interface OrderRepository extends JpaRepository<Order, UUID> {
 
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    Order getById(UUID orderId);
-
     Page<Order> findAllByUserIdOrderByTimestampDesc(String userId, Pageable pageable);
 
     Page<Order> findAllByUserIdAndActiveOrderByTimestampDesc(String userId, boolean b, Pageable pageable);
@@ -0,0 +1,48 @@
+package io.github.diogohmcruz.stockexchange.domain.repositories;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import io.github.diogohmcruz.stockexchange.domain.model.Trade;
+import io.github.diogohmcruz.stockexchange.domain.model.UserTrade;
+
+/**
+ * A user's trades, read through the user trade ledger so that every query is one range scan of its {@code (user_id,
+ * timestamp, trade_id)} index. A user who traded with themselves has both entries of the trade; only the buy one is
+ * returned, so each trade appears once.
+ */
+@Repository
+public interface UserTradeRepository extends JpaRepository<UserTrade, UUID> {
+
+    @Query("SELECT t FROM UserTrade u JOIN u.trade t WHERE u.userId = :userId "
+            + "AND (u.side = io.github.diogohmcruz.marketlibrary.domain.model.OrderType.BUY "
+            + "OR u.counterpartyId <> :userId) "
+            + "ORDER BY u.timestamp DESC, u.trade.id DESC")
+    List<Trade> findLatestByUser(@Param("userId") String userId, Limit limit);
+
+    @Query("SELECT t FROM UserTrade u JOIN u.trade t WHERE u.userId = :userId "
+            + "AND (u.side = io.github.diogohmcruz.marketlibrary.domain.model.OrderType.BUY "
+            + "OR u.counterpartyId <> :userId) "
+            + "AND (u.timestamp < :timestamp OR (u.timestamp = :timestamp AND u.trade.id < :id)) "
+            + "ORDER BY u.timestamp DESC, u.trade.id DESC")
+    List<Trade> findByUserBefore(
+            @Param("userId") String userId, @Param("timestamp") Instant timestamp, @Param("id") UUID id, Limit limit);
+
+    @Query("SELECT t FROM UserTrade u JOIN u.trade t WHERE u.userId = :userId "
+            + "AND (u.side = io.github.diogohmcruz.marketlibrary.domain.model.OrderType.BUY "
+            + "OR u.counterpartyId <> :userId) "
+            + "AND u.timestamp BETWEEN :startDate AND :endDate "
+            + "ORDER BY u.timestamp DESC, u.trade.id DESC")
+    List<Trade> findTradesByUserInDateRange(
+            @Param("userId") String userId,
+            @Param("startDate") Instant startDate,
+            @Param("endDate") Instant endDate,
+            Limit limit);
+}
@@ -0,0 +1,130 @@
+package io.github.diogohmcruz.stockexchange.domain.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Latest OHLCV bars of one ticker at one resolution, in a fixed ring indexed by period number. Prices are in ticks. A
+ * trade for a period that still has a slot updates its bar even after the bar was completed, and the bar is then
+ * completed again, so late trades are never lost while the bar is retained.
+ *
+ * <p>Not thread-safe: {@link CandleService} synchronizes on each ticker's series. The series is public so that its ring
+ * and late-trade handling can be exercised directly.
+ */
+public class CandleSeries {
+    private final long periodMillis;
+    private final long[] periods;
+    private final long[] opens;
+    private final long[] highs;
+    private final long[] lows;
+    private final long[] closes;
+    private final long[] volumes;
+    private final int[] tradeCounts;
+    private final boolean[] changed;
+    private long firstPeriod = Long.MAX_VALUE;
+    private long latestPeriod = Long.MIN_VALUE;
+
+    public CandleSeries(long periodMillis, int capacity) {
+        this.periodMillis = periodMillis;
+        this.periods = new long[capacity];
+        this.opens = new long[capacity];
+        this.highs = new long[capacity];
+        this.lows = new long[capacity];
+        this.closes = new long[capacity];
+        this.volumes = new long[capacity];
+        this.tradeCounts = new int[capacity];
+        this.changed = new boolean[capacity];
+        Arrays.fill(periods, Long.MIN_VALUE);
+    }
+
+    public void record(long timeMillis, long priceTicks, int quantity) {
+        var period = Math.floorDiv(timeMillis, periodMillis);
+        var slot = slotOf(period);
+        if (periods[slot] != period) {
+            if (periods[slot] > period) {
+                return;
+            }
+            periods[slot] = period;
+            opens[slot] = priceTicks;
+            highs[slot] = priceTicks;
+            lows[slot] = priceTicks;
+            volumes[slot] = 0;
+            tradeCounts[slot] = 0;
+        }
+        highs[slot] = Math.max(highs[slot], priceTicks);
+        lows[slot] = Math.min(lows[slot], priceTicks);
+        closes[slot] = priceTicks;
+        volumes[slot] += quantity;
+        tradeCounts[slot]++;
+        changed[slot] = true;
+        firstPeriod = Math.min(firstPeriod, period);
+        latestPeriod = Math.max(latestPeriod, period);
+    }
+
+    /** Bars of periods that ended by {@code nowMillis} and changed since they were last drained. */
+    public List<Bar> drainCompleted(long nowMillis) {
+        var currentPeriod = Math.floorDiv(nowMillis, periodMillis);
+        var completed = new ArrayList<Bar>();
+        for (int slot = 0; slot < periods.length; slot++) {
+            if (changed[slot] && periods[slot] < currentPeriod) {
+                changed[slot] = false;
+                completed.add(barAt(slot));
+            }
+        }
+        return completed;
+    }
+
+    /** Retained bars opening in {@code [fromMillis, toMillis)}, oldest first. */
+    public List<Bar> bars(long fromMillis, long toMillis) {
+        var bars = new ArrayList<Bar>();
+        if (latestPeriod == Long.MIN_VALUE) {
+            return bars;
+        }
+        var first = Math.max(Math.floorDiv(fromMillis + periodMillis - 1, periodMillis), oldestPeriod());
+        var last = Math.min(Math.floorDiv(toMillis - 1, periodMillis), latestPeriod);
+        for (var period = first; period <= last; period++) {
+            var slot = slotOf(period);
+            if (periods[slot] == period) {
+                bars.add(barAt(slot));
+            }
+        }
+        return bars;
+    }
+
+    /**
+     * Opening time of the oldest period whose bar this series holds in full: periods before it were either never seen
+     * by this series or have been overwritten. {@link Long#MAX_VALUE} while the series is empty.
+     */
+    public long oldestRetainedMillis() {
+        return latestPeriod == Long.MIN_VALUE ? Long.MAX_VALUE : oldestPeriod() * periodMillis;
+    }
+
+    private long oldestPeriod() {
+        return Math.max(firstPeriod, latestPeriod - periods.length + 1);
+    }
+
+    private int slotOf(long period) {
+        return (int) Math.floorMod(period, periods.length);
+    }
+
+    private Bar barAt(int slot) {
+        return new Bar(
+                periods[slot] * periodMillis,
+                opens[slot],
+                highs[slot],
+                lows[slot],
+                closes[slot],
+                volumes[slot],
+                tradeCounts[slot]);
+    }
+
+    public record Bar(
+            long openTimeMillis,
+            long openTicks,
+            long highTicks,
+            long lowTicks,
+            long closeTicks,
+            long volume,
+            int tradeCount) {}
+}
@@ -0,0 +1,132 @@
+package io.github.diogohmcruz.stockexchange.domain.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.github.diogohmcruz.stockexchange.domain.engine.EngineListener;
+import io.github.diogohmcruz.stockexchange.domain.model.Candle;
+import io.github.diogohmcruz.stockexchange.domain.model.CandleResolution;
+import io.github.diogohmcruz.stockexchange.domain.model.Trade;
+import io.github.diogohmcruz.stockexchange.domain.repositories.CandleRepository;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * OHLCV bars of every ticker at every {@link CandleResolution}, built from trades as they execute. The latest bars of
+ * each resolution live in memory; completed ones are drained to storage, where range queries find the bars that have
+ * left memory. Bars are keyed by trade timestamps, so a journal replay rebuilds the same bars. The bars in memory are
+ * not part of the book snapshots, though: after recovering from a snapshot, a bar that was still open only holds the
+ * trades replayed since it.
+ */
+@Service
+@RequiredArgsConstructor
+public class CandleService implements EngineListener {
+    private static final int MAX_CANDLES_PER_QUERY = 5000;
+
+    private final CandleRepository candleRepository;
+    private final TickSizeRegistry tickSizeRegistry;
+    private final Map<String, TickerCandles> tickers = new ConcurrentHashMap<>();
+
+    @Override
+    public void onTrade(Trade trade) {
+        tickers.computeIfAbsent(trade.getTicker(), ticker -> new TickerCandles())
+                .record(trade.getTimestamp().toEpochMilli(), trade.getPriceTicks(), trade.getQuantity());
+    }
+
+    /** Bars whose period ended by {@code now} and that changed since the last drain, ready to be stored. */
+    public List<Candle> drainCompleted(Instant now) {
+        var completed = new ArrayList<Candle>();
+        tickers.forEach((ticker, candles) -> candles.drainCompleted(ticker, now.toEpochMilli(), completed));
+        return completed;
+    }
+
+    /** Bars of a ticker opening in {@code [from, to)}, oldest first, read from memory where they are still held. */
+    @Transactional(readOnly = true)
+    public List<Candle> getCandles(String ticker, CandleResolution resolution, Instant from, Instant to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Range start must be before its end");
+        }
+        var periodMillis = resolution.getPeriod().toMillis();
+        if ((to.toEpochMilli() - from.toEpochMilli()) / periodMillis > MAX_CANDLES_PER_QUERY) {
+            var errorMessage = String.format("Range spans more than %d %s candles", MAX_CANDLES_PER_QUERY, resolution);
+            throw new IllegalArgumentException(errorMessage);
+        }
+
+        var tickerCandles = tickers.get(ticker);
+        var memoryFromMillis = tickerCandles == null ? Long.MAX_VALUE : tickerCandles.oldestRetainedMillis(resolution);
+        var memoryFrom = memoryFromMillis >= to.toEpochMilli() ? to : Instant.ofEpochMilli(memoryFromMillis);
+        if (memoryFrom.isBefore(from)) {
+            memoryFrom = from;
+        }
+
+        var candles = new ArrayList<Candle>();
+        if (from.isBefore(memoryFrom)) {
+            candles.addAll(candleRepository.findRange(ticker, resolution, from, memoryFrom));
+        }
+        if (memoryFrom.isBefore(to)) {
+            for (var bar : tickerCandles.bars(resolution, memoryFrom.toEpochMilli(), to.toEpochMilli())) {
+                candles.add(toCandle(ticker, resolution, bar));
+            }
+        }
+        return candles;
+    }
+
+    private Candle toCandle(String ticker, CandleResolution resolution, CandleSeries.Bar bar) {
+        var tickSize = tickSizeRegistry.forTicker(ticker);
+        var candle = new Candle();
+        candle.setTicker(ticker);
+        candle.setResolution(resolution);
+        candle.setOpenTime(Instant.ofEpochMilli(bar.openTimeMillis()));
+        candle.setId(Candle.candleId(ticker, resolution, candle.getOpenTime()));
+        candle.setOpenPrice(tickSize.toPrice(bar.openTicks()));
+        candle.setHighPrice(tickSize.toPrice(bar.highTicks()));
+        candle.setLowPrice(tickSize.toPrice(bar.lowTicks()));
+        candle.setClosePrice(tickSize.toPrice(bar.closeTicks()));
+        candle.setVolume(bar.volume());
+        candle.setTradeCount(bar.tradeCount());
+        return candle;
+    }
+
+    /**
+     * Series of one ticker. Only the ticker's matching thread records into them; the lock guards against the drain and
+     * the readers.
+     */
+    private final class TickerCandles {
+        private final Map<CandleResolution, CandleSeries> series = new EnumMap<>(CandleResolution.class);
+
+        private TickerCandles() {
+            for (var resolution : CandleResolution.values()) {
+                series.put(
+                        resolution, new CandleSeries(resolution.getPeriod().toMillis(), resolution.getRetainedBars()));
+            }
+        }
+
+        private synchronized void record(long timeMillis, long priceTicks, int quantity) {
+            for (var candles : series.values()) {
+                candles.record(timeMillis, priceTicks, quantity);
+            }
+        }
+
+        private synchronized void drainCompleted(String ticker, long nowMillis, List<Candle> completed) {
+            series.forEach((resolution, candles) -> {
+                for (var bar : candles.drainCompleted(nowMillis)) {
+                    completed.add(toCandle(ticker, resolution, bar));
+                }
+            });
+        }
+
+        private synchronized long oldestRetainedMillis(CandleResolution resolution) {
+            return series.get(resolution).oldestRetainedMillis();
+        }
+
+        private synchronized List<CandleSeries.Bar> bars(CandleResolution resolution, long fromMillis, long toMillis) {
+            return series.get(resolution).bars(fromMillis, toMillis);
+        }
+    }
+}
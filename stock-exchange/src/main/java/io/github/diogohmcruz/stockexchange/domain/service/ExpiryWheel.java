@@ -0,0 +1,118 @@
+package io.github.diogohmcruz.stockexchange.domain.service;
+
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel of expiry deadlines in epoch milliseconds. Each slot holds an intrusive list of the entries whose
+ * deadline falls in one of its ticks, whatever the lap, so scheduling and cancelling are O(1) and advancing the clock
+ * only visits the slots of the ticks that went by.
+ *
+ * <p>Not thread-safe: owned by a single book. The wheel is public so that its lap and tick arithmetic can be checked
+ * without going through a book.
+ */
+public final class ExpiryWheel<E extends ExpiryWheel.Entry> {
+    private final Entry[] slots;
+    private final long tickMillis;
+    private long nextTick;
+    private int size;
+
+    public ExpiryWheel(int slotCount, long tickMillis) {
+        if (Integer.bitCount(slotCount) != 1) {
+            throw new IllegalArgumentException("Slot count must be a power of 2");
+        }
+        this.slots = new Entry[slotCount];
+        this.tickMillis = tickMillis;
+    }
+
+    /** Entries already past due land in the next slot to be visited, so the next advance expires them. */
+    public void schedule(E entry) {
+        var tick = Math.max(entry.deadline / tickMillis, nextTick);
+        var slot = (int) (tick & (slots.length - 1));
+        entry.slot = slot;
+        entry.next = slots[slot];
+        if (entry.next != null) {
+            entry.next.prev = entry;
+        }
+        slots[slot] = entry;
+        size++;
+    }
+
+    public void cancel(E entry) {
+        if (entry.slot < 0) {
+            return;
+        }
+        if (entry.prev == null) {
+            slots[entry.slot] = entry.next;
+        } else {
+            entry.prev.next = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+        entry.slot = -1;
+        size--;
+    }
+
+    /**
+     * Removes and hands over every entry whose deadline is before {@code nowMillis}. The current tick is visited again
+     * on the next advance, since part of it is still in the future.
+     */
+    @SuppressWarnings("unchecked")
+    public void advanceTo(long nowMillis, Consumer<E> expired) {
+        var nowTick = nowMillis / tickMillis;
+        if (nowTick < nextTick) {
+            return;
+        }
+        if (size == 0) {
+            nextTick = nowTick;
+            return;
+        }
+        var lastTick = Math.min(nowTick, nextTick + slots.length - 1);
+        for (var tick = nextTick; tick <= lastTick; tick++) {
+            var entry = slots[(int) (tick & (slots.length - 1))];
+            while (entry != null) {
+                var next = entry.next;
+                if (entry.deadline < nowMillis) {
+                    cancel((E) entry);
+                    expired.accept((E) entry);
+                }
+                entry = next;
+            }
+        }
+        nextTick = nowTick;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * A time no entry's deadline is before: the start of the first occupied tick ahead of the clock, or
+     * {@link Long#MAX_VALUE} when the wheel is empty. Entries of that slot may belong to a later lap, so it is a lower
+     * bound rather than the earliest deadline itself.
+     */
+    public long earliestDeadlineBound() {
+        if (size == 0) {
+            return Long.MAX_VALUE;
+        }
+        for (var tick = nextTick; ; tick++) {
+            if (slots[(int) (tick & (slots.length - 1))] != null) {
+                return tick * tickMillis;
+            }
+        }
+    }
+
+    /** Wheel bookkeeping embedded in whatever is being scheduled. */
+    public abstract static class Entry {
+        long deadline;
+        int slot = -1;
+        Entry prev;
+        Entry next;
+
+        public void setDeadline(long deadline) {
+            this.deadline = deadline;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.diogohmcruz.stockexchange.domain.service;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import io.github.diogohmcruz.stockexchange.domain.engine.EngineListener;
+import io.github.diogohmcruz.stockexchange.domain.model.BookDepth;
+import io.github.diogohmcruz.stockexchange.domain.model.MarketState;
+import io.github.diogohmcruz.stockexchange.domain.model.Trade;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Per-ticker {@link MarketState}, replaced as the engine reports trades and book changes. States are immutable, so
+ * readers on any thread see a consistent one without locking and without touching the database.
+ *
+ * <p>A book restored from a snapshot only reports its depth, which carries the last trade price, so that price seeds
+ * the state until the ticker trades again. The snapshot does not record when that trade happened: the restored state
+ * has no last trade time, and views limited to recently traded tickers leave it out until its next trade.
+ */
+@Component
+@RequiredArgsConstructor
+public class MarketStateRegistry implements EngineListener {
+    private final Map<String, MarketState> states = new ConcurrentHashMap<>();
+    private final TickSizeRegistry tickSizeRegistry;
+
+    @Override
+    public void onTrade(Trade trade) {
+        states.compute(
+                trade.getTicker(),
+                (ticker, state) -> new MarketState(
+                        ticker,
+                        trade.getPrice(),
+                        trade.getTimestamp(),
+                        state == null ? 0 : state.activeBuyOrders(),
+                        state == null ? 0 : state.activeSellOrders()));
+    }
+
+    @Override
+    public void onDepth(BookDepth depth) {
+        states.compute(
+                depth.ticker(),
+                (ticker, state) -> new MarketState(
+                        ticker,
+                        state == null || state.lastPrice() == null ? restoredPrice(depth) : state.lastPrice(),
+                        state == null ? null : state.lastTradeTime(),
+                        depth.bidOrderCount(),
+                        depth.askOrderCount()));
+    }
+
+    private BigDecimal restoredPrice(BookDepth depth) {
+        return depth.lastTradePriceTicks() == OrderBook.NO_PRICE
+                ? null
+                : tickSizeRegistry.forTicker(depth.ticker()).toPrice(depth.lastTradePriceTicks());
+    }
+
+    public Optional<MarketState> getState(String ticker) {
+        return Optional.ofNullable(states.get(ticker));
+    }
+
+    public Collection<MarketState> getStates() {
+        return states.values();
+    }
+}
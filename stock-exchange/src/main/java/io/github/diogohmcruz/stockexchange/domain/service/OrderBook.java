@@ -1,54 +1,342 @@
 package io.github.diogohmcruz.stockexchange.domain.service;
 
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.PriorityBlockingQueue;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import io.github.diogohmcruz.marketlibrary.domain.model.OrderType;
+import io.github.diogohmcruz.stockexchange.domain.model.BookDepth;
+import io.github.diogohmcruz.stockexchange.domain.model.DepthLevel;
 import io.github.diogohmcruz.stockexchange.domain.model.Order;
 import lombok.Getter;
-import lombok.Locked;
 import lombok.RequiredArgsConstructor;
 
+/**
+ * Limit order book of a single ticker. Each side keeps its price levels sorted by tick price with the best level last,
+ * each level queues its resting orders in arrival order, and an order id index points at every resting order's node so
+ * that cancels and fills unlink it without scanning.
+ *
+ * <p>Levels also keep their total remaining quantity and order count, so the aggregated depth is maintained as orders
+ * come and go rather than recomputed from the orders. Every change bumps the book's version, and
+ * {@link #publishDepth(int)} turns the top levels into an immutable {@link BookDepth} when the version moved.
+ *
+ * <p>Not thread-safe: a book is only ever touched by the matching thread that owns its ticker, except for
+ * {@link #getDepth()}, which any thread may read. {@link OrderBookService} owns the books of the running exchange; the
+ * class is public so that a book can also be built and exercised on its own.
+ */
 @RequiredArgsConstructor
-class OrderBook {
+public class OrderBook {
+    public static final long NO_PRICE = 0L;
+    private static final int EXPIRY_WHEEL_SLOTS = 512;
+    private static final long EXPIRY_TICK_MILLIS = 100;
+
     @Getter
     private final String ticker;
 
-    private final PriorityBlockingQueue<Order> buyOrders = new PriorityBlockingQueue<>(
-            11,
-            Comparator.<Order>comparingDouble(o -> o.getPrice().doubleValue())
-                    .reversed()
-                    .thenComparing(Order::getTimestamp));
+    private final BookSide buyOrders = new BookSide(1);
+    private final BookSide sellOrders = new BookSide(-1);
+    private final Map<UUID, OrderNode> ordersById = new HashMap<>();
+    private final ExpiryWheel<OrderNode> expiries = new ExpiryWheel<>(EXPIRY_WHEEL_SLOTS, EXPIRY_TICK_MILLIS);
+
+    /** Price of the last trade in ticks, or {@link #NO_PRICE} before the first one. */
+    @Getter
+    private long lastTradePrice = NO_PRICE;
+
+    /** Number of changes made to the book so far. */
+    @Getter
+    private long version;
+
+    /** Depth as of the last {@link #publishDepth(int)}, or {@code null} before the first one. */
+    @Getter
+    private volatile BookDepth depth;
 
-    private final PriorityBlockingQueue<Order> sellOrders = new PriorityBlockingQueue<>(
-            11,
-            Comparator.<Order>comparingDouble(o -> o.getPrice().doubleValue()).thenComparing(Order::getTimestamp));
+    public void setLastTradePrice(long lastTradePrice) {
+        this.lastTradePrice = lastTradePrice;
+        version++;
+    }
 
-    @Locked.Write
     public boolean addOrder(Order order) {
-        return order.getType() == OrderType.BUY ? buyOrders.offer(order) : sellOrders.offer(order);
+        if (ordersById.containsKey(order.getId())) {
+            return false;
+        }
+        var node = sideOf(order.getType()).add(order);
+        ordersById.put(order.getId(), node);
+        version++;
+        if (order.getExpirationTime() != null) {
+            node.setDeadline(order.getExpirationTime().toEpochMilli());
+            expiries.schedule(node);
+        }
+        return true;
+    }
+
+    /** Removes every order that expired before {@code now}, handing each one to {@code expired}. */
+    public void expireUntil(Instant now, Consumer<Order> expired) {
+        expiries.advanceTo(now.toEpochMilli(), node -> {
+            ordersById.remove(node.order.getId());
+            sideOf(node.order.getType()).remove(node);
+            version++;
+            expired.accept(node.order);
+        });
+    }
+
+    /** Epoch milliseconds before which no resting order expires, or {@link Long#MAX_VALUE} if none can. */
+    public long nextExpiryBound() {
+        return expiries.earliestDeadlineBound();
+    }
+
+    /**
+     * Takes {@code quantity} off an order's remaining quantity, keeping its level's total in step when the order rests
+     * on this book. Filled orders stay on the book until they are removed.
+     */
+    public void fill(Order order, int quantity) {
+        order.setRemainingQuantity(order.getRemainingQuantity() - quantity);
+        var node = ordersById.get(order.getId());
+        if (node != null) {
+            node.level.totalQuantity -= quantity;
+            version++;
+        }
+    }
+
+    /**
+     * Publishes the best {@code levels} price levels of each side as the book's {@link #getDepth() depth}, unless it is
+     * already up to date.
+     */
+    public BookDepth publishDepth(int levels) {
+        var current = depth;
+        if (current != null && current.version() == version) {
+            return current;
+        }
+        current = new BookDepth(
+                ticker,
+                version,
+                lastTradePrice,
+                buyOrders.depth(levels),
+                sellOrders.depth(levels),
+                buyOrders.orderCount,
+                sellOrders.orderCount);
+        depth = current;
+        return current;
     }
 
-    @Locked.Read
     public Order getBestMatchingOrder(Order order) {
-        var matchingOrders = OrderType.BUY.equals(order.getType()) ? sellOrders : buyOrders;
-        return matchingOrders.peek();
+        return sideOf(opposite(order.getType())).bestOrder();
+    }
+
+    /** @return best bid in ticks, or {@link #NO_PRICE} when there are no bids */
+    public long getBestBid() {
+        return buyOrders.bestPrice();
+    }
+
+    /** @return best ask in ticks, or {@link #NO_PRICE} when there are no asks */
+    public long getBestAsk() {
+        return sellOrders.bestPrice();
+    }
+
+    public Order getOrder(UUID orderId) {
+        var node = ordersById.get(orderId);
+        return node == null ? null : node.order;
     }
 
-    @Locked.Write
     public boolean removeOrder(Order order) {
-        return order.getType() == OrderType.BUY ? buyOrders.remove(order) : sellOrders.remove(order);
+        return removeOrder(order.getId()) != null;
+    }
+
+    public Order removeOrder(UUID orderId) {
+        var node = ordersById.remove(orderId);
+        if (node == null) {
+            return null;
+        }
+        sideOf(node.order.getType()).remove(node);
+        expiries.cancel(node);
+        version++;
+        return node.order;
+    }
+
+    public int size() {
+        return ordersById.size();
     }
 
-    @Locked.Read
     public List<Order> getActiveBuyOrders() {
-        return new ArrayList<>(buyOrders);
+        return buyOrders.orders();
     }
 
-    @Locked.Read
     public List<Order> getActiveSellOrders() {
-        return new ArrayList<>(sellOrders);
+        return sellOrders.orders();
+    }
+
+    /** At most {@code limit} orders of one side that can still match, in priority order. */
+    public List<Order> getActiveOrders(OrderType type, int limit) {
+        return sideOf(type).orders(limit, Order::isValidForMatching);
+    }
+
+    private BookSide sideOf(OrderType type) {
+        return type == OrderType.BUY ? buyOrders : sellOrders;
+    }
+
+    private static OrderType opposite(OrderType type) {
+        return type == OrderType.BUY ? OrderType.SELL : OrderType.BUY;
+    }
+
+    /**
+     * Price levels of one side in a flat array sorted by {@code sign * priceTicks}, so the best level is always the
+     * last one and lookups never box a price.
+     */
+    private static final class BookSide {
+        private final int sign;
+        private long[] keys = new long[16];
+        private PriceLevel[] levels = new PriceLevel[16];
+        private int size;
+        private int orderCount;
+
+        private BookSide(int sign) {
+            this.sign = sign;
+        }
+
+        private OrderNode add(Order order) {
+            var key = sign * order.getPriceTicks();
+            var index = indexOf(key);
+            PriceLevel level;
+            if (index >= 0) {
+                level = levels[index];
+            } else {
+                level = new PriceLevel(order.getPriceTicks());
+                insertAt(-index - 1, key, level);
+            }
+            orderCount++;
+            return level.append(order);
+        }
+
+        private void remove(OrderNode node) {
+            var level = node.level;
+            level.unlink(node);
+            orderCount--;
+            if (level.isEmpty()) {
+                removeAt(indexOf(sign * level.price));
+            }
+        }
+
+        private Order bestOrder() {
+            return size == 0 ? null : levels[size - 1].head.order;
+        }
+
+        private long bestPrice() {
+            return size == 0 ? NO_PRICE : levels[size - 1].price;
+        }
+
+        private List<Order> orders() {
+            return orders(Integer.MAX_VALUE, order -> true);
+        }
+
+        private List<Order> orders(int limit, Predicate<Order> filter) {
+            var orders = new ArrayList<Order>(Math.min(limit, orderCount));
+            for (int i = size - 1; i >= 0 && orders.size() < limit; i--) {
+                for (var node = levels[i].head; node != null && orders.size() < limit; node = node.next) {
+                    if (filter.test(node.order)) {
+                        orders.add(node.order);
+                    }
+                }
+            }
+            return orders;
+        }
+
+        private List<DepthLevel> depth(int maxLevels) {
+            var count = Math.min(maxLevels, size);
+            var depth = new DepthLevel[count];
+            for (int i = 0; i < count; i++) {
+                var level = levels[size - 1 - i];
+                depth[i] = new DepthLevel(level.price, level.totalQuantity, level.orderCount);
+            }
+            return List.of(depth);
+        }
+
+        private int indexOf(long key) {
+            if (size > 0 && keys[size - 1] == key) {
+                return size - 1;
+            }
+            return Arrays.binarySearch(keys, 0, size, key);
+        }
+
+        private void insertAt(int index, long key, PriceLevel level) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                levels = Arrays.copyOf(levels, size * 2);
+            }
+            System.arraycopy(keys, index, keys, index + 1, size - index);
+            System.arraycopy(levels, index, levels, index + 1, size - index);
+            keys[index] = key;
+            levels[index] = level;
+            size++;
+        }
+
+        private void removeAt(int index) {
+            System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+            System.arraycopy(levels, index + 1, levels, index, size - index - 1);
+            levels[--size] = null;
+        }
+    }
+
+    private static final class PriceLevel {
+        private final long price;
+        private OrderNode head;
+        private OrderNode tail;
+        private long totalQuantity;
+        private int orderCount;
+
+        private PriceLevel(long price) {
+            this.price = price;
+        }
+
+        private OrderNode append(Order order) {
+            var node = new OrderNode(order, this);
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+                node.prev = tail;
+            }
+            tail = node;
+            totalQuantity += order.getRemainingQuantity();
+            orderCount++;
+            return node;
+        }
+
+        private void unlink(OrderNode node) {
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            totalQuantity -= node.order.getRemainingQuantity();
+            orderCount--;
+        }
+
+        private boolean isEmpty() {
+            return head == null;
+        }
+    }
+
+    private static final class OrderNode extends ExpiryWheel.Entry {
+        private final Order order;
+        private final PriceLevel level;
+        private OrderNode prev;
+        private OrderNode next;
+
+        private OrderNode(Order order, PriceLevel level) {
+            this.order = order;
+            this.level = level;
+        }
     }
 }
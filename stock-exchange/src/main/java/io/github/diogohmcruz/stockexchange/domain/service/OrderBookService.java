@@ -3,161 +3,248 @@ package io.github.diogohmcruz.stockexchange.domain.service;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import io.github.diogohmcruz.marketlibrary.domain.model.OrderType;
+import io.github.diogohmcruz.stockexchange.domain.engine.BookSnapshot;
+import io.github.diogohmcruz.stockexchange.domain.engine.EngineEventPublisher;
+import io.github.diogohmcruz.stockexchange.domain.model.BookDepth;
+import io.github.diogohmcruz.stockexchange.domain.model.ClosedOrder;
 import io.github.diogohmcruz.stockexchange.domain.model.Order;
+import io.github.diogohmcruz.stockexchange.domain.repositories.ClosedOrderRepository;
 import io.github.diogohmcruz.stockexchange.domain.repositories.OrderRepository;
-import lombok.Locked;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * In-memory order books, the source of truth for live orders. Every book mutation happens on the matching thread that
+ * owns the ticker and is reported through {@link EngineEventPublisher}; the database only catches up behind it. Book
+ * views are served from each book's published {@link BookDepth}, so readers never wait for a matching thread.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class OrderBookService {
     private final OrderRepository orderRepository;
+    private final ClosedOrderRepository closedOrderRepository;
+    private final EngineEventPublisher engineEventPublisher;
+    private final int depthLevels;
 
     private final Map<String, OrderBook> orderBooks = new ConcurrentHashMap<>();
+    private final Map<UUID, String> restingTickers = new ConcurrentHashMap<>();
 
-    @Transactional
+    public OrderBookService(
+            OrderRepository orderRepository,
+            ClosedOrderRepository closedOrderRepository,
+            EngineEventPublisher engineEventPublisher,
+            @Value("${engine.depth-levels:20}") int depthLevels) {
+        this.orderRepository = orderRepository;
+        this.closedOrderRepository = closedOrderRepository;
+        this.engineEventPublisher = engineEventPublisher;
+        this.depthLevels = depthLevels;
+    }
+
+    public void acceptOrder(Order order) {
+        engineEventPublisher.orderAccepted(order);
+    }
+
+    /** Rests the unfilled remainder of an accepted order on its ticker's book. */
     public UUID addOrder(Order order) {
-        var persistedOrder = orderRepository.save(order);
-        var orderBook = getOrCreateOrderBook(persistedOrder.getTicker());
-        var isAdded = orderBook.addOrder(persistedOrder);
+        var orderBook = getOrCreateOrderBook(order.getTicker());
+        var isAdded = orderBook.addOrder(order);
         if (!isAdded) {
             return null;
         }
+        restingTickers.put(order.getId(), order.getTicker());
         log.info(
-                "New order added: {} {}x {} at {}",
-                persistedOrder.getType(),
-                persistedOrder.getQuantity(),
-                persistedOrder.getTicker(),
-                persistedOrder.getPrice());
-        return persistedOrder.getId();
+                "New order added: {} {}/{}x {} at {}",
+                order.getType(),
+                order.getRemainingQuantity(),
+                order.getQuantity(),
+                order.getTicker(),
+                order.getPrice());
+        return order.getId();
+    }
+
+    /** Takes {@code quantity} off an order, removing it from its book and deactivating it once nothing is left. */
+    public void fillOrder(Order order, int quantity) {
+        getOrCreateOrderBook(order.getTicker()).fill(order, quantity);
+        if (order.isFilled()) {
+            order.setActive(false);
+            removeFromBook(order);
+        }
+        engineEventPublisher.orderUpdated(order);
     }
 
+    /** An order from the orders table, or from the order history once it closed and was moved there. */
     @Transactional(readOnly = true)
     public Optional<Order> getOrderById(UUID orderId) {
-        return orderRepository.findById(orderId);
+        return orderRepository
+                .findById(orderId)
+                .or(() -> closedOrderRepository.findById(orderId).map(ClosedOrder::toOrder));
     }
 
-    @Transactional
-    public Order getBestMatchingOrder(Order order) {
-        String ticker = order.getTicker();
-        OrderBook orderBook = orderBooks.get(ticker);
-        if (orderBook == null) {
-            return null;
+    public void updateLastTradePrice(String ticker, long priceTicks) {
+        getOrCreateOrderBook(ticker).setLastTradePrice(priceTicks);
+    }
+
+    /** Copies the books of the tickers accepted by {@code tickers}. Must run on the matching thread that owns them. */
+    public List<BookSnapshot> snapshotBooks(Predicate<String> tickers) {
+        var snapshots = new ArrayList<BookSnapshot>();
+        for (var orderBook : orderBooks.values()) {
+            if (!tickers.test(orderBook.getTicker())) {
+                continue;
+            }
+            var orders = new ArrayList<Order>(orderBook.size());
+            orderBook.getActiveBuyOrders().forEach(order -> orders.add(order.copy()));
+            orderBook.getActiveSellOrders().forEach(order -> orders.add(order.copy()));
+            snapshots.add(new BookSnapshot(orderBook.getTicker(), orderBook.getLastTradePrice(), orders, List.of()));
         }
+        return snapshots;
+    }
 
-        Order matchingOrder = orderBook.getBestMatchingOrder(order);
-        if (matchingOrder != null) {
-            try {
-                Order freshOrder = orderRepository.getById(matchingOrder.getId());
-
-                if (freshOrder.isValidForMatching()) {
-                    return freshOrder;
-                }
-
-                orderBook.removeOrder(matchingOrder);
-                return getBestMatchingOrder(order);
-            } catch (Exception e) {
-                log.warn("Failed to refresh order {}: {}", matchingOrder.getId(), e.getMessage());
-                orderBook.removeOrder(matchingOrder);
-                return getBestMatchingOrder(order);
+    /**
+     * Rebuilds a book from a snapshot before the engine starts. The restored orders are reported as accepted so that
+     * the write-behind stage holds their snapshotted state.
+     */
+    public void restoreBook(BookSnapshot snapshot) {
+        var orderBook = getOrCreateOrderBook(snapshot.ticker());
+        orderBook.setLastTradePrice(snapshot.lastTradePriceTicks());
+        for (var order : snapshot.orders()) {
+            if (orderBook.addOrder(order)) {
+                restingTickers.put(order.getId(), order.getTicker());
+                engineEventPublisher.orderAccepted(order);
             }
         }
-        return null;
+        publishDepth(orderBook);
     }
 
-    @Transactional(readOnly = true)
-    public List<Order> getActiveBuyOrders(String ticker) {
+    /**
+     * Republishes the depth of a ticker's book after a command, reporting it when it changed. Must run on the ticker's
+     * matching thread.
+     */
+    public void publishDepth(String ticker) {
         var orderBook = orderBooks.get(ticker);
-        if (orderBook == null) {
-            return Collections.emptyList();
+        if (orderBook != null) {
+            publishDepth(orderBook);
         }
+    }
 
-        var orders = orderBook.getActiveBuyOrders();
-        var validOrders = new ArrayList<Order>();
-
-        orders.forEach(order -> {
-            try {
-                var freshOrder = orderRepository.findById(order.getId());
-                if (freshOrder.isPresent() && freshOrder.get().isValidForMatching()) {
-                    validOrders.add(freshOrder.get());
-                } else {
-                    orderBook.removeOrder(order);
-                }
-            } catch (Exception e) {
-                log.warn("Failed to refresh buy order {}: {}", order.getId(), e.getMessage());
-                orderBook.removeOrder(order);
-            }
-        });
+    /** Latest published depth of a ticker's book. Lock-free, so it can be called from any thread. */
+    public Optional<BookDepth> getDepth(String ticker) {
+        var orderBook = orderBooks.get(ticker);
+        return Optional.ofNullable(orderBook == null ? null : orderBook.getDepth());
+    }
 
-        return validOrders;
+    /**
+     * Ticker of a resting order, so that commands about it can be routed to the owning matching thread.
+     *
+     * @return the ticker, or {@code null} when the order is not resting on any book
+     */
+    public String getRestingTicker(UUID orderId) {
+        return restingTickers.get(orderId);
     }
 
-    @Transactional(readOnly = true)
-    public List<Order> getActiveSellOrders(String ticker) {
+    public Order getBestMatchingOrder(Order order) {
+        var orderBook = orderBooks.get(order.getTicker());
+        return orderBook == null ? null : orderBook.getBestMatchingOrder(order);
+    }
+
+    /** Expires the orders of one book up to {@code now}. Must run on the ticker's matching thread. */
+    public void expireOrders(String ticker, Instant now) {
         var orderBook = orderBooks.get(ticker);
-        if (orderBook == null) {
-            return Collections.emptyList();
+        if (orderBook != null) {
+            orderBook.expireUntil(now, this::onExpired);
         }
+    }
 
-        var orders = orderBook.getActiveSellOrders();
-        var validOrders = new ArrayList<Order>();
-
-        orders.forEach(order -> {
-            try {
-                var freshOrderOptional = orderRepository.findById(order.getId());
-                freshOrderOptional.ifPresentOrElse(
-                        freshOrder -> {
-                            if (freshOrder.isValidForMatching()) {
-                                validOrders.add(freshOrder);
-                            } else {
-                                orderBook.removeOrder(freshOrder);
-                            }
-                        },
-                        () -> orderBook.removeOrder(order));
-            } catch (Exception e) {
-                log.warn("Failed to refresh sell order {}: {}", order.getId(), e.getMessage());
-                orderBook.removeOrder(order);
+    /**
+     * Expires the orders of the books accepted by {@code tickers} up to {@code now}.
+     *
+     * @return epoch milliseconds before which none of those books has another order to expire
+     */
+    public long expireOrders(Predicate<String> tickers, Instant now) {
+        var nextExpiry = Long.MAX_VALUE;
+        for (var orderBook : orderBooks.values()) {
+            if (tickers.test(orderBook.getTicker())) {
+                orderBook.expireUntil(now, this::onExpired);
+                publishDepth(orderBook);
+                nextExpiry = Math.min(nextExpiry, orderBook.nextExpiryBound());
             }
-        });
+        }
+        return nextExpiry;
+    }
+
+    /**
+     * Resting orders of one side of a ticker's book in price-time priority. Must run on the ticker's matching thread.
+     */
+    public List<Order> getActiveOrders(String ticker, OrderType type) {
+        var orderBook = orderBooks.get(ticker);
+        if (orderBook == null) {
+            return Collections.emptyList();
+        }
+        var orders = type == OrderType.BUY ? orderBook.getActiveBuyOrders() : orderBook.getActiveSellOrders();
+        orders.removeIf(order -> !order.isValidForMatching());
+        return orders;
+    }
 
-        return validOrders;
+    /**
+     * The first {@code limit} resting orders of one side, without copying the rest. Must run on the matching thread.
+     */
+    public List<Order> getActiveOrders(String ticker, OrderType type, int limit) {
+        var orderBook = orderBooks.get(ticker);
+        return orderBook == null ? Collections.emptyList() : orderBook.getActiveOrders(type, limit);
     }
 
-    @Transactional
+    /** Pulls a resting order off its book. Must run on the order's matching thread. */
     public boolean cancelOrder(UUID orderId, String userId) {
-        var order = orderRepository.getById(orderId);
-        if (!order.isActive() || !order.getUserId().equals(userId)) {
+        var ticker = restingTickers.get(orderId);
+        var orderBook = ticker == null ? null : orderBooks.get(ticker);
+        var order = orderBook == null ? null : orderBook.getOrder(orderId);
+        if (order == null || !order.isActive() || !order.getUserId().equals(userId)) {
             return false;
         }
 
         order.setActive(false);
-        var orderBook = orderBooks.get(order.getTicker());
-        if (orderBook != null) {
-            orderBook.removeOrder(order);
-        }
+        removeFromBook(order);
+        publishDepth(orderBook);
+        engineEventPublisher.orderUpdated(order);
 
         log.info("Order cancelled: {} by user {}", orderId, userId);
         return true;
     }
 
+    /**
+     * A user's orders, newest first. Active orders come from the orders table alone; with inactive ones, the page is
+     * merged from the orders table, which still holds orders closed since the last move, and the order history.
+     */
     @Transactional(readOnly = true)
     public Page<Order> getUserOrders(String userId, boolean includeInactive, Pageable pageable) {
-        return includeInactive
-                ? orderRepository.findAllByUserIdOrderByTimestampDesc(userId, pageable)
-                : orderRepository.findAllByUserIdAndActiveOrderByTimestampDesc(userId, true, pageable);
+        if (!includeInactive) {
+            return orderRepository.findAllByUserIdAndActiveOrderByTimestampDesc(userId, true, pageable);
+        }
+        var head = PageRequest.of(0, Math.toIntExact(pageable.getOffset() + pageable.getPageSize()));
+        var current = orderRepository.findAllByUserIdOrderByTimestampDesc(userId, head);
+        var closed = closedOrderRepository.findAllByUserIdOrderByTimestampDesc(userId, head);
+        var orders = new ArrayList<Order>(current.getContent());
+        closed.forEach(order -> orders.add(order.toOrder()));
+        orders.sort(Comparator.comparing(Order::getTimestamp).reversed());
+        var from = (int) Math.min(pageable.getOffset(), orders.size());
+        var to = Math.min(from + pageable.getPageSize(), orders.size());
+        return new PageImpl<>(
+                orders.subList(from, to), pageable, current.getTotalElements() + closed.getTotalElements());
     }
 
     @Transactional(readOnly = true)
@@ -168,12 +255,29 @@ public class OrderBookService {
         return Map.of("orderCounts", tickers, "priceRanges", tickerCandles);
     }
 
-    private OrderBook getOrCreateOrderBook(String ticker) {
-        return Optional.ofNullable(orderBooks.get(ticker)).orElse(createOrderBook(ticker));
+    private void publishDepth(OrderBook orderBook) {
+        var previous = orderBook.getDepth();
+        var depth = orderBook.publishDepth(depthLevels);
+        if (depth != previous) {
+            engineEventPublisher.depthPublished(depth);
+        }
     }
 
-    @Locked.Write
-    private OrderBook createOrderBook(String ticker) {
+    private void onExpired(Order order) {
+        order.setActive(false);
+        restingTickers.remove(order.getId());
+        engineEventPublisher.orderExpired(order);
+        log.debug("Order expired: {}", order.getId());
+    }
+
+    private void removeFromBook(Order order) {
+        var orderBook = orderBooks.get(order.getTicker());
+        if (orderBook != null && orderBook.removeOrder(order)) {
+            restingTickers.remove(order.getId());
+        }
+    }
+
+    private OrderBook getOrCreateOrderBook(String ticker) {
         return orderBooks.computeIfAbsent(ticker, OrderBook::new);
     }
 }
@@ -1,64 +1,404 @@
 package io.github.diogohmcruz.stockexchange.domain.service;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import io.github.diogohmcruz.marketlibrary.domain.model.OrderType;
+import io.github.diogohmcruz.stockexchange.domain.engine.AdmissionPolicy;
+import io.github.diogohmcruz.stockexchange.domain.engine.BookSnapshot;
+import io.github.diogohmcruz.stockexchange.domain.engine.EngineEventPublisher;
+import io.github.diogohmcruz.stockexchange.domain.engine.EngineJournal;
+import io.github.diogohmcruz.stockexchange.domain.engine.EngineOverloadedException;
+import io.github.diogohmcruz.stockexchange.domain.engine.IdGenerator;
+import io.github.diogohmcruz.stockexchange.domain.engine.MatchingEngine;
+import io.github.diogohmcruz.stockexchange.domain.engine.OrderEvent;
+import io.github.diogohmcruz.stockexchange.domain.engine.OrderEventProcessor;
+import io.github.diogohmcruz.stockexchange.domain.engine.OrderResult;
+import io.github.diogohmcruz.stockexchange.domain.engine.ShardSnapshot;
 import io.github.diogohmcruz.stockexchange.domain.model.Order;
 import io.github.diogohmcruz.stockexchange.domain.model.Trade;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
 @Slf4j
-@RequiredArgsConstructor
-public class OrderMatchingService {
+public class OrderMatchingService implements OrderEventProcessor {
+    private static final long ENGINE_TIMEOUT_SECONDS = 5;
+
     private final OrderBookService orderBookService;
     private final TradeService tradeService;
-    private final BlockingQueue<Order> orderQueue = new LinkedBlockingQueue<>();
+    private final TickSizeRegistry tickSizeRegistry;
+    private final IdGenerator idGenerator;
+    private final UserRateLimiter rateLimiter;
+    private final PositionTracker positionTracker;
+    private final EngineEventPublisher engineEventPublisher;
+    private final EngineJournal journal;
+    private final MatchingEngine matchingEngine;
+
+    /**
+     * Per shard, epoch milliseconds before which none of its orders expires. Only the shard's matching thread writes
+     * its entry, lowering it when an order rests and recomputing it on every timer. Every shard starts out due, so the
+     * first tick learns the bounds of restored books.
+     */
+    private final AtomicLongArray nextExpiryMillis;
+
+    public OrderMatchingService(
+            OrderBookService orderBookService,
+            TradeService tradeService,
+            TickSizeRegistry tickSizeRegistry,
+            IdGenerator idGenerator,
+            UserRateLimiter rateLimiter,
+            PositionTracker positionTracker,
+            EngineEventPublisher engineEventPublisher,
+            ObjectProvider<EngineJournal> journal,
+            @Value("${engine.shards:0}") int shards,
+            @Value("${engine.ring-buffer-size:4096}") int ringBufferSize,
+            @Value("${engine.admission.policy:block}") AdmissionPolicy admissionPolicy,
+            @Value("${engine.admission.block-timeout:50ms}") Duration admissionTimeout) {
+        this.orderBookService = orderBookService;
+        this.tradeService = tradeService;
+        this.tickSizeRegistry = tickSizeRegistry;
+        this.idGenerator = idGenerator;
+        this.rateLimiter = rateLimiter;
+        this.positionTracker = positionTracker;
+        this.engineEventPublisher = engineEventPublisher;
+        this.journal = journal.getIfAvailable(() -> EngineJournal.NONE);
+        var shardCount = shards > 0 ? shards : Runtime.getRuntime().availableProcessors();
+        this.matchingEngine =
+                new MatchingEngine(shardCount, ringBufferSize, this, this.journal, admissionPolicy, admissionTimeout);
+        this.nextExpiryMillis = new AtomicLongArray(shardCount);
+    }
+
+    @PostConstruct
+    public void start() {
+        journal.recover(this::restore, this::replay);
+        matchingEngine.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        matchingEngine.close();
+    }
 
     public boolean submitOrder(Order order) {
+        return submitOrder(order, admitted -> {});
+    }
+
+    /**
+     * Admits an order and publishes it to the engine, handing it to {@code onAdmitted} once it has its id but before
+     * the engine can see it, so callers can get ready for the engine events it is about to cause.
+     */
+    public boolean submitOrder(Order order, Consumer<Order> onAdmitted) {
+        admit(order);
+        onAdmitted.accept(order);
+        try {
+            matchingEngine.publish(order);
+        } catch (EngineOverloadedException e) {
+            rateLimiter.release(order.getUserId());
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Admits an order and publishes it to the engine, completing with what matching did with it. The result is
+     * completed on the matching thread, and fails with a {@link java.util.concurrent.TimeoutException} if the engine
+     * has not got to the order in time.
+     *
+     * @throws IllegalArgumentException if the order cannot be admitted
+     */
+    public CompletableFuture<OrderResult> submitOrderAsync(Order order) {
+        admit(order);
+        try {
+            return matchingEngine.submit(order).orTimeout(ENGINE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (EngineOverloadedException e) {
+            rateLimiter.release(order.getUserId());
+            throw e;
+        }
+    }
+
+    /**
+     * Admits every order that is valid and publishes them to the engine in one batch, keeping their relative order.
+     * Orders over their user's rate limit, or for a shard too overloaded to take them, are rejected like invalid ones;
+     * the rate limit tokens of the refused ones are given back, since they never reached the engine.
+     *
+     * @return the reason each rejected order was rejected, by its position in {@code orders}
+     */
+    public Map<Integer, String> submitOrders(List<Order> orders) {
+        var rejections = new HashMap<Integer, String>();
+        var admitted = new ArrayList<Order>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            try {
+                admit(orders.get(i));
+                admitted.add(orders.get(i));
+            } catch (IllegalArgumentException | RateLimitExceededException | EngineOverloadedException e) {
+                rejections.put(i, e.getMessage());
+            }
+        }
+        var refused = matchingEngine.publishAll(admitted);
+        if (!refused.isEmpty()) {
+            var refusedOrders = Collections.newSetFromMap(new IdentityHashMap<Order, Boolean>());
+            refusedOrders.addAll(refused);
+            for (int i = 0; i < orders.size(); i++) {
+                if (refusedOrders.contains(orders.get(i))) {
+                    rateLimiter.release(orders.get(i).getUserId());
+                    rejections.put(i, "Matching engine is overloaded, try again later");
+                }
+            }
+        }
+        return rejections;
+    }
+
+    public boolean cancelOrder(UUID orderId, String userId) {
+        return cancelOrderAsync(orderId, userId).join();
+    }
+
+    /** Cancels without waiting; the result completes on the matching thread once the cancel was processed. */
+    public CompletableFuture<Boolean> cancelOrderAsync(UUID orderId, String userId) {
+        if (!isValidUserId(userId)) {
+            return CompletableFuture.completedFuture(false);
+        }
+        var ticker = orderBookService.getRestingTicker(orderId);
+        if (ticker == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return matchingEngine.cancel(ticker, orderId, userId).orTimeout(ENGINE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public List<Order> getActiveOrders(String ticker, OrderType type) {
+        return matchingEngine
+                .query(ticker, () -> orderBookService.getActiveOrders(ticker, type))
+                .orTimeout(ENGINE_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .join();
+    }
+
+    /** The first {@code limit} resting orders of one side of a ticker's book, in priority order. */
+    public List<Order> getActiveOrders(String ticker, OrderType type, int limit) {
+        return matchingEngine
+                .query(ticker, () -> orderBookService.getActiveOrders(ticker, type, limit))
+                .orTimeout(ENGINE_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .join();
+    }
+
+    /**
+     * Ticks only the shards with an order that may have expired, so an exchange with nothing to expire neither wakes
+     * its matching threads nor grows its journal.
+     */
+    @Scheduled(fixedRateString = "${engine.expiry-interval:100ms}")
+    public void publishTimer() {
+        var now = Instant.now();
+        var nowMillis = now.toEpochMilli();
+        matchingEngine.tick(now, shard -> nextExpiryMillis.get(shard) < nowMillis);
+    }
+
+    public int getShardCount() {
+        return matchingEngine.getShardCount();
+    }
+
+    /** @return events waiting for a matching shard */
+    public long queueDepth(int shard) {
+        return matchingEngine.queueDepth(shard);
+    }
+
+    /** @return new orders refused so far because their matching shard was overloaded */
+    public long getOverloadRejections() {
+        return matchingEngine.getRejectedOrders();
+    }
+
+    /** @return timer events skipped because their matching shard was full */
+    public long getSkippedTicks() {
+        return matchingEngine.getSkippedTicks();
+    }
+
+    public List<ShardSnapshot> snapshot() {
+        return matchingEngine
+                .snapshot()
+                .orTimeout(ENGINE_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .join();
+    }
+
+    private void restore(BookSnapshot snapshot) {
+        var tickSize = tickSizeRegistry.forTicker(snapshot.ticker());
+        var orders = new ArrayList<Order>(snapshot.orders().size());
+        for (var order : snapshot.orders()) {
+            try {
+                order.setPriceTicks(tickSize.toTicks(order.getPrice()));
+                orders.add(order);
+            } catch (IllegalArgumentException e) {
+                log.warn("Skipping snapshotted order {}: {}", order.getId(), e.getMessage());
+            }
+        }
+        orderBookService.restoreBook(
+                new BookSnapshot(snapshot.ticker(), snapshot.lastTradePriceTicks(), orders, List.of()));
+        positionTracker.restore(snapshot.positions());
+    }
+
+    /** Rebuilds the books from a journalled event before the engine starts, on the starting thread. */
+    private void replay(OrderEvent event) {
+        switch (event.getType()) {
+            case NEW_ORDER -> {
+                try {
+                    prepareForMatching(event.getOrder());
+                } catch (IllegalArgumentException e) {
+                    log.warn(
+                            "Skipping journalled order {}: {}", event.getOrder().getId(), e.getMessage());
+                    return;
+                }
+                processOrder(event.getOrder());
+            }
+            case CANCEL_ORDER -> processCancel(event.getOrderId(), event.getUserId());
+            case TIMER -> processTimer(event.getTime(), event.getShard(), event.getShardCount());
+            default -> log.warn("Ignoring unexpected journalled {} event", event.getType());
+        }
+    }
+
+    /**
+     * Validates an order and only then charges it to its user's rate limit, so orders that were never admissible do not
+     * use up the tokens of the user's valid ones. Orders are refused before being charged while a listener, such as the
+     * write-behind persister during a database outage, is too far behind to take more events.
+     */
+    private void admit(Order order) {
+        if (!isValidUserId(order.getUserId())) {
+            throw new IllegalArgumentException(
+                    "User ID is required and must be at most " + Order.MAX_USER_ID_LENGTH + " characters");
+        }
+        var ticker = order.getTicker();
+        if (ticker == null || ticker.isBlank() || ticker.length() > Order.MAX_TICKER_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Ticker is required and must be at most " + Order.MAX_TICKER_LENGTH + " characters");
+        }
+        order.applyDefaults();
         if (!order.isValidForMatching()) {
             var errorMessage = String.format("Rejected invalid order from %s: expired or inactive", order.getUserId());
             throw new IllegalArgumentException(errorMessage);
         }
-        return orderQueue.offer(order);
+        prepareForMatching(order);
+        if (engineEventPublisher.isBackpressured()) {
+            throw new EngineOverloadedException("The exchange is catching up on persistence, try again later");
+        }
+        rateLimiter.acquire(order.getUserId());
+        order.setId(idGenerator.nextOrderId());
     }
 
-    public UUID processOrders() throws InterruptedException {
-        var order = orderQueue.take();
-        if (!order.isValidForMatching()) {
+    /** User ids are journalled with every order and cancel, so only bounded ones ever reach the engine. */
+    private static boolean isValidUserId(String userId) {
+        return userId != null && !userId.isBlank() && userId.length() <= Order.MAX_USER_ID_LENGTH;
+    }
+
+    private void prepareForMatching(Order order) {
+        var priceTicks = tickSizeRegistry.forTicker(order.getTicker()).toTicks(order.getPrice());
+        if (priceTicks <= 0) {
+            throw new IllegalArgumentException("Price must be greater than 0");
+        }
+        order.setPriceTicks(priceTicks);
+        order.setRemainingQuantity(order.getQuantity());
+    }
+
+    /**
+     * Matches a single order against its book, sweeping as many opposite price levels as it crosses and resting
+     * whatever is left. Only ever called from the matching thread that owns the order's ticker, or by the journal
+     * replay before the engine starts.
+     */
+    @Override
+    public OrderResult processOrder(Order order) {
+        if (!order.isValidForMatching(order.getTimestamp())) {
             log.debug("Skipping invalid order {}: expired or inactive", order.getId());
-            return order.getId();
+            return OrderResult.REJECTED;
+        }
+
+        orderBookService.acceptOrder(order);
+        orderBookService.expireOrders(order.getTicker(), order.getTimestamp());
+        List<Trade> fills = List.of();
+        while (!order.isFilled()) {
+            var matchingOrder = orderBookService.getBestMatchingOrder(order);
+            if (!canMatch(order, matchingOrder)) {
+                break;
+            }
+            if (fills.isEmpty()) {
+                fills = new ArrayList<>();
+            }
+            fills.add(executeTrade(order, matchingOrder, fills.size()));
         }
 
-        var matchingOrder = orderBookService.getBestMatchingOrder(order);
-        if (canMatch(order, matchingOrder)) {
-            executeTrade(order, matchingOrder);
-        } else {
+        if (!order.isFilled()) {
             orderBookService.addOrder(order);
+            var shard = matchingEngine.shardOf(order.getTicker());
+            var expiry = order.getExpirationTime().toEpochMilli();
+            if (expiry < nextExpiryMillis.get(shard)) {
+                nextExpiryMillis.set(shard, expiry);
+            }
+        }
+        orderBookService.publishDepth(order.getTicker());
+        return new OrderResult(true, fills, order.getRemainingQuantity(), order.isActive());
+    }
+
+    @Override
+    public boolean processCancel(UUID orderId, String userId) {
+        return orderBookService.cancelOrder(orderId, userId);
+    }
+
+    @Override
+    public void processTimer(Instant now, int shard, int shardCount) {
+        var nextExpiry =
+                orderBookService.expireOrders(ticker -> MatchingEngine.shardOf(ticker, shardCount) == shard, now);
+        if (shardCount == nextExpiryMillis.length()) {
+            nextExpiryMillis.set(shard, nextExpiry);
         }
-        return order.getId();
+    }
+
+    @Override
+    public List<BookSnapshot> processSnapshot(int shard) {
+        var books = orderBookService.snapshotBooks(ticker -> matchingEngine.shardOf(ticker) == shard);
+        var positions = positionTracker.snapshot(ticker -> matchingEngine.shardOf(ticker) == shard);
+        return books.stream()
+                .map(book -> book.withPositions(positions.getOrDefault(book.ticker(), List.of())))
+                .toList();
     }
 
     private boolean canMatch(Order order1, Order order2) {
-        if (order2 == null || !order2.isValidForMatching()) {
+        if (order2 == null) {
             return false;
         }
 
         return order1.getType() == OrderType.BUY
-                ? order1.getPrice().compareTo(order2.getPrice()) >= 0
-                : order2.getPrice().compareTo(order1.getPrice()) >= 0;
+                ? order1.getPriceTicks() >= order2.getPriceTicks()
+                : order2.getPriceTicks() >= order1.getPriceTicks();
     }
 
-    private Trade executeTrade(Order order1, Order order2) {
-        var buyOrder = order1.getType() == OrderType.BUY ? order1 : order2;
-        var sellOrder = order1.getType() == OrderType.SELL ? order1 : order2;
-        var trade = new Trade(buyOrder, sellOrder, order2.getPrice());
+    private Trade executeTrade(Order incomingOrder, Order restingOrder, int fill) {
+        var buyOrder = incomingOrder.getType() == OrderType.BUY ? incomingOrder : restingOrder;
+        var sellOrder = incomingOrder.getType() == OrderType.SELL ? incomingOrder : restingOrder;
+        var quantity = Math.min(incomingOrder.getRemainingQuantity(), restingOrder.getRemainingQuantity());
+        var tickSize = tickSizeRegistry.forTicker(restingOrder.getTicker());
+        var trade = new Trade(
+                IdGenerator.tradeId(incomingOrder.getId(), fill),
+                buyOrder,
+                sellOrder,
+                quantity,
+                restingOrder.getPriceTicks(),
+                tickSize,
+                incomingOrder.getTimestamp());
 
-        return tradeService.saveTrade(trade);
+        orderBookService.updateLastTradePrice(restingOrder.getTicker(), restingOrder.getPriceTicks());
+        orderBookService.fillOrder(restingOrder, quantity);
+        orderBookService.fillOrder(incomingOrder, quantity);
+        return tradeService.recordTrade(trade);
     }
 }
@@ -0,0 +1,80 @@
+package io.github.diogohmcruz.stockexchange.domain.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import org.springframework.stereotype.Component;
+
+import io.github.diogohmcruz.stockexchange.domain.engine.EngineListener;
+import io.github.diogohmcruz.stockexchange.domain.model.Position;
+import io.github.diogohmcruz.stockexchange.domain.model.Trade;
+
+/**
+ * Every user's {@link Position} in every ticker they traded, updated from each trade as the engine reports it, so
+ * reading a position never replays trade history. Positions are kept per user in their own concurrent map, and a
+ * ticker's trades all come from the matching thread that owns it, so updates only contend when the same user trades on
+ * several shards at once. Positions are immutable, and readers on any thread see a consistent one without locking.
+ *
+ * <p>Positions are carried in the book snapshots, so recovery restores them as of the snapshot and the journal replay
+ * applies the trades made since.
+ */
+@Component
+public class PositionTracker implements EngineListener {
+    private final Map<String, Map<String, Position>> positions = new ConcurrentHashMap<>();
+
+    @Override
+    public void onTrade(Trade trade) {
+        apply(trade.getBuyerId(), trade, trade.getQuantity());
+        apply(trade.getSellerId(), trade, -trade.getQuantity());
+    }
+
+    public Optional<Position> getPosition(String userId, String ticker) {
+        var userPositions = positions.get(userId);
+        return Optional.ofNullable(userPositions == null ? null : userPositions.get(ticker));
+    }
+
+    public List<Position> getPositions(String userId) {
+        var userPositions = positions.get(userId);
+        return userPositions == null ? List.of() : List.copyOf(userPositions.values());
+    }
+
+    /**
+     * Positions in the tickers {@code tickers} accepts, grouped by ticker. Only consistent when called on the matching
+     * thread that owns those tickers, which is the only thread that changes them.
+     */
+    public Map<String, List<Position>> snapshot(Predicate<String> tickers) {
+        var snapshot = new HashMap<String, List<Position>>();
+        for (var userPositions : positions.values()) {
+            for (var position : userPositions.values()) {
+                if (tickers.test(position.ticker())) {
+                    snapshot.computeIfAbsent(position.ticker(), ticker -> new ArrayList<>())
+                            .add(position);
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    /** Puts back positions taken by {@link #snapshot}, before the engine starts. */
+    public void restore(List<Position> restored) {
+        for (var position : restored) {
+            positions
+                    .computeIfAbsent(position.userId(), user -> new ConcurrentHashMap<>())
+                    .put(position.ticker(), position);
+        }
+    }
+
+    private void apply(String userId, Trade trade, long quantity) {
+        positions
+                .computeIfAbsent(userId, user -> new ConcurrentHashMap<>())
+                .compute(
+                        trade.getTicker(),
+                        (ticker, position) -> (position == null ? Position.empty(userId, ticker) : position)
+                                .apply(quantity, trade.getPrice()));
+    }
+}
@@ -0,0 +1,17 @@
+package io.github.diogohmcruz.stockexchange.domain.service;
+
+import java.time.Duration;
+
+import lombok.Getter;
+
+/** A user submitted orders faster than their rate limit allows. */
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+    /** How long until the user may submit another order. */
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,78 @@
+package io.github.diogohmcruz.stockexchange.domain.service;
+
+import java.util.Arrays;
+
+/**
+ * Trade count, price range, price sum and volume over a sliding window, kept in a ring of fixed-width time buckets. A
+ * bucket is reset when its slot is reused for a later period, so recording is O(1) and a summary costs one pass over
+ * the ring however many trades the window holds.
+ *
+ * <p>Not thread-safe: {@link TradeStatisticsTracker} synchronizes on each ticker's windows. Public so that the bucket
+ * arithmetic can be checked without a tracker.
+ */
+public class RollingWindow {
+    private final long bucketMillis;
+    private final long[] periods;
+    private final int[] counts;
+    private final long[] minTicks;
+    private final long[] maxTicks;
+    private final long[] sumTicks;
+    private final long[] volumes;
+
+    public RollingWindow(long bucketMillis, int bucketCount) {
+        this.bucketMillis = bucketMillis;
+        this.periods = new long[bucketCount];
+        this.counts = new int[bucketCount];
+        this.minTicks = new long[bucketCount];
+        this.maxTicks = new long[bucketCount];
+        this.sumTicks = new long[bucketCount];
+        this.volumes = new long[bucketCount];
+        Arrays.fill(periods, Long.MIN_VALUE);
+    }
+
+    public void record(long timeMillis, long priceTicks, int quantity) {
+        var period = Math.floorDiv(timeMillis, bucketMillis);
+        var slot = (int) Math.floorMod(period, periods.length);
+        if (periods[slot] != period) {
+            if (periods[slot] > period) {
+                return;
+            }
+            periods[slot] = period;
+            counts[slot] = 0;
+            minTicks[slot] = Long.MAX_VALUE;
+            maxTicks[slot] = Long.MIN_VALUE;
+            sumTicks[slot] = 0;
+            volumes[slot] = 0;
+        }
+        counts[slot]++;
+        minTicks[slot] = Math.min(minTicks[slot], priceTicks);
+        maxTicks[slot] = Math.max(maxTicks[slot], priceTicks);
+        sumTicks[slot] += priceTicks;
+        volumes[slot] += quantity;
+    }
+
+    /** Sums the buckets that are still inside the window at {@code nowMillis}. */
+    public Summary summarize(long nowMillis) {
+        var currentPeriod = Math.floorDiv(nowMillis, bucketMillis);
+        var count = 0;
+        var min = Long.MAX_VALUE;
+        var max = Long.MIN_VALUE;
+        var sum = 0L;
+        var volume = 0L;
+        for (int slot = 0; slot < periods.length; slot++) {
+            var age = currentPeriod - periods[slot];
+            if (age < 0 || age >= periods.length || counts[slot] == 0) {
+                continue;
+            }
+            count += counts[slot];
+            min = Math.min(min, minTicks[slot]);
+            max = Math.max(max, maxTicks[slot]);
+            sum += sumTicks[slot];
+            volume += volumes[slot];
+        }
+        return new Summary(count, min, max, sum, volume);
+    }
+
+    /** Totals of a window; the price bounds are only meaningful when {@code count} is positive. */
+    public record Summary(int count, long minTicks, long maxTicks, long sumTicks, long volume) {}
+}
@@ -0,0 +1,24 @@
+package io.github.diogohmcruz.stockexchange.domain.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import io.github.diogohmcruz.stockexchange.domain.model.TickSize;
+import io.github.diogohmcruz.stockexchange.infrastructure.TickSizeProperties;
+
+@Component
+public class TickSizeRegistry {
+    private final TickSize defaultTickSize;
+    private final Map<String, TickSize> tickSizes = new HashMap<>();
+
+    public TickSizeRegistry(TickSizeProperties properties) {
+        this.defaultTickSize = new TickSize(properties.defaultSize());
+        properties.tickers().forEach((ticker, increment) -> tickSizes.put(ticker, new TickSize(increment)));
+    }
+
+    public TickSize forTicker(String ticker) {
+        return tickSizes.getOrDefault(ticker, defaultTickSize);
+    }
+}
@@ -1,14 +1,13 @@
 package io.github.diogohmcruz.stockexchange.domain.service;
 
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
 import java.util.List;
-import java.util.TreeSet;
 
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import io.github.diogohmcruz.stockexchange.domain.model.MarketState;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -16,39 +15,21 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 @RequiredArgsConstructor
 public class TickerService {
+    private final MarketStateRegistry marketStateRegistry;
 
-    @PersistenceContext
-    private EntityManager entityManager;
-
-    @Transactional(readOnly = true)
+    /** Tickers with resting orders or a trade in the last 24 hours, in alphabetical order. */
     public List<String> getAllActiveTickers() {
-        // Get unique tickers from active orders
-        var tickers = new TreeSet<>(getActiveOrderTickers());
-
-        // Add tickers from recent trades (last 24 hours)
-        tickers.addAll(getRecentTradeTickers());
-
-        log.info("Retrieved {} active tickers", tickers.size());
-        return tickers.stream().toList();
-    }
-
-    private List<String> getActiveOrderTickers() {
-        return entityManager
-                .createQuery(
-                        "SELECT DISTINCT o.ticker FROM Order o "
-                                + "WHERE o.active = true AND o.expirationTime > :now "
-                                + "ORDER BY o.ticker",
-                        String.class)
-                .setParameter("now", Instant.now())
-                .getResultList();
+        var tickers = getActiveStates().stream().map(MarketState::ticker).toList();
+        log.debug("Retrieved {} active tickers", tickers.size());
+        return tickers;
     }
 
-    private List<String> getRecentTradeTickers() {
-        return entityManager
-                .createQuery(
-                        "SELECT DISTINCT t.ticker FROM Trade t " + "WHERE t.timestamp > :dayAgo " + "ORDER BY t.ticker",
-                        String.class)
-                .setParameter("dayAgo", Instant.now().minusSeconds(86400))
-                .getResultList();
+    /** Market state of every active ticker, in alphabetical order. */
+    public List<MarketState> getActiveStates() {
+        var dayAgo = Instant.now().minus(24, ChronoUnit.HOURS);
+        return marketStateRegistry.getStates().stream()
+                .filter(state -> state.hasActiveOrders() || state.tradedSince(dayAgo))
+                .sorted(Comparator.comparing(MarketState::ticker))
+                .toList();
     }
 }
@@ -1,27 +1,32 @@
 package io.github.diogohmcruz.stockexchange.domain.service;
 
-import jakarta.validation.Valid;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.BiFunction;
 
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
+import io.github.diogohmcruz.stockexchange.domain.engine.EngineEventPublisher;
+import io.github.diogohmcruz.stockexchange.domain.model.StatisticsWindow;
 import io.github.diogohmcruz.stockexchange.domain.model.Trade;
+import io.github.diogohmcruz.stockexchange.domain.model.TradeCursor;
 import io.github.diogohmcruz.stockexchange.domain.model.TradeStatistics;
 import io.github.diogohmcruz.stockexchange.domain.repositories.TradeRepository;
+import io.github.diogohmcruz.stockexchange.domain.repositories.UserTradeRepository;
+import io.github.diogohmcruz.stockexchange.infrastructure.archive.TradeArchive;
+import io.github.diogohmcruz.stockexchange.infrastructure.cache.CacheConfig;
+import io.github.diogohmcruz.stockexchange.infrastructure.cache.TradeHistoryCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -30,51 +35,74 @@ import lombok.extern.slf4j.Slf4j;
 @Validated
 @RequiredArgsConstructor
 public class TradeService {
+    public static final int MAX_TRADES_PER_PAGE = 500;
 
     private final TradeRepository tradeRepository;
-
-    @Transactional
-    public Trade saveTrade(@Valid Trade trade) {
-        var savedTrade = tradeRepository.save(trade);
-
+    private final UserTradeRepository userTradeRepository;
+    private final EngineEventPublisher engineEventPublisher;
+    private final TradeStatisticsTracker tradeStatisticsTracker;
+    private final MarketStateRegistry marketStateRegistry;
+    private final TradeHistoryCache tradeHistoryCache;
+    private final TradeArchive tradeArchive;
+
+    /** Reports a trade produced by the matching thread; it reaches the database through the write-behind stage. */
+    public Trade recordTrade(Trade trade) {
         log.info(
                 "Trade executed: [{}] {}x {} at {} between {} and {}",
-                savedTrade.getId(),
-                savedTrade.getQuantity(),
-                savedTrade.getTicker(),
-                savedTrade.getPrice(),
-                savedTrade.getBuyerId(),
-                savedTrade.getSellerId());
-
-        return savedTrade;
+                trade.getId(),
+                trade.getQuantity(),
+                trade.getTicker(),
+                trade.getPrice(),
+                trade.getBuyerId(),
+                trade.getSellerId());
+
+        engineEventPublisher.tradeExecuted(trade);
+        return trade;
     }
 
+    /** Trades never change once stored, so they stay cached until evicted for space. */
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.TRADES, unless = "#result == null")
     public Optional<Trade> getTradeById(UUID tradeId) {
         return tradeRepository.findById(tradeId);
     }
 
+    /**
+     * A page of a ticker's trades, newest first, starting after {@code cursor} or at the latest trade when it is
+     * {@code null}. First pages are served from {@link TradeHistoryCache}, and pages that run past the trades still in
+     * the database continue into the {@link TradeArchive}.
+     */
     @Transactional(readOnly = true)
-    @Cacheable(value = "recentTrades", key = "#ticker", condition = "#ticker != null")
-    public List<Trade> getTradesByTicker(String ticker) {
-        return tradeRepository.findByTickerOrderByTimestampDesc(ticker);
+    public List<Trade> getTradesByTicker(String ticker, TradeCursor cursor, int limit) {
+        var bound = pageLimit(limit);
+        var live = cursor == null
+                ? head(tradeHistoryCache.latestByTicker(ticker), bound)
+                : tradeRepository.findByTickerBefore(ticker, cursor.timestamp(), cursor.id(), bound);
+        return withArchived(live, cursor, bound, (before, max) -> tradeArchive.findByTicker(ticker, before, max));
     }
 
+    /** A page of the trades a user bought or sold in, newest first, starting after {@code cursor} when given. */
     @Transactional(readOnly = true)
-    public Page<Trade> getTradesByUser(String userId, Pageable pageable) {
-        return tradeRepository.findByBuyerIdOrSellerIdOrderByTimestampDesc(userId, userId, pageable);
+    public List<Trade> getTradesByUser(String userId, TradeCursor cursor, int limit) {
+        var bound = pageLimit(limit);
+        var live = cursor == null
+                ? head(tradeHistoryCache.latestByUser(userId), bound)
+                : userTradeRepository.findByUserBefore(userId, cursor.timestamp(), cursor.id(), bound);
+        return withArchived(
+                live, cursor, bound, (before, max) -> tradeArchive.findByUser(userId, before, null, null, max));
     }
 
     @Transactional(readOnly = true)
-    public List<Trade> getTradesByUserInTimeRange(String userId, Instant startTime, Instant endTime) {
-        return tradeRepository.findTradesByUserInDateRange(userId, startTime, endTime);
+    public List<Trade> getTradesByUserInTimeRange(String userId, Instant startTime, Instant endTime, int limit) {
+        var bound = pageLimit(limit);
+        var live = userTradeRepository.findTradesByUserInDateRange(userId, startTime, endTime, bound);
+        return withArchived(
+                live, null, bound, (before, max) -> tradeArchive.findByUser(userId, before, startTime, endTime, max));
     }
 
     @Transactional(readOnly = true)
     public List<Trade> getRecentTradesByTicker(String ticker, int limit) {
-        return tradeRepository.findRecentTradesByTicker(ticker).stream()
-                .limit(limit)
-                .toList();
+        return getTradesByTicker(ticker, null, limit);
     }
 
     @Transactional(readOnly = true)
@@ -82,73 +110,60 @@ public class TradeService {
         return tradeRepository.countRecentTrades(ticker, since);
     }
 
-    @Transactional(readOnly = true)
+    /** Last trade price of every ticker that traded in the last 24 hours. */
     public Map<String, BigDecimal> getLatestPrices() {
         var oneDayAgo = Instant.now().minus(24, ChronoUnit.HOURS);
         var latestPrices = new HashMap<String, BigDecimal>();
+        for (var state : marketStateRegistry.getStates()) {
+            if (state.tradedSince(oneDayAgo)) {
+                latestPrices.put(state.ticker(), state.lastPrice());
+            }
+        }
+        return latestPrices;
+    }
 
-        var recentTrades = tradeRepository.findAllByTimestampGreaterThanOrderByTimestampDesc(oneDayAgo);
-
-        recentTrades.stream()
-                .filter(trade -> !latestPrices.containsKey(trade.getTicker()))
-                .forEach(trade -> latestPrices.put(trade.getTicker(), trade.getPrice()));
+    /** Statistics of every ticker that traded within {@code window}, from the rolling windows kept in memory. */
+    public Map<String, TradeStatistics> getTickerStatistics(StatisticsWindow window) {
+        return tradeStatisticsTracker.getStatistics(window, Instant.now());
+    }
 
-        return latestPrices;
+    public Map<String, Long> getDailyTradingVolume() {
+        return tradeStatisticsTracker.getVolumes(StatisticsWindow.DAY, Instant.now());
     }
 
     @Transactional(readOnly = true)
-    public Map<String, TradeStatistics> getTickerStatistics(Instant since) {
-        var tradesByTicker = tradeRepository.findAllByTimestampGreaterThanEqual(since).stream()
-                .collect(Collectors.groupingBy(Trade::getTicker));
-
-        return tradesByTicker.entrySet().stream()
-                .collect(
-                        HashMap::new,
-                        (map, entry) -> {
-                            List<Trade> tickerTrades = entry.getValue();
-                            BigDecimal minPrice = tickerTrades.stream()
-                                    .map(Trade::getPrice)
-                                    .min(BigDecimal::compareTo)
-                                    .orElse(BigDecimal.ZERO);
-
-                            BigDecimal maxPrice = tickerTrades.stream()
-                                    .map(Trade::getPrice)
-                                    .max(BigDecimal::compareTo)
-                                    .orElse(BigDecimal.ZERO);
-
-                            BigDecimal avgPrice = tickerTrades.stream()
-                                    .map(Trade::getPrice)
-                                    .reduce(BigDecimal.ZERO, BigDecimal::add)
-                                    .divide(BigDecimal.valueOf(tickerTrades.size()), 2, RoundingMode.HALF_UP);
-
-                            int totalVolume = tickerTrades.stream()
-                                    .mapToInt(Trade::getQuantity)
-                                    .sum();
-
-                            map.put(
-                                    entry.getKey(),
-                                    new TradeStatistics(
-                                            tickerTrades.size(), minPrice, maxPrice, avgPrice, totalVolume));
-                        },
-                        HashMap::putAll);
+    public List<Trade> getUserRecentTrades(String userId, int limit) {
+        return getTradesByUser(userId, null, limit);
     }
 
-    @Transactional(readOnly = true)
-    public Map<String, Integer> getDailyTradingVolume() {
-        var oneDayAgo = Instant.now().minus(24, ChronoUnit.HOURS);
-        var trades = tradeRepository.findAllByTimestampGreaterThanEqual(oneDayAgo);
+    /**
+     * Tops up a page read from the database with archived trades. Archived trades are older than every trade left in
+     * the database, so the archive continues after the page's last trade, or after {@code cursor} when it was empty.
+     */
+    private static List<Trade> withArchived(
+            List<Trade> live, TradeCursor cursor, Limit limit, BiFunction<TradeCursor, Integer, List<Trade>> archive) {
+        if (live.size() >= limit.max()) {
+            return live;
+        }
+        var before = live.isEmpty() ? cursor : TradeCursor.after(live.getLast());
+        var archived = archive.apply(before, limit.max() - live.size());
+        if (archived.isEmpty()) {
+            return live;
+        }
+        var page = new ArrayList<Trade>(live.size() + archived.size());
+        page.addAll(live);
+        page.addAll(archived);
+        return page;
+    }
 
-        return trades.stream()
-                .collect(
-                        HashMap::new,
-                        (map, trade) -> map.merge(trade.getTicker(), trade.getQuantity(), Integer::sum),
-                        HashMap::putAll);
+    private static List<Trade> head(List<Trade> trades, Limit limit) {
+        return trades.size() <= limit.max() ? trades : trades.subList(0, limit.max());
     }
 
-    @Transactional(readOnly = true)
-    public List<Trade> getUserRecentTrades(String userId, int limit) {
-        return tradeRepository.findByBuyerIdOrSellerIdOrderByTimestampDesc(userId, userId).stream()
-                .limit(limit)
-                .toList();
+    private static Limit pageLimit(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        return Limit.of(Math.min(limit, MAX_TRADES_PER_PAGE));
     }
 }
@@ -0,0 +1,94 @@
+package io.github.diogohmcruz.stockexchange.domain.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import io.github.diogohmcruz.stockexchange.domain.engine.EngineListener;
+import io.github.diogohmcruz.stockexchange.domain.model.StatisticsWindow;
+import io.github.diogohmcruz.stockexchange.domain.model.Trade;
+import io.github.diogohmcruz.stockexchange.domain.model.TradeStatistics;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Per-ticker trade statistics over every {@link StatisticsWindow}, updated as trades execute so that reading them costs
+ * a constant amount of work per ticker instead of a scan of the trades. Trades are bucketed by their own timestamp, so
+ * a journal replay rebuilds the same windows. The windows are not part of the book snapshots, though: after recovering
+ * from a snapshot they only hold the trades replayed since it, until they have rolled over once.
+ */
+@Component
+@RequiredArgsConstructor
+public class TradeStatisticsTracker implements EngineListener {
+    private final TickSizeRegistry tickSizeRegistry;
+    private final Map<String, TickerWindows> tickers = new ConcurrentHashMap<>();
+
+    @Override
+    public void onTrade(Trade trade) {
+        tickers.computeIfAbsent(trade.getTicker(), ticker -> new TickerWindows())
+                .record(trade.getTimestamp().toEpochMilli(), trade.getPriceTicks(), trade.getQuantity());
+    }
+
+    public Map<String, TradeStatistics> getStatistics(StatisticsWindow window, Instant now) {
+        var statistics = new HashMap<String, TradeStatistics>();
+        tickers.forEach((ticker, windows) -> {
+            var summary = windows.summarize(window, now.toEpochMilli());
+            if (summary.count() > 0) {
+                statistics.put(ticker, toStatistics(ticker, summary));
+            }
+        });
+        return statistics;
+    }
+
+    public Map<String, Long> getVolumes(StatisticsWindow window, Instant now) {
+        var volumes = new HashMap<String, Long>();
+        tickers.forEach((ticker, windows) -> {
+            var summary = windows.summarize(window, now.toEpochMilli());
+            if (summary.count() > 0) {
+                volumes.put(ticker, summary.volume());
+            }
+        });
+        return volumes;
+    }
+
+    private TradeStatistics toStatistics(String ticker, RollingWindow.Summary summary) {
+        var tickSize = tickSizeRegistry.forTicker(ticker);
+        var averagePrice = tickSize.toPrice(summary.sumTicks())
+                .divide(BigDecimal.valueOf(summary.count()), 2, RoundingMode.HALF_UP);
+        return new TradeStatistics(
+                summary.count(),
+                tickSize.toPrice(summary.minTicks()),
+                tickSize.toPrice(summary.maxTicks()),
+                averagePrice,
+                summary.volume());
+    }
+
+    /**
+     * Windows of one ticker. Only the ticker's matching thread records into them, so the lock is uncontended except
+     * against the occasional reader.
+     */
+    private static final class TickerWindows {
+        private final Map<StatisticsWindow, RollingWindow> windows = new EnumMap<>(StatisticsWindow.class);
+
+        private TickerWindows() {
+            for (var window : StatisticsWindow.values()) {
+                windows.put(window, new RollingWindow(window.getBucketSize().toMillis(), window.getBucketCount()));
+            }
+        }
+
+        private synchronized void record(long timeMillis, long priceTicks, int quantity) {
+            for (var window : windows.values()) {
+                window.record(timeMillis, priceTicks, quantity);
+            }
+        }
+
+        private synchronized RollingWindow.Summary summarize(StatisticsWindow window, long nowMillis) {
+            return windows.get(window).summarize(nowMillis);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.diogohmcruz.stockexchange.domain.service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Per-user token buckets limiting how fast each user may submit orders. A bucket holds up to {@code burst} tokens,
+ * refills at {@code orders-per-second} and every order takes one, so a user can burst briefly but not sustain more than
+ * the rate. Buckets of users who stopped trading are dropped, since a full bucket is what a new one starts as. A rate
+ * of 0 turns the limits off.
+ */
+@Component
+public class UserRateLimiter {
+    private static final Duration IDLE_BUCKET_EXPIRY = Duration.ofMinutes(10);
+
+    private final double tokensPerNano;
+    private final double burst;
+    private final LongSupplier nanoTime;
+    private final Cache<String, TokenBucket> buckets;
+    private final LongAdder rejections = new LongAdder();
+
+    @Autowired
+    public UserRateLimiter(
+            @Value("${order.rate-limit.orders-per-second:0}") double ordersPerSecond,
+            @Value("${order.rate-limit.burst:1}") int burst) {
+        this(ordersPerSecond, burst, System::nanoTime);
+    }
+
+    public UserRateLimiter(double ordersPerSecond, int burst, LongSupplier nanoTime) {
+        this.tokensPerNano = ordersPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = Math.max(1, burst);
+        this.nanoTime = nanoTime;
+        this.buckets =
+                Caffeine.newBuilder().expireAfterAccess(IDLE_BUCKET_EXPIRY).build();
+    }
+
+    public boolean isEnabled() {
+        return tokensPerNano > 0;
+    }
+
+    /**
+     * Takes a token from the user's bucket.
+     *
+     * @throws RateLimitExceededException if the bucket is empty
+     */
+    public void acquire(String userId) {
+        if (!isEnabled()) {
+            return;
+        }
+        var now = nanoTime.getAsLong();
+        var waitNanos = buckets.get(userId, user -> new TokenBucket(burst, now)).take(now);
+        if (waitNanos > 0) {
+            rejections.increment();
+            throw new RateLimitExceededException(
+                    "Order rate limit exceeded for " + userId, Duration.ofNanos(waitNanos));
+        }
+    }
+
+    /**
+     * Gives back a token taken by {@link #acquire} for an order that never reached the engine, such as one refused
+     * because its shard was overloaded. A bucket never holds more than its burst.
+     */
+    public void release(String userId) {
+        if (!isEnabled()) {
+            return;
+        }
+        var bucket = buckets.getIfPresent(userId);
+        if (bucket != null) {
+            bucket.refund();
+        }
+    }
+
+    /** @return orders refused so far because their user was over the limit */
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    private final class TokenBucket {
+        private double tokens;
+        private long refilledAt;
+
+        private TokenBucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.refilledAt = now;
+        }
+
+        /** @return 0 when a token was taken, otherwise the nanoseconds until one will be available */
+        private synchronized long take(long now) {
+            tokens = Math.min(burst, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / tokensPerNano);
+        }
+
+        private synchronized void refund() {
+            tokens = Math.min(burst, tokens + 1);
+        }
+    }
+}
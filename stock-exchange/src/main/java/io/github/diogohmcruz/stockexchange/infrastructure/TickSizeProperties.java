@@ -0,0 +1,11 @@
+package io.github.diogohmcruz.stockexchange.infrastructure;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "engine.tick-size")
+public record TickSizeProperties(
+        @DefaultValue("0.01") BigDecimal defaultSize, @DefaultValue Map<String, BigDecimal> tickers) {}
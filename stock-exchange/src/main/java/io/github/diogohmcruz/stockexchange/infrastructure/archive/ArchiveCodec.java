@@ -0,0 +1,209 @@
+package io.github.diogohmcruz.stockexchange.infrastructure.archive;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+import io.github.diogohmcruz.stockexchange.domain.model.TickSize;
+
+/**
+ * Columnar layout of an archive file. After a header with the tick size and a dictionary of the user ids that appear in
+ * the file, each field of the trades is stored as one column, oldest trade first: timestamps as varint deltas in
+ * nanoseconds, prices as zig-zag varint deltas in ticks, quantities as varints, ids as raw 16 bytes and users as varint
+ * indexes into the dictionary. Consecutive trades of a ticker have close timestamps and prices, so most values fit in a
+ * byte or two. The whole body is checksummed.
+ */
+final class ArchiveCodec {
+    private static final int MAGIC = 0x54524443;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 3 * Integer.BYTES;
+    private static final int MAX_TRADE_BYTES = 2 * 10 + 5 + 3 * 16 + 2 * 5;
+
+    private ArchiveCodec() {}
+
+    record Header(TickSize tickSize, int count, List<String> users, int columnsOffset) {}
+
+    /** Encodes trades sorted {@link ArchivedTrade#CHRONOLOGICAL chronologically}. */
+    static ByteBuffer encode(TickSize tickSize, List<ArchivedTrade> trades) {
+        var userIndexes = new HashMap<String, Integer>();
+        var users = new ArrayList<byte[]>();
+        var dictionaryBytes = 0;
+        for (var trade : trades) {
+            for (var userId : List.of(trade.buyerId(), trade.sellerId())) {
+                if (userIndexes.putIfAbsent(userId, users.size()) == null) {
+                    var bytes = userId.getBytes(StandardCharsets.UTF_8);
+                    users.add(bytes);
+                    dictionaryBytes += Short.BYTES + bytes.length;
+                }
+            }
+        }
+        var increment = tickSize.increment().toPlainString().getBytes(StandardCharsets.UTF_8);
+        var buffer = ByteBuffer.allocate(HEADER_BYTES
+                + 2 * Integer.BYTES
+                + Short.BYTES
+                + increment.length
+                + dictionaryBytes
+                + trades.size() * MAX_TRADE_BYTES);
+        buffer.position(HEADER_BYTES);
+        buffer.putInt(trades.size());
+        buffer.putShort((short) increment.length).put(increment);
+        buffer.putInt(users.size());
+        for (var user : users) {
+            buffer.putShort((short) user.length).put(user);
+        }
+
+        var previousNanos = 0L;
+        for (var trade : trades) {
+            var nanos = toNanos(trade.timestamp());
+            putVarLong(buffer, nanos - previousNanos);
+            previousNanos = nanos;
+        }
+        var previousTicks = 0L;
+        for (var trade : trades) {
+            putVarLong(buffer, zigZag(trade.priceTicks() - previousTicks));
+            previousTicks = trade.priceTicks();
+        }
+        for (var trade : trades) {
+            putVarLong(buffer, trade.quantity());
+        }
+        trades.forEach(trade -> putUuid(buffer, trade.id()));
+        trades.forEach(trade -> putUuid(buffer, trade.buyOrderId()));
+        trades.forEach(trade -> putUuid(buffer, trade.sellOrderId()));
+        trades.forEach(trade -> putVarLong(buffer, userIndexes.get(trade.buyerId())));
+        trades.forEach(trade -> putVarLong(buffer, userIndexes.get(trade.sellerId())));
+
+        buffer.flip();
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(Integer.BYTES, FORMAT_VERSION);
+        buffer.putInt(2 * Integer.BYTES, checksum(buffer));
+        return buffer;
+    }
+
+    /** Reads the header without decoding the columns, so files can be skipped on their tick size or users alone. */
+    static Header decodeHeader(ByteBuffer file) {
+        var buffer = file.duplicate();
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+            throw new IllegalStateException("Not a trade archive file");
+        }
+        var version = buffer.getInt();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalStateException("Unsupported trade archive format version " + version);
+        }
+        buffer.getInt();
+        var count = buffer.getInt();
+        var tickSize = new TickSize(new BigDecimal(getString(buffer)));
+        var users = new String[buffer.getInt()];
+        for (int i = 0; i < users.length; i++) {
+            users[i] = getString(buffer);
+        }
+        return new Header(tickSize, count, List.of(users), buffer.position());
+    }
+
+    static List<ArchivedTrade> decodeTrades(ByteBuffer file, Header header) {
+        if (file.getInt(2 * Integer.BYTES) != checksum(file)) {
+            throw new IllegalStateException("Corrupt trade archive file");
+        }
+        var buffer = file.duplicate().position(header.columnsOffset());
+        var count = header.count();
+        var timestamps = new Instant[count];
+        var nanos = 0L;
+        for (int i = 0; i < count; i++) {
+            nanos += getVarLong(buffer);
+            timestamps[i] =
+                    Instant.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L), Math.floorMod(nanos, 1_000_000_000L));
+        }
+        var prices = new long[count];
+        var ticks = 0L;
+        for (int i = 0; i < count; i++) {
+            ticks += unZigZag(getVarLong(buffer));
+            prices[i] = ticks;
+        }
+        var quantities = new int[count];
+        for (int i = 0; i < count; i++) {
+            quantities[i] = (int) getVarLong(buffer);
+        }
+        var ids = getUuids(buffer, count);
+        var buyOrderIds = getUuids(buffer, count);
+        var sellOrderIds = getUuids(buffer, count);
+        var buyers = new int[count];
+        for (int i = 0; i < count; i++) {
+            buyers[i] = (int) getVarLong(buffer);
+        }
+        var trades = new ArrayList<ArchivedTrade>(count);
+        for (int i = 0; i < count; i++) {
+            var seller = (int) getVarLong(buffer);
+            trades.add(new ArchivedTrade(
+                    ids[i],
+                    timestamps[i],
+                    prices[i],
+                    quantities[i],
+                    buyOrderIds[i],
+                    sellOrderIds[i],
+                    header.users().get(buyers[i]),
+                    header.users().get(seller)));
+        }
+        return trades;
+    }
+
+    private static int checksum(ByteBuffer file) {
+        var checksum = new CRC32C();
+        checksum.update(file.duplicate().position(HEADER_BYTES));
+        return (int) checksum.getValue();
+    }
+
+    private static long toNanos(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000_000L), instant.getNano());
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void putVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long getVarLong(ByteBuffer buffer) {
+        var value = 0L;
+        for (int shift = 0; ; shift += 7) {
+            var b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID uuid) {
+        buffer.putLong(uuid.getMostSignificantBits());
+        buffer.putLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID[] getUuids(ByteBuffer buffer, int count) {
+        var uuids = new UUID[count];
+        for (int i = 0; i < count; i++) {
+            uuids[i] = new UUID(buffer.getLong(), buffer.getLong());
+        }
+        return uuids;
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        var bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
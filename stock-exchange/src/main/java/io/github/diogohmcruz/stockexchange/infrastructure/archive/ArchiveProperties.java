@@ -0,0 +1,11 @@
+package io.github.diogohmcruz.stockexchange.infrastructure.archive;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "archive")
+public record ArchiveProperties(
+        boolean enabled, @DefaultValue("data/archive") Path directory, @DefaultValue("7d") Duration maxAge) {}
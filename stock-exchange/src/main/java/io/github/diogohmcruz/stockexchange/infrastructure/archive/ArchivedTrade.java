@@ -0,0 +1,38 @@
+package io.github.diogohmcruz.stockexchange.infrastructure.archive;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.UUID;
+
+import io.github.diogohmcruz.stockexchange.domain.model.TradeCursor;
+
+/** A trade as stored in the archive, with its price in ticks of the archive file's tick size. */
+public record ArchivedTrade(
+        UUID id,
+        Instant timestamp,
+        long priceTicks,
+        int quantity,
+        UUID buyOrderId,
+        UUID sellOrderId,
+        String buyerId,
+        String sellerId) {
+    /** Oldest first, ties broken on the id compared as unsigned bytes, the order the database sorts trades in. */
+    static final Comparator<ArchivedTrade> CHRONOLOGICAL =
+            Comparator.comparing(ArchivedTrade::timestamp).thenComparing(ArchivedTrade::id, ArchivedTrade::compareIds);
+
+    boolean isBefore(TradeCursor cursor) {
+        var comparison = timestamp.compareTo(cursor.timestamp());
+        return comparison < 0 || (comparison == 0 && compareIds(id, cursor.id()) < 0);
+    }
+
+    boolean involves(String userId) {
+        return buyerId.equals(userId) || sellerId.equals(userId);
+    }
+
+    static int compareIds(UUID left, UUID right) {
+        var comparison = Long.compareUnsigned(left.getMostSignificantBits(), right.getMostSignificantBits());
+        return comparison != 0
+                ? comparison
+                : Long.compareUnsigned(left.getLeastSignificantBits(), right.getLeastSignificantBits());
+    }
+}
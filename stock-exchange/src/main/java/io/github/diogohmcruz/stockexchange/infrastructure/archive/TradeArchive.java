@@ -0,0 +1,243 @@
+package io.github.diogohmcruz.stockexchange.infrastructure.archive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Predicate;
+
+import org.springframework.stereotype.Component;
+
+import io.github.diogohmcruz.stockexchange.domain.model.Order;
+import io.github.diogohmcruz.stockexchange.domain.model.TickSize;
+import io.github.diogohmcruz.stockexchange.domain.model.Trade;
+import io.github.diogohmcruz.stockexchange.domain.model.TradeCursor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Trades moved out of the database, in one columnar file per ticker and UTC day under {@code <directory>/<ticker>/}.
+ * Files are memory-mapped when read and replaced through an atomic rename when written, so readers never see a partial
+ * file. Queries walk the days newest first and stop as soon as they have enough trades; a user's query first checks
+ * each file's user dictionary and only decodes the files the user traded in.
+ */
+@Slf4j
+@Component
+public class TradeArchive {
+    private static final String EXTENSION = ".trades";
+    private static final Comparator<Trade> NEWEST_FIRST = Comparator.comparing(Trade::getTimestamp)
+            .thenComparing(Trade::getId, ArchivedTrade::compareIds)
+            .reversed();
+
+    private final Path directory;
+    private final NavigableMap<LocalDate, Set<String>> tickersByDay = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<String, NavigableSet<LocalDate>> daysByTicker = new ConcurrentHashMap<>();
+
+    public TradeArchive(ArchiveProperties properties) {
+        this.directory = properties.directory();
+        catalog();
+    }
+
+    /** Archived trades of a ticker, newest first, strictly before {@code before} when given. */
+    public List<Trade> findByTicker(String ticker, TradeCursor before, int limit) {
+        var trades = new ArrayList<Trade>();
+        var days = daysByTicker.get(ticker);
+        if (days == null || limit <= 0) {
+            return trades;
+        }
+        var newestDay = before == null ? days.last() : dayOf(before.timestamp());
+        for (var day : days.headSet(newestDay, true).descendingSet()) {
+            var file = read(ticker, day, header -> true);
+            collect(ticker, file, trade -> before == null || trade.isBefore(before), trades, limit);
+            if (trades.size() >= limit) {
+                break;
+            }
+        }
+        return trades;
+    }
+
+    /**
+     * Archived trades a user bought or sold in, newest first, strictly before {@code before} when given and within
+     * {@code [from, to]} for the bounds that are given.
+     */
+    public List<Trade> findByUser(String userId, TradeCursor before, Instant from, Instant to, int limit) {
+        var trades = new ArrayList<Trade>();
+        if (tickersByDay.isEmpty() || limit <= 0) {
+            return trades;
+        }
+        var newest = before == null ? to : (to == null || before.timestamp().isBefore(to) ? before.timestamp() : to);
+        var days = newest == null ? tickersByDay : tickersByDay.headMap(dayOf(newest), true);
+        if (from != null) {
+            days = days.tailMap(dayOf(from), true);
+        }
+        Predicate<ArchivedTrade> matches = trade -> trade.involves(userId)
+                && (before == null || trade.isBefore(before))
+                && (from == null || !trade.timestamp().isBefore(from))
+                && (to == null || !trade.timestamp().isAfter(to));
+        for (var entry : days.descendingMap().entrySet()) {
+            var dayTrades = new ArrayList<Trade>();
+            for (var ticker : entry.getValue()) {
+                var file = read(ticker, entry.getKey(), header -> header.users().contains(userId));
+                collect(ticker, file, matches, dayTrades, Integer.MAX_VALUE);
+            }
+            dayTrades.sort(NEWEST_FIRST);
+            trades.addAll(dayTrades.subList(0, Math.min(dayTrades.size(), limit - trades.size())));
+            if (trades.size() >= limit) {
+                break;
+            }
+        }
+        return trades;
+    }
+
+    /**
+     * Adds trades to a ticker's file of {@code day}, merging them with the ones already archived there. Trades that are
+     * already archived are kept once, so archiving the same trades twice changes nothing. {@link TradeArchiver} is the
+     * only writer of the running exchange; this is public so that an archive can be filled without a database.
+     */
+    public void store(String ticker, LocalDate day, TickSize tickSize, List<ArchivedTrade> trades) {
+        var merged = new HashMap<UUID, ArchivedTrade>();
+        var existing = read(ticker, day, header -> true);
+        if (existing != null) {
+            if (!existing.header().tickSize().equals(tickSize)) {
+                throw new IllegalStateException("Archive of " + ticker + " on " + day + " uses another tick size");
+            }
+            ArchiveCodec.decodeTrades(existing.buffer(), existing.header())
+                    .forEach(trade -> merged.put(trade.id(), trade));
+        }
+        trades.forEach(trade -> merged.put(trade.id(), trade));
+        var sorted = new ArrayList<>(merged.values());
+        sorted.sort(ArchivedTrade.CHRONOLOGICAL);
+
+        var path = pathOf(ticker, day);
+        var temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(path.getParent());
+            try (var channel = FileChannel.open(
+                    temporary,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE)) {
+                var bytes = ArchiveCodec.encode(tickSize, sorted);
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                channel.force(true);
+            }
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write trade archive " + path, e);
+        }
+        register(ticker, day);
+    }
+
+    private MappedFile read(String ticker, LocalDate day, Predicate<ArchiveCodec.Header> wanted) {
+        var path = pathOf(ticker, day);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            var header = ArchiveCodec.decodeHeader(buffer);
+            return wanted.test(header) ? new MappedFile(buffer, header) : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read trade archive " + path, e);
+        }
+    }
+
+    /** Adds the file's trades that match, newest first, until {@code trades} holds {@code limit}. */
+    private static void collect(
+            String ticker, MappedFile file, Predicate<ArchivedTrade> matches, List<Trade> trades, int limit) {
+        if (file == null) {
+            return;
+        }
+        var archived = ArchiveCodec.decodeTrades(file.buffer(), file.header());
+        for (int i = archived.size() - 1; i >= 0 && trades.size() < limit; i--) {
+            var trade = archived.get(i);
+            if (matches.test(trade)) {
+                trades.add(toTrade(ticker, file.header().tickSize(), trade));
+            }
+        }
+    }
+
+    private static Trade toTrade(String ticker, TickSize tickSize, ArchivedTrade archived) {
+        var buyOrder = new Order();
+        buyOrder.setId(archived.buyOrderId());
+        var sellOrder = new Order();
+        sellOrder.setId(archived.sellOrderId());
+        var trade = new Trade();
+        trade.setId(archived.id());
+        trade.setTicker(ticker);
+        trade.setPriceTicks(archived.priceTicks());
+        trade.setPrice(tickSize.toPrice(archived.priceTicks()));
+        trade.setQuantity(archived.quantity());
+        trade.setTimestamp(archived.timestamp());
+        trade.setBuyOrder(buyOrder);
+        trade.setSellOrder(sellOrder);
+        trade.setBuyerId(archived.buyerId());
+        trade.setSellerId(archived.sellerId());
+        trade.setVersion(0L);
+        return trade;
+    }
+
+    static LocalDate dayOf(Instant instant) {
+        return LocalDate.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    private Path pathOf(String ticker, LocalDate day) {
+        return directory.resolve(ticker).resolve(day + EXTENSION);
+    }
+
+    private void register(String ticker, LocalDate day) {
+        tickersByDay.computeIfAbsent(day, d -> ConcurrentHashMap.newKeySet()).add(ticker);
+        daysByTicker.computeIfAbsent(ticker, t -> new ConcurrentSkipListSet<>()).add(day);
+    }
+
+    private void catalog() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (var tickers = Files.list(directory)) {
+            for (var tickerDirectory : tickers.filter(Files::isDirectory).toList()) {
+                try (var files = Files.list(tickerDirectory)) {
+                    for (var file : files.toList()) {
+                        var name = file.getFileName().toString();
+                        if (name.endsWith(EXTENSION)) {
+                            register(tickerDirectory.getFileName().toString(), parseDay(name));
+                        }
+                    }
+                }
+            }
+        } catch (IOException | DateTimeParseException e) {
+            throw new IllegalStateException("Failed to catalog trade archive " + directory, e);
+        }
+        log.info(
+                "Found archived trades of {} tickers over {} days in {}",
+                daysByTicker.size(),
+                tickersByDay.size(),
+                directory);
+    }
+
+    private static LocalDate parseDay(String name) {
+        return LocalDate.parse(name.substring(0, name.length() - EXTENSION.length()));
+    }
+
+    private record MappedFile(ByteBuffer buffer, ArchiveCodec.Header header) {}
+}
@@ -0,0 +1,159 @@
+package io.github.diogohmcruz.stockexchange.infrastructure.archive;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.github.diogohmcruz.stockexchange.domain.model.TickSize;
+import io.github.diogohmcruz.stockexchange.domain.service.TickSizeRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves trades older than {@code archive.max-age} out of the database into the {@link TradeArchive}, one ticker and UTC
+ * day at a time, so the trades table and its indexes only hold recent history. Only whole days are archived. A day's
+ * trades are deleted from the database once their file is durably in place; if the process dies in between, the next
+ * run archives them again and the merge keeps them once.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "archive", name = "enabled", havingValue = "true")
+public class TradeArchiver {
+    private static final String SELECT_TICKERS = "SELECT DISTINCT ticker FROM trades WHERE timestamp < ?";
+    private static final String SELECT_OLDEST = "SELECT MIN(timestamp) FROM trades WHERE ticker = ? AND timestamp < ?";
+    private static final String SELECT_TRADES =
+            """
+            SELECT id, price, quantity, timestamp, buy_order_id, sell_order_id, buyer_id, seller_id
+            FROM trades
+            WHERE ticker = ? AND timestamp >= ? AND timestamp < ?
+            """;
+    private static final String DELETE_USER_TRADES = "DELETE FROM user_trades WHERE trade_id = ?";
+    private static final String DELETE_TRADE = "DELETE FROM trades WHERE id = ?";
+    private static final int DELETE_BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TradeArchive tradeArchive;
+    private final TickSizeRegistry tickSizeRegistry;
+    private final ArchiveProperties properties;
+
+    public TradeArchiver(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            TradeArchive tradeArchive,
+            TickSizeRegistry tickSizeRegistry,
+            ArchiveProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tradeArchive = tradeArchive;
+        this.tickSizeRegistry = tickSizeRegistry;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${archive.interval:1h}")
+    public void archive() {
+        try {
+            archiveBefore(TradeArchive.dayOf(Instant.now().minus(properties.maxAge())));
+        } catch (RuntimeException e) {
+            log.error("Failed to archive trades", e);
+        }
+    }
+
+    /** Archives every trade from the days before {@code cutoff}. */
+    public void archiveBefore(LocalDate cutoff) {
+        var cutoffTime = Timestamp.from(startOf(cutoff));
+        for (var ticker : jdbcTemplate.queryForList(SELECT_TICKERS, String.class, cutoffTime)) {
+            var oldest = jdbcTemplate.queryForObject(SELECT_OLDEST, Timestamp.class, ticker, cutoffTime);
+            while (oldest != null && archiveDay(ticker, TradeArchive.dayOf(oldest.toInstant())) > 0) {
+                oldest = jdbcTemplate.queryForObject(SELECT_OLDEST, Timestamp.class, ticker, cutoffTime);
+            }
+        }
+    }
+
+    private int archiveDay(String ticker, LocalDate day) {
+        var rows = jdbcTemplate.query(
+                SELECT_TRADES,
+                (rs, rowNum) -> row(rs),
+                ticker,
+                Timestamp.from(startOf(day)),
+                Timestamp.from(startOf(day.plusDays(1))));
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        var tickSize = tickSizeOf(ticker, rows);
+        var trades = rows.stream()
+                .map(row -> new ArchivedTrade(
+                        row.id(),
+                        row.timestamp(),
+                        tickSize.toTicks(row.price()),
+                        row.quantity(),
+                        row.buyOrderId(),
+                        row.sellOrderId(),
+                        row.buyerId(),
+                        row.sellerId()))
+                .toList();
+        tradeArchive.store(ticker, day, tickSize, trades);
+
+        var ids = trades.stream().map(ArchivedTrade::id).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(DELETE_USER_TRADES, ids, DELETE_BATCH_SIZE, (ps, id) -> ps.setObject(1, id));
+            jdbcTemplate.batchUpdate(DELETE_TRADE, ids, DELETE_BATCH_SIZE, (ps, id) -> ps.setObject(1, id));
+        });
+        log.info("Archived {} trades of {} on {}", trades.size(), ticker, day);
+        return trades.size();
+    }
+
+    /**
+     * The ticker's configured tick size, unless some of the day's prices predate a change to it, in which case the day
+     * is stored in the smallest decimal unit its prices use.
+     */
+    private TickSize tickSizeOf(String ticker, List<Row> rows) {
+        var tickSize = tickSizeRegistry.forTicker(ticker);
+        var scale = 0;
+        var fits = true;
+        for (var row : rows) {
+            var price = row.price();
+            scale = Math.max(scale, price.stripTrailingZeros().scale());
+            fits &= price.remainder(tickSize.increment()).signum() == 0;
+        }
+        return fits ? tickSize : new TickSize(BigDecimal.ONE.movePointLeft(scale));
+    }
+
+    private static Instant startOf(LocalDate day) {
+        return day.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    private static Row row(ResultSet rs) throws SQLException {
+        return new Row(
+                rs.getObject("id", UUID.class),
+                rs.getTimestamp("timestamp").toInstant(),
+                rs.getBigDecimal("price"),
+                rs.getInt("quantity"),
+                rs.getObject("buy_order_id", UUID.class),
+                rs.getObject("sell_order_id", UUID.class),
+                rs.getString("buyer_id"),
+                rs.getString("seller_id"));
+    }
+
+    private record Row(
+            UUID id,
+            Instant timestamp,
+            BigDecimal price,
+            int quantity,
+            UUID buyOrderId,
+            UUID sellOrderId,
+            String buyerId,
+            String sellerId) {}
+}
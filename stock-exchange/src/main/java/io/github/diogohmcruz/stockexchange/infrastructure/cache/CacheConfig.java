@@ -0,0 +1,30 @@
+package io.github.diogohmcruz.stockexchange.infrastructure.cache;
+
+import java.util.Collection;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String TRADES = "trades";
+    public static final String TRADES_BY_TICKER = "tradesByTicker";
+    public static final String TRADES_BY_USER = "tradesByUser";
+
+    /**
+     * Builder of every cache. Entries are weighed by the number of trades they hold, so the bound is on cached trades
+     * whatever mix of single trades and pages is cached, and statistics are recorded for the cache metrics.
+     */
+    @Bean
+    public Caffeine<Object, Object> caffeine(@Value("${cache.maximum-trades:200000}") long maximumTrades) {
+        return Caffeine.newBuilder()
+                .maximumWeight(maximumTrades)
+                .weigher((key, value) -> value instanceof Collection<?> trades ? Math.max(1, trades.size()) : 1)
+                .recordStats();
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.diogohmcruz.stockexchange.infrastructure.cache;
+
+import java.util.List;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.github.diogohmcruz.stockexchange.domain.model.Trade;
+import io.github.diogohmcruz.stockexchange.domain.repositories.TradeRepository;
+import io.github.diogohmcruz.stockexchange.domain.repositories.UserTradeRepository;
+import io.github.diogohmcruz.stockexchange.domain.service.TradeService;
+import io.github.diogohmcruz.stockexchange.infrastructure.persistence.TradesPersistedEvent;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Latest trades of each ticker and each user, the first page of every trade history request. An entry is evicted as
+ * soon as the write-behind stage commits a trade that belongs in it, rather than after a TTL. Loads are synchronized
+ * per key, so an eviction that races a load waits for it and removes what it loaded.
+ */
+@Component
+@RequiredArgsConstructor
+public class TradeHistoryCache {
+    private static final Limit LATEST = Limit.of(TradeService.MAX_TRADES_PER_PAGE);
+
+    private final TradeRepository tradeRepository;
+    private final UserTradeRepository userTradeRepository;
+    private final CacheManager cacheManager;
+
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.TRADES_BY_TICKER, sync = true)
+    public List<Trade> latestByTicker(String ticker) {
+        return List.copyOf(tradeRepository.findLatestByTicker(ticker, LATEST));
+    }
+
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.TRADES_BY_USER, sync = true)
+    public List<Trade> latestByUser(String userId) {
+        return List.copyOf(userTradeRepository.findLatestByUser(userId, LATEST));
+    }
+
+    @EventListener
+    public void onTradesPersisted(TradesPersistedEvent event) {
+        var byTicker = cacheManager.getCache(CacheConfig.TRADES_BY_TICKER);
+        var byUser = cacheManager.getCache(CacheConfig.TRADES_BY_USER);
+        event.tickers().forEach(byTicker::evict);
+        event.userIds().forEach(byUser::evict);
+    }
+}
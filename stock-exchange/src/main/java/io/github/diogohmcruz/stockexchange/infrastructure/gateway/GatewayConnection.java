@@ -0,0 +1,159 @@
+package io.github.diogohmcruz.stockexchange.infrastructure.gateway;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One client connection to the gateway. Reads happen on the selector thread only. Messages to the client are encoded
+ * straight into the connection's outbound buffer by whichever thread produces them, usually a matching thread, and the
+ * selector thread writes the buffer out. A client that lets the buffer fill up is disconnected rather than allowed to
+ * hold up the engine.
+ */
+final class GatewayConnection {
+    @Getter
+    private final SocketChannel channel;
+
+    @Getter
+    private final ByteBuffer readBuffer;
+
+    private final ByteBuffer writeBuffer;
+    private final Consumer<GatewayConnection> flushRequester;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    @Getter
+    @Setter
+    private volatile GatewaySession session;
+
+    private boolean overflowed;
+    private boolean closeAfterFlush;
+    private boolean closed;
+
+    GatewayConnection(SocketChannel channel, int bufferSize, Consumer<GatewayConnection> flushRequester) {
+        this.channel = channel;
+        this.readBuffer = ByteBuffer.allocateDirect(bufferSize).order(GatewayProtocol.BYTE_ORDER);
+        this.writeBuffer = ByteBuffer.allocateDirect(bufferSize).order(GatewayProtocol.BYTE_ORDER);
+        this.flushRequester = flushRequester;
+    }
+
+    synchronized void sendLogon(String userId, long lastSequence) {
+        if (reserve(GatewayProtocol.LOGON_LENGTH)) {
+            GatewayProtocol.putLogon(writeBuffer, nextSequence(), userId, lastSequence);
+            requestFlush();
+        }
+    }
+
+    synchronized void sendAck(long clientOrderId, UUID orderId, Instant timestamp) {
+        if (reserve(GatewayProtocol.ACK_LENGTH)) {
+            GatewayProtocol.putAck(writeBuffer, nextSequence(), clientOrderId, orderId, timestamp);
+            requestFlush();
+        }
+    }
+
+    synchronized void sendCancel(long clientOrderId, UUID orderId) {
+        if (reserve(GatewayProtocol.CANCEL_LENGTH)) {
+            GatewayProtocol.putCancel(writeBuffer, nextSequence(), clientOrderId, orderId);
+            requestFlush();
+        }
+    }
+
+    synchronized void sendFill(
+            long clientOrderId,
+            UUID orderId,
+            UUID tradeId,
+            long price,
+            int quantity,
+            int remainingQuantity,
+            Instant timestamp) {
+        if (reserve(GatewayProtocol.FILL_LENGTH)) {
+            GatewayProtocol.putFill(
+                    writeBuffer,
+                    nextSequence(),
+                    clientOrderId,
+                    orderId,
+                    tradeId,
+                    price,
+                    quantity,
+                    remainingQuantity,
+                    timestamp);
+            requestFlush();
+        }
+    }
+
+    synchronized void sendReject(long clientOrderId, long rejectedSequence, byte reason) {
+        if (reserve(GatewayProtocol.REJECT_LENGTH)) {
+            GatewayProtocol.putReject(writeBuffer, nextSequence(), clientOrderId, rejectedSequence, reason);
+            requestFlush();
+        }
+    }
+
+    /** Disconnects the client once everything sent to it so far has been written. */
+    synchronized void closeAfterFlush() {
+        closeAfterFlush = true;
+        requestFlush();
+    }
+
+    /**
+     * Writes out as much of the outbound buffer as the socket takes. Only called by the selector thread.
+     *
+     * @return what is left to do with the connection
+     */
+    synchronized Flush flush() throws IOException {
+        flushRequested.set(false);
+        if (overflowed) {
+            return Flush.CLOSE;
+        }
+        writeBuffer.flip();
+        try {
+            channel.write(writeBuffer);
+            if (writeBuffer.hasRemaining()) {
+                return Flush.PENDING;
+            }
+            return closeAfterFlush ? Flush.CLOSE : Flush.DONE;
+        } finally {
+            writeBuffer.compact();
+        }
+    }
+
+    /** @return whether the connection was still open */
+    synchronized boolean markClosed() {
+        var wasOpen = !closed;
+        closed = true;
+        return wasOpen;
+    }
+
+    private boolean reserve(int length) {
+        if (closed || overflowed) {
+            return false;
+        }
+        if (writeBuffer.remaining() < length) {
+            overflowed = true;
+            requestFlush();
+            return false;
+        }
+        return true;
+    }
+
+    private long nextSequence() {
+        return session == null ? 0 : session.nextOutboundSequence();
+    }
+
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            flushRequester.accept(this);
+        }
+    }
+
+    enum Flush {
+        DONE,
+        PENDING,
+        CLOSE
+    }
+}
@@ -0,0 +1,86 @@
+package io.github.diogohmcruz.stockexchange.infrastructure.gateway;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import io.github.diogohmcruz.stockexchange.domain.engine.EngineListener;
+import io.github.diogohmcruz.stockexchange.domain.model.Order;
+import io.github.diogohmcruz.stockexchange.domain.model.Trade;
+
+/**
+ * Turns engine events about orders entered through the gateway into execution reports for the session that entered
+ * them. Reports are encoded on the matching thread as the events happen, so a session sees an order's ack before its
+ * fills. Orders are forgotten once they are filled, cancelled or expired; reports for a user who is disconnected at the
+ * time are dropped, which the client notices as a gap in the sequence numbers.
+ */
+@Component
+@ConditionalOnProperty(prefix = "gateway", name = "enabled", havingValue = "true")
+public class GatewayOrderRouter implements EngineListener {
+    private final Map<UUID, Route> routes = new ConcurrentHashMap<>();
+
+    void register(UUID orderId, GatewaySession session, long clientOrderId) {
+        routes.put(orderId, new Route(session, clientOrderId));
+    }
+
+    /** Forgets an order registered on admission that the engine then refused, so it never gets any event. */
+    void unregister(UUID orderId) {
+        routes.remove(orderId);
+    }
+
+    /** @return orders entered through the gateway that may still get execution reports */
+    public int getRouteCount() {
+        return routes.size();
+    }
+
+    @Override
+    public void onOrderAccepted(Order order) {
+        var route = routes.get(order.getId());
+        var connection = route == null ? null : route.session().connection();
+        if (connection != null) {
+            connection.sendAck(route.clientOrderId(), order.getId(), order.getTimestamp());
+        }
+    }
+
+    @Override
+    public void onOrderUpdated(Order order) {
+        if (!order.isActive() && !order.isFilled()) {
+            routes.remove(order.getId());
+        }
+    }
+
+    @Override
+    public void onOrderExpired(Order order) {
+        var route = routes.remove(order.getId());
+        var connection = route == null ? null : route.session().connection();
+        if (connection != null) {
+            connection.sendCancel(route.clientOrderId(), order.getId());
+        }
+    }
+
+    @Override
+    public void onTrade(Trade trade) {
+        report(trade.getBuyOrder(), trade);
+        report(trade.getSellOrder(), trade);
+    }
+
+    private void report(Order order, Trade trade) {
+        var route = order.isFilled() ? routes.remove(order.getId()) : routes.get(order.getId());
+        var connection = route == null ? null : route.session().connection();
+        if (connection != null) {
+            connection.sendFill(
+                    route.clientOrderId(),
+                    order.getId(),
+                    trade.getId(),
+                    GatewayProtocol.fromPrice(trade.getPrice()),
+                    trade.getQuantity(),
+                    order.getRemainingQuantity(),
+                    trade.getTimestamp());
+        }
+    }
+
+    private record Route(GatewaySession session, long clientOrderId) {}
+}
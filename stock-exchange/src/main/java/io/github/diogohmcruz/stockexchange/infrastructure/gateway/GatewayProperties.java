@@ -0,0 +1,9 @@
+package io.github.diogohmcruz.stockexchange.infrastructure.gateway;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties(prefix = "gateway")
+public record GatewayProperties(
+        boolean enabled, @DefaultValue("9100") int port, @DefaultValue("64KB") DataSize bufferSize) {}
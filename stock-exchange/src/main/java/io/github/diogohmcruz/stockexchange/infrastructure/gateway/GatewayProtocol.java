@@ -0,0 +1,260 @@
+package io.github.diogohmcruz.stockexchange.infrastructure.gateway;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Fixed-layout binary messages of the order-entry gateway. Every message is little-endian and starts with the same
+ * header, followed by the fields of its type at fixed offsets:
+ *
+ * <pre>
+ * header     0 length:u16  2 type:u8  3 reserved:u8  4 sequence:i64                                         12 bytes
+ * LOGON     12 userId:ascii[16]  28 lastSequence:i64                                                         36 bytes
+ * NEW_ORDER 12 clientOrderId:i64  20 side:u8  21 reserved:u8[3]  24 ticker:ascii[8]  32 price:i64
+ *           40 quantity:i32  44 ttlSeconds:i32                                                               48 bytes
+ * CANCEL    12 clientOrderId:i64  20 orderId:uuid                                                            36 bytes
+ * ACK       12 clientOrderId:i64  20 orderId:uuid  36 timestamp:i64                                          44 bytes
+ * FILL      12 clientOrderId:i64  20 orderId:uuid  36 tradeId:uuid  52 price:i64  60 quantity:i32
+ *           64 remainingQuantity:i32  68 timestamp:i64                                                       76 bytes
+ * REJECT    12 clientOrderId:i64  20 rejectedSequence:i64  28 reason:u8  29 reserved:u8[3]                   32 bytes
+ * </pre>
+ *
+ * Prices are fixed-point with {@value #PRICE_SCALE} decimals, timestamps are nanoseconds since the epoch, UUIDs are
+ * their most then least significant bits, and strings are ASCII padded with zeros. A side is 0 for buy and 1 for sell,
+ * and a TTL of 0 takes the default expiration. Sequence numbers count each direction of a session separately.
+ *
+ * <p>The layout is the gateway's public contract, so the codec is public as well: a Java client builds and reads its
+ * messages with the same code as the server.
+ */
+public final class GatewayProtocol {
+    public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+    public static final int PRICE_SCALE = 8;
+
+    public static final byte LOGON = 1;
+    public static final byte NEW_ORDER = 2;
+    public static final byte CANCEL = 3;
+    public static final byte ACK = 4;
+    public static final byte FILL = 5;
+    public static final byte REJECT = 6;
+
+    public static final byte REASON_INVALID_ORDER = 1;
+    public static final byte REASON_UNKNOWN_ORDER = 2;
+    public static final byte REASON_SEQUENCE_GAP = 3;
+    public static final byte REASON_NOT_LOGGED_ON = 4;
+    public static final byte REASON_UNKNOWN_MESSAGE = 5;
+    public static final byte REASON_ALREADY_LOGGED_ON = 6;
+    public static final byte REASON_THROTTLED = 7;
+    /** The engine did not answer in time or failed; the request may or may not have taken effect. */
+    public static final byte REASON_ENGINE_UNAVAILABLE = 8;
+
+    public static final byte REASON_INVALID_CREDENTIALS = 9;
+
+    public static final int HEADER_LENGTH = 12;
+    public static final int LOGON_LENGTH = 36;
+    public static final int NEW_ORDER_LENGTH = 48;
+    public static final int CANCEL_LENGTH = 36;
+    public static final int ACK_LENGTH = 44;
+    public static final int FILL_LENGTH = 76;
+    public static final int REJECT_LENGTH = 32;
+    public static final int MAX_LENGTH = FILL_LENGTH;
+
+    public static final int USER_ID_LENGTH = 16;
+    public static final int TICKER_LENGTH = 8;
+
+    private static final int LENGTH = 0;
+    private static final int TYPE = 2;
+    private static final int SEQUENCE = 4;
+    private static final int CLIENT_ORDER_ID = 12;
+
+    private GatewayProtocol() {}
+
+    /** @return the expected length of a message type, or 0 when the type is unknown */
+    public static int lengthOf(byte type) {
+        return switch (type) {
+            case LOGON -> LOGON_LENGTH;
+            case NEW_ORDER -> NEW_ORDER_LENGTH;
+            case CANCEL -> CANCEL_LENGTH;
+            case ACK -> ACK_LENGTH;
+            case FILL -> FILL_LENGTH;
+            case REJECT -> REJECT_LENGTH;
+            default -> 0;
+        };
+    }
+
+    public static int length(ByteBuffer buffer, int offset) {
+        return Short.toUnsignedInt(buffer.getShort(offset + LENGTH));
+    }
+
+    public static byte type(ByteBuffer buffer, int offset) {
+        return buffer.get(offset + TYPE);
+    }
+
+    public static long sequence(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset + SEQUENCE);
+    }
+
+    public static byte reason(ByteBuffer buffer, int offset) {
+        return buffer.get(offset + 28);
+    }
+
+    public static long clientOrderId(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset + CLIENT_ORDER_ID);
+    }
+
+    public static String userId(ByteBuffer buffer, int offset) {
+        return ascii(buffer, offset + 12, USER_ID_LENGTH);
+    }
+
+    public static long lastSequence(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset + 28);
+    }
+
+    public static byte side(ByteBuffer buffer, int offset) {
+        return buffer.get(offset + 20);
+    }
+
+    /** The ticker's eight bytes as one number, so it can be looked up without decoding it. */
+    public static long tickerKey(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset + 24);
+    }
+
+    public static String ticker(ByteBuffer buffer, int offset) {
+        return ascii(buffer, offset + 24, TICKER_LENGTH);
+    }
+
+    public static long price(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset + 32);
+    }
+
+    public static int quantity(ByteBuffer buffer, int offset) {
+        return buffer.getInt(offset + 40);
+    }
+
+    public static int ttlSeconds(ByteBuffer buffer, int offset) {
+        return buffer.getInt(offset + 44);
+    }
+
+    public static UUID orderId(ByteBuffer buffer, int offset) {
+        return new UUID(buffer.getLong(offset + 20), buffer.getLong(offset + 28));
+    }
+
+    public static BigDecimal toPrice(long fixedPoint) {
+        var price = BigDecimal.valueOf(fixedPoint, PRICE_SCALE).stripTrailingZeros();
+        return price.scale() < 0 ? price.setScale(0) : price;
+    }
+
+    public static long fromPrice(BigDecimal price) {
+        return price.movePointRight(PRICE_SCALE).longValueExact();
+    }
+
+    public static void putLogon(ByteBuffer buffer, long sequence, String userId, long lastSequence) {
+        var offset = putHeader(buffer, LOGON_LENGTH, LOGON, sequence);
+        putAscii(buffer, offset + 12, userId, USER_ID_LENGTH);
+        buffer.putLong(offset + 28, lastSequence);
+        buffer.position(offset + LOGON_LENGTH);
+    }
+
+    public static void putNewOrder(
+            ByteBuffer buffer,
+            long sequence,
+            long clientOrderId,
+            byte side,
+            String ticker,
+            long price,
+            int quantity,
+            int ttlSeconds) {
+        var offset = putHeader(buffer, NEW_ORDER_LENGTH, NEW_ORDER, sequence);
+        buffer.putLong(offset + CLIENT_ORDER_ID, clientOrderId);
+        buffer.put(offset + 20, side);
+        buffer.put(offset + 21, (byte) 0).put(offset + 22, (byte) 0).put(offset + 23, (byte) 0);
+        putAscii(buffer, offset + 24, ticker, TICKER_LENGTH);
+        buffer.putLong(offset + 32, price);
+        buffer.putInt(offset + 40, quantity);
+        buffer.putInt(offset + 44, ttlSeconds);
+        buffer.position(offset + NEW_ORDER_LENGTH);
+    }
+
+    public static void putCancel(ByteBuffer buffer, long sequence, long clientOrderId, UUID orderId) {
+        var offset = putHeader(buffer, CANCEL_LENGTH, CANCEL, sequence);
+        buffer.putLong(offset + CLIENT_ORDER_ID, clientOrderId);
+        putUuid(buffer, offset + 20, orderId);
+        buffer.position(offset + CANCEL_LENGTH);
+    }
+
+    public static void putAck(ByteBuffer buffer, long sequence, long clientOrderId, UUID orderId, Instant timestamp) {
+        var offset = putHeader(buffer, ACK_LENGTH, ACK, sequence);
+        buffer.putLong(offset + CLIENT_ORDER_ID, clientOrderId);
+        putUuid(buffer, offset + 20, orderId);
+        buffer.putLong(offset + 36, toNanos(timestamp));
+        buffer.position(offset + ACK_LENGTH);
+    }
+
+    public static void putFill(
+            ByteBuffer buffer,
+            long sequence,
+            long clientOrderId,
+            UUID orderId,
+            UUID tradeId,
+            long price,
+            int quantity,
+            int remainingQuantity,
+            Instant timestamp) {
+        var offset = putHeader(buffer, FILL_LENGTH, FILL, sequence);
+        buffer.putLong(offset + CLIENT_ORDER_ID, clientOrderId);
+        putUuid(buffer, offset + 20, orderId);
+        putUuid(buffer, offset + 36, tradeId);
+        buffer.putLong(offset + 52, price);
+        buffer.putInt(offset + 60, quantity);
+        buffer.putInt(offset + 64, remainingQuantity);
+        buffer.putLong(offset + 68, toNanos(timestamp));
+        buffer.position(offset + FILL_LENGTH);
+    }
+
+    public static void putReject(
+            ByteBuffer buffer, long sequence, long clientOrderId, long rejectedSequence, byte reason) {
+        var offset = putHeader(buffer, REJECT_LENGTH, REJECT, sequence);
+        buffer.putLong(offset + CLIENT_ORDER_ID, clientOrderId);
+        buffer.putLong(offset + 20, rejectedSequence);
+        buffer.put(offset + 28, reason);
+        buffer.put(offset + 29, (byte) 0).put(offset + 30, (byte) 0).put(offset + 31, (byte) 0);
+        buffer.position(offset + REJECT_LENGTH);
+    }
+
+    private static int putHeader(ByteBuffer buffer, int length, byte type, long sequence) {
+        var offset = buffer.position();
+        buffer.putShort(offset + LENGTH, (short) length);
+        buffer.put(offset + TYPE, type);
+        buffer.put(offset + TYPE + 1, (byte) 0);
+        buffer.putLong(offset + SEQUENCE, sequence);
+        return offset;
+    }
+
+    private static void putUuid(ByteBuffer buffer, int offset, UUID uuid) {
+        buffer.putLong(offset, uuid.getMostSignificantBits());
+        buffer.putLong(offset + 8, uuid.getLeastSignificantBits());
+    }
+
+    private static long toNanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    private static String ascii(ByteBuffer buffer, int offset, int maxLength) {
+        var length = 0;
+        while (length < maxLength && buffer.get(offset + length) != 0) {
+            length++;
+        }
+        var bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private static void putAscii(ByteBuffer buffer, int offset, String value, int maxLength) {
+        for (int i = 0; i < maxLength; i++) {
+            buffer.put(offset + i, i < value.length() ? (byte) value.charAt(i) : 0);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.diogohmcruz.stockexchange.infrastructure.gateway;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Gateway state of one user, kept across reconnects so a client can resume where it left off: the last inbound sequence
+ * number the gateway processed, and the sequence numbers of what it sent. At most one connection is logged on as the
+ * user at a time.
+ */
+@RequiredArgsConstructor
+final class GatewaySession {
+    @Getter
+    private final String userId;
+
+    private final AtomicLong outboundSequence = new AtomicLong();
+
+    /** Only touched by the gateway's selector thread. */
+    @Getter
+    private long lastInboundSequence;
+
+    private volatile GatewayConnection connection;
+
+    /** @return the connection logged on as this user, or {@code null} while the user is disconnected */
+    GatewayConnection connection() {
+        return connection;
+    }
+
+    synchronized boolean attach(GatewayConnection connection) {
+        if (this.connection != null) {
+            return false;
+        }
+        this.connection = connection;
+        return true;
+    }
+
+    synchronized void detach(GatewayConnection connection) {
+        if (this.connection == connection) {
+            this.connection = null;
+        }
+    }
+
+    long nextOutboundSequence() {
+        return outboundSequence.incrementAndGet();
+    }
+
+    /**
+     * Checks an inbound sequence number against the last one processed. Repeats of already processed messages, such as
+     * those resent after a reconnect, are to be ignored, and skipped numbers mean messages were lost.
+     */
+    Sequencing sequence(long sequence) {
+        if (sequence <= lastInboundSequence) {
+            return Sequencing.DUPLICATE;
+        }
+        if (sequence != lastInboundSequence + 1) {
+            return Sequencing.GAP;
+        }
+        lastInboundSequence = sequence;
+        return Sequencing.NEXT;
+    }
+
+    enum Sequencing {
+        NEXT,
+        DUPLICATE,
+        GAP
+    }
+}
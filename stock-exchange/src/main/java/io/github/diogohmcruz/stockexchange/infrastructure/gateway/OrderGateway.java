@@ -0,0 +1,357 @@
+package io.github.diogohmcruz.stockexchange.infrastructure.gateway;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import io.github.diogohmcruz.marketlibrary.domain.model.OrderType;
+import io.github.diogohmcruz.marketlibrary.infrastructure.SimpleThreadFactory;
+import io.github.diogohmcruz.stockexchange.domain.engine.EngineOverloadedException;
+import io.github.diogohmcruz.stockexchange.domain.model.Order;
+import io.github.diogohmcruz.stockexchange.domain.service.OrderMatchingService;
+import io.github.diogohmcruz.stockexchange.domain.service.RateLimitExceededException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Binary order-entry gateway: a TCP alternative to the REST API for clients that care about latency. One selector
+ * thread serves every connection with non-blocking NIO. Messages are decoded in place from each connection's direct
+ * buffer into the {@link Order} handed to the engine, and execution reports are encoded by the
+ * {@link GatewayOrderRouter} as the engine produces them; see {@link GatewayProtocol} for the message layouts.
+ *
+ * <p>A connection must log on as a user before entering orders. Orders and cancels carry consecutive sequence numbers
+ * per user, so after a reconnect a client can resend anything past the last sequence number the logon reply reports and
+ * the gateway ignores what it already processed. A gap in the numbers is rejected and disconnects the client.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "gateway", name = "enabled", havingValue = "true")
+public class OrderGateway {
+    private static final Pattern TICKER = Pattern.compile("^[A-Z]{1,5}$");
+    private static final int MAX_CACHED_TICKERS = 10_000;
+    private static final int MIN_TTL_SECONDS = 60;
+
+    private final OrderMatchingService orderMatchingService;
+    private final GatewayOrderRouter router;
+    private final GatewayProperties properties;
+    private final Map<String, GatewaySession> sessions = new ConcurrentHashMap<>();
+    private final Queue<GatewayConnection> pendingFlushes = new ConcurrentLinkedQueue<>();
+    private final Map<Long, String> tickers = new HashMap<>();
+    private final Thread selectorThread;
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private volatile boolean running = true;
+
+    public OrderGateway(
+            OrderMatchingService orderMatchingService, GatewayOrderRouter router, GatewayProperties properties) {
+        this.orderMatchingService = orderMatchingService;
+        this.router = router;
+        this.properties = properties;
+        this.selectorThread = SimpleThreadFactory.builder()
+                .nameFormat("order-gateway-%d")
+                .build()
+                .newThread(this::run);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(properties.port()));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        selectorThread.start();
+        log.info("Order gateway listening on port {}", getPort());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        running = false;
+        selector.wakeup();
+        selectorThread.join(TimeUnit.SECONDS.toMillis(5));
+        for (var key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+    }
+
+    /** The port the gateway is bound to, which differs from the configured one when that was 0. */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                selector.select();
+                var keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    var key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    var connection = (GatewayConnection) key.attachment();
+                    if (key.isReadable()) {
+                        read(connection, key);
+                    }
+                    if (key.isValid() && key.isWritable()) {
+                        flush(connection, key);
+                    }
+                }
+                GatewayConnection connection;
+                while ((connection = pendingFlushes.poll()) != null) {
+                    var key = connection.getChannel().keyFor(selector);
+                    if (key != null && key.isValid()) {
+                        flush(connection, key);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                log.error("Order gateway selector failed", e);
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        var channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        var connection =
+                new GatewayConnection(channel, (int) properties.bufferSize().toBytes(), this::requestFlush);
+        channel.register(selector, SelectionKey.OP_READ, connection);
+        log.debug("Gateway connection from {}", channel.getRemoteAddress());
+    }
+
+    private void requestFlush(GatewayConnection connection) {
+        pendingFlushes.add(connection);
+        selector.wakeup();
+    }
+
+    private void read(GatewayConnection connection, SelectionKey key) {
+        var buffer = connection.getReadBuffer();
+        try {
+            if (connection.getChannel().read(buffer) < 0) {
+                close(connection, key);
+                return;
+            }
+        } catch (IOException e) {
+            log.debug("Gateway connection read failed", e);
+            close(connection, key);
+            return;
+        }
+        buffer.flip();
+        while (buffer.remaining() >= GatewayProtocol.HEADER_LENGTH) {
+            var offset = buffer.position();
+            var length = GatewayProtocol.length(buffer, offset);
+            if (length < GatewayProtocol.HEADER_LENGTH || length > buffer.capacity()) {
+                log.warn("Closing gateway connection that sent a message of {} bytes", length);
+                close(connection, key);
+                return;
+            }
+            if (buffer.remaining() < length) {
+                break;
+            }
+            handle(connection, buffer, offset, length);
+            buffer.position(offset + length);
+        }
+        buffer.compact();
+    }
+
+    private void flush(GatewayConnection connection, SelectionKey key) {
+        try {
+            switch (connection.flush()) {
+                case DONE -> key.interestOps(SelectionKey.OP_READ);
+                case PENDING -> key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                case CLOSE -> close(connection, key);
+            }
+        } catch (IOException e) {
+            log.debug("Gateway connection write failed", e);
+            close(connection, key);
+        }
+    }
+
+    private void close(GatewayConnection connection, SelectionKey key) {
+        if (!connection.markClosed()) {
+            return;
+        }
+        key.cancel();
+        var session = connection.getSession();
+        if (session != null) {
+            session.detach(connection);
+            log.info("Gateway session of {} disconnected", session.getUserId());
+        }
+        try {
+            connection.getChannel().close();
+        } catch (IOException e) {
+            log.debug("Failed to close gateway connection", e);
+        }
+    }
+
+    private void handle(GatewayConnection connection, ByteBuffer buffer, int offset, int length) {
+        var type = GatewayProtocol.type(buffer, offset);
+        var sequence = GatewayProtocol.sequence(buffer, offset);
+        var session = connection.getSession();
+        if (type == GatewayProtocol.LOGON && length == GatewayProtocol.LOGON_LENGTH) {
+            logon(connection, buffer, offset, sequence);
+            return;
+        }
+        if (session == null) {
+            connection.sendReject(0, sequence, GatewayProtocol.REASON_NOT_LOGGED_ON);
+            connection.closeAfterFlush();
+            return;
+        }
+        var clientOrderId = length >= GatewayProtocol.HEADER_LENGTH + Long.BYTES
+                ? GatewayProtocol.clientOrderId(buffer, offset)
+                : 0;
+        var known = (type == GatewayProtocol.NEW_ORDER || type == GatewayProtocol.CANCEL)
+                && length == GatewayProtocol.lengthOf(type);
+        if (!known) {
+            connection.sendReject(clientOrderId, sequence, GatewayProtocol.REASON_UNKNOWN_MESSAGE);
+            return;
+        }
+        switch (session.sequence(sequence)) {
+            case DUPLICATE -> log.debug("Ignoring message {} already processed for {}", sequence, session.getUserId());
+            case GAP -> {
+                log.warn(
+                        "Disconnecting {}: expected message {} but got {}",
+                        session.getUserId(),
+                        session.getLastInboundSequence() + 1,
+                        sequence);
+                connection.sendReject(clientOrderId, sequence, GatewayProtocol.REASON_SEQUENCE_GAP);
+                connection.closeAfterFlush();
+            }
+            case NEXT -> {
+                if (type == GatewayProtocol.NEW_ORDER) {
+                    newOrder(connection, session, buffer, offset, sequence, clientOrderId);
+                } else {
+                    cancel(connection, session, buffer, offset, sequence, clientOrderId);
+                }
+            }
+        }
+    }
+
+    private void logon(GatewayConnection connection, ByteBuffer buffer, int offset, long sequence) {
+        var userId = GatewayProtocol.userId(buffer, offset);
+        if (userId.isBlank()) {
+            connection.sendReject(0, sequence, GatewayProtocol.REASON_INVALID_CREDENTIALS);
+            connection.closeAfterFlush();
+            return;
+        }
+        if (connection.getSession() != null) {
+            connection.sendReject(0, sequence, GatewayProtocol.REASON_ALREADY_LOGGED_ON);
+            connection.closeAfterFlush();
+            return;
+        }
+        var session = sessions.computeIfAbsent(userId, GatewaySession::new);
+        if (!session.attach(connection)) {
+            connection.sendReject(0, sequence, GatewayProtocol.REASON_ALREADY_LOGGED_ON);
+            connection.closeAfterFlush();
+            return;
+        }
+        connection.setSession(session);
+        connection.sendLogon(userId, session.getLastInboundSequence());
+        log.info("Gateway session of {} logged on", userId);
+    }
+
+    private void newOrder(
+            GatewayConnection connection,
+            GatewaySession session,
+            ByteBuffer buffer,
+            int offset,
+            long sequence,
+            long clientOrderId) {
+        var side = GatewayProtocol.side(buffer, offset);
+        var ticker = ticker(buffer, offset);
+        var price = GatewayProtocol.price(buffer, offset);
+        var quantity = GatewayProtocol.quantity(buffer, offset);
+        var ttlSeconds = GatewayProtocol.ttlSeconds(buffer, offset);
+        if ((side != 0 && side != 1)
+                || ticker == null
+                || price <= 0
+                || quantity < 1
+                || (ttlSeconds != 0 && ttlSeconds < MIN_TTL_SECONDS)) {
+            connection.sendReject(clientOrderId, sequence, GatewayProtocol.REASON_INVALID_ORDER);
+            return;
+        }
+
+        var order = new Order();
+        order.setType(side == 0 ? OrderType.BUY : OrderType.SELL);
+        order.setTicker(ticker);
+        order.setPrice(GatewayProtocol.toPrice(price));
+        order.setQuantity(quantity);
+        order.setUserId(session.getUserId());
+        if (ttlSeconds > 0) {
+            order.setExpirationTime(order.getTimestamp().plusSeconds(ttlSeconds));
+        }
+        try {
+            orderMatchingService.submitOrder(
+                    order, admitted -> router.register(admitted.getId(), session, clientOrderId));
+        } catch (IllegalArgumentException e) {
+            log.debug("Rejected gateway order {} of {}: {}", clientOrderId, session.getUserId(), e.getMessage());
+            connection.sendReject(clientOrderId, sequence, GatewayProtocol.REASON_INVALID_ORDER);
+        } catch (RateLimitExceededException | EngineOverloadedException e) {
+            if (order.getId() != null) {
+                router.unregister(order.getId());
+            }
+            connection.sendReject(clientOrderId, sequence, GatewayProtocol.REASON_THROTTLED);
+        }
+    }
+
+    private void cancel(
+            GatewayConnection connection,
+            GatewaySession session,
+            ByteBuffer buffer,
+            int offset,
+            long sequence,
+            long clientOrderId) {
+        var orderId = GatewayProtocol.orderId(buffer, offset);
+        orderMatchingService.cancelOrderAsync(orderId, session.getUserId()).whenComplete((cancelled, error) -> {
+            if (error != null) {
+                log.warn("Cancel {} of {} did not complete: {}", clientOrderId, session.getUserId(), error.toString());
+                connection.sendReject(clientOrderId, sequence, GatewayProtocol.REASON_ENGINE_UNAVAILABLE);
+            } else if (cancelled) {
+                connection.sendCancel(clientOrderId, orderId);
+            } else {
+                connection.sendReject(clientOrderId, sequence, GatewayProtocol.REASON_UNKNOWN_ORDER);
+            }
+        });
+    }
+
+    /** Decodes a ticker once per distinct symbol; later orders for it look it up by its raw bytes. */
+    private String ticker(ByteBuffer buffer, int offset) {
+        var key = GatewayProtocol.tickerKey(buffer, offset);
+        var ticker = tickers.get(key);
+        if (ticker != null) {
+            return ticker;
+        }
+        ticker = GatewayProtocol.ticker(buffer, offset);
+        if (!TICKER.matcher(ticker).matches()) {
+            return null;
+        }
+        if (tickers.size() < MAX_CACHED_TICKERS) {
+            tickers.put(key, ticker);
+        }
+        return ticker;
+    }
+}
@@ -0,0 +1,11 @@
+package io.github.diogohmcruz.stockexchange.infrastructure.journal;
+
+/** When journal writes are forced from the page cache to the storage device. */
+public enum FsyncPolicy {
+    /** Never forced by the journal; the operating system writes pages back in its own time. */
+    NONE,
+    /** Forced once per Disruptor batch, amortising the flush over every event that arrived together. */
+    BATCH,
+    /** Forced after every event, so nothing acknowledged by the journal can be lost. */
+    EVENT
+}
@@ -0,0 +1,137 @@
+package io.github.diogohmcruz.stockexchange.infrastructure.journal;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+
+import io.github.diogohmcruz.marketlibrary.domain.model.OrderType;
+import io.github.diogohmcruz.stockexchange.domain.engine.EventType;
+import io.github.diogohmcruz.stockexchange.domain.engine.OrderEvent;
+import io.github.diogohmcruz.stockexchange.domain.model.Order;
+
+/**
+ * Binary layout of journalled events. A record body starts with the event type's ordinal followed by its fields in a
+ * fixed order; strings are length-prefixed UTF-8 and instants are epoch seconds plus nanoseconds.
+ *
+ * <p>Admission bounds tickers and user ids well below {@link #MAX_STRING_BYTES}; a longer string is refused before
+ * anything is written, so no record can ever carry a length prefix that does not match its bytes.
+ */
+final class JournalCodec {
+    static final int MAX_STRING_BYTES = 1024;
+
+    private static final OrderType[] ORDER_TYPES = OrderType.values();
+    private static final EventType[] EVENT_TYPES = EventType.values();
+
+    private JournalCodec() {}
+
+    static boolean isJournalled(EventType type) {
+        return type == EventType.NEW_ORDER || type == EventType.CANCEL_ORDER || type == EventType.TIMER;
+    }
+
+    static void encode(OrderEvent event, ByteBuffer buffer) {
+        buffer.put((byte) event.getType().ordinal());
+        switch (event.getType()) {
+            case NEW_ORDER -> {
+                var order = event.getOrder();
+                putUuid(buffer, order.getId());
+                buffer.put((byte) order.getType().ordinal());
+                putString(buffer, order.getTicker());
+                putDecimal(buffer, order.getPrice());
+                buffer.putInt(order.getQuantity());
+                putInstant(buffer, order.getTimestamp());
+                putInstant(buffer, order.getExpirationTime());
+                putString(buffer, order.getUserId());
+            }
+            case CANCEL_ORDER -> {
+                putUuid(buffer, event.getOrderId());
+                putString(buffer, event.getUserId());
+            }
+            case TIMER -> {
+                putInstant(buffer, event.getTime());
+                buffer.putInt(event.getShard());
+                buffer.putInt(event.getShardCount());
+            }
+            default -> throw new IllegalArgumentException("Event type " + event.getType() + " is not journalled");
+        }
+    }
+
+    static OrderEvent decode(ByteBuffer buffer) {
+        var event = new OrderEvent();
+        event.setType(EVENT_TYPES[buffer.get()]);
+        switch (event.getType()) {
+            case NEW_ORDER -> {
+                var order = new Order();
+                order.setId(getUuid(buffer));
+                order.setType(ORDER_TYPES[buffer.get()]);
+                order.setTicker(getString(buffer));
+                order.setPrice(getDecimal(buffer));
+                order.setQuantity(buffer.getInt());
+                order.setTimestamp(getInstant(buffer));
+                order.setExpirationTime(getInstant(buffer));
+                order.setUserId(getString(buffer));
+                event.setOrder(order);
+            }
+            case CANCEL_ORDER -> {
+                event.setOrderId(getUuid(buffer));
+                event.setUserId(getString(buffer));
+            }
+            case TIMER -> {
+                event.setTime(getInstant(buffer));
+                event.setShard(buffer.getInt());
+                event.setShardCount(buffer.getInt());
+            }
+            default -> throw new IllegalStateException("Unexpected journalled event type " + event.getType());
+        }
+        return event;
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID uuid) {
+        buffer.putLong(uuid.getMostSignificantBits());
+        buffer.putLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID getUuid(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_BYTES) {
+            throw new IllegalArgumentException(
+                    "Refusing to journal a string of " + bytes.length + " bytes, the limit is " + MAX_STRING_BYTES);
+        }
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        var bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putDecimal(ByteBuffer buffer, BigDecimal value) {
+        var unscaled = value.unscaledValue().toByteArray();
+        buffer.put((byte) unscaled.length);
+        buffer.put(unscaled);
+        buffer.putInt(value.scale());
+    }
+
+    private static BigDecimal getDecimal(ByteBuffer buffer) {
+        var unscaled = new byte[buffer.get()];
+        buffer.get(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), buffer.getInt());
+    }
+
+    private static void putInstant(ByteBuffer buffer, Instant instant) {
+        buffer.putLong(instant.getEpochSecond());
+        buffer.putInt(instant.getNano());
+    }
+
+    private static Instant getInstant(ByteBuffer buffer) {
+        return Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+    }
+}
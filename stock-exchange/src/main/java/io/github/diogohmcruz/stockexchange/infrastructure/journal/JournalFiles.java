@@ -0,0 +1,54 @@
+package io.github.diogohmcruz.stockexchange.infrastructure.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Naming of journal segments. Every engine start writes a new generation, so segments sort into the order they were
+ * written by generation, then shard, then segment number; shards of one generation hold disjoint tickers.
+ */
+final class JournalFiles {
+    private static final Pattern SEGMENT_NAME = Pattern.compile("(\\d{10})-(\\d{3})-(\\d{6})\\.journal");
+
+    private JournalFiles() {}
+
+    record Segment(Path path, long generation, int shard, int segment) {}
+
+    static String segmentName(long generation, int shard, int segment) {
+        return String.format("%010d-%03d-%06d.journal", generation, shard, segment);
+    }
+
+    static List<Segment> list(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (var files = Files.list(directory)) {
+            return files.map(JournalFiles::parse)
+                    .filter(Objects::nonNull)
+                    .sorted(Comparator.comparingLong(Segment::generation)
+                            .thenComparingInt(Segment::shard)
+                            .thenComparingInt(Segment::segment))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list journal directory " + directory, e);
+        }
+    }
+
+    private static Segment parse(Path path) {
+        var matcher = SEGMENT_NAME.matcher(path.getFileName().toString());
+        if (!matcher.matches()) {
+            return null;
+        }
+        return new Segment(
+                path,
+                Long.parseLong(matcher.group(1)),
+                Integer.parseInt(matcher.group(2)),
+                Integer.parseInt(matcher.group(3)));
+    }
+}
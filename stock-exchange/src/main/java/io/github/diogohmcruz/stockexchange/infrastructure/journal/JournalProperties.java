@@ -0,0 +1,14 @@
+package io.github.diogohmcruz.stockexchange.infrastructure.journal;
+
+import java.nio.file.Path;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties(prefix = "engine.journal")
+public record JournalProperties(
+        boolean enabled,
+        @DefaultValue("data/journal") Path directory,
+        @DefaultValue("64MB") DataSize segmentSize,
+        @DefaultValue("batch") FsyncPolicy fsync) {}
@@ -0,0 +1,106 @@
+package io.github.diogohmcruz.stockexchange.infrastructure.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+import io.github.diogohmcruz.stockexchange.domain.engine.JournalPosition;
+import io.github.diogohmcruz.stockexchange.domain.engine.OrderEvent;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Appends one shard's events to memory-mapped segment files. Every record is its body length and CRC32C followed by the
+ * body; a zero length marks the end of the written part of a segment, and a record that does not fit in the rest of a
+ * segment starts the next one.
+ *
+ * <p>Not thread-safe: each shard's journalling thread owns its writer.
+ */
+@Slf4j
+final class JournalWriter implements AutoCloseable {
+    static final int HEADER_BYTES = 2 * Integer.BYTES;
+    private static final int MAX_RECORD_BYTES = 1 << 17;
+
+    private final Path directory;
+    private final long generation;
+    private final int shard;
+    private final int segmentSize;
+    private final FsyncPolicy fsync;
+    private final ByteBuffer scratch = ByteBuffer.allocate(MAX_RECORD_BYTES);
+    private final CRC32C checksum = new CRC32C();
+    private int segment = -1;
+    private MappedByteBuffer buffer;
+    private int forcedPosition;
+
+    JournalWriter(Path directory, long generation, int shard, int segmentSize, FsyncPolicy fsync) {
+        this.directory = directory;
+        this.generation = generation;
+        this.shard = shard;
+        this.segmentSize = segmentSize;
+        this.fsync = fsync;
+        roll();
+    }
+
+    void append(OrderEvent event, boolean endOfBatch) {
+        scratch.clear();
+        JournalCodec.encode(event, scratch);
+        scratch.flip();
+        var length = scratch.remaining();
+        if (HEADER_BYTES + length > buffer.remaining()) {
+            if (HEADER_BYTES + length > segmentSize) {
+                throw new IllegalArgumentException("Journal record of " + length + " bytes exceeds the segment size");
+            }
+            roll();
+        }
+
+        checksum.reset();
+        checksum.update(scratch.duplicate());
+        buffer.putInt(length);
+        buffer.putInt((int) checksum.getValue());
+        buffer.put(scratch);
+
+        if (fsync == FsyncPolicy.EVENT || (fsync == FsyncPolicy.BATCH && endOfBatch)) {
+            force();
+        }
+    }
+
+    JournalPosition position() {
+        return new JournalPosition(generation, segment, buffer.position());
+    }
+
+    @Override
+    public void close() {
+        if (buffer != null) {
+            force();
+            buffer = null;
+        }
+    }
+
+    private void force() {
+        var position = buffer.position();
+        if (position > forcedPosition) {
+            buffer.force(forcedPosition, position - forcedPosition);
+            forcedPosition = position;
+        }
+    }
+
+    private void roll() {
+        if (buffer != null) {
+            force();
+        }
+        segment++;
+        var path = directory.resolve(JournalFiles.segmentName(generation, shard, segment));
+        try (var channel = FileChannel.open(
+                path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open journal segment " + path, e);
+        }
+        forcedPosition = 0;
+        log.debug("Shard {} journalling to {}", shard, path);
+    }
+}
@@ -0,0 +1,168 @@
+package io.github.diogohmcruz.stockexchange.infrastructure.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import io.github.diogohmcruz.stockexchange.domain.engine.BookSnapshot;
+import io.github.diogohmcruz.stockexchange.domain.engine.EngineJournal;
+import io.github.diogohmcruz.stockexchange.domain.engine.EventType;
+import io.github.diogohmcruz.stockexchange.domain.engine.JournalPosition;
+import io.github.diogohmcruz.stockexchange.domain.engine.OrderEvent;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only journal of engine input events in memory-mapped segment files, one writer per shard. Recovery restores
+ * the newest snapshot, then reads the segments written after it in write order, and stops a shard's log at the first
+ * torn or corrupt record, which can only be the tail that was being written when the process died.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "engine.journal", name = "enabled", havingValue = "true")
+public class MappedEventJournal implements EngineJournal {
+    private final JournalProperties properties;
+    private final SnapshotStore snapshotStore;
+    private JournalWriter[] writers = new JournalWriter[0];
+
+    public MappedEventJournal(JournalProperties properties, SnapshotStore snapshotStore) {
+        if (properties.segmentSize().toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Journal segment size cannot exceed 2GB");
+        }
+        this.properties = properties;
+        this.snapshotStore = snapshotStore;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void recover(Consumer<BookSnapshot> restore, Consumer<OrderEvent> replay) {
+        var positions = new HashMap<Integer, JournalPosition>();
+        var snapshotGeneration = -1L;
+        var snapshot = snapshotStore.loadLatest();
+        if (snapshot.isPresent()) {
+            for (var shard : snapshot.get()) {
+                shard.books().forEach(restore);
+                positions.put(shard.shard(), shard.position());
+                snapshotGeneration = shard.position().generation();
+            }
+            log.info("Restored snapshot taken at journal generation {}", snapshotGeneration);
+        }
+
+        var replayed = 0L;
+        long tornGeneration = -1;
+        int tornShard = -1;
+        for (var segment : JournalFiles.list(properties.directory())) {
+            if (segment.generation() < snapshotGeneration
+                    || (segment.generation() == tornGeneration && segment.shard() == tornShard)) {
+                continue;
+            }
+            var start = 0;
+            if (segment.generation() == snapshotGeneration) {
+                var position = positions.get(segment.shard());
+                if (position != null && segment.segment() < position.segment()) {
+                    continue;
+                }
+                if (position != null && segment.segment() == position.segment()) {
+                    start = position.offset();
+                }
+            }
+            var result = replaySegment(segment, start, replay);
+            replayed += result.events();
+            if (result.torn()) {
+                tornGeneration = segment.generation();
+                tornShard = segment.shard();
+            }
+        }
+        log.info("Replayed {} journalled events from {}", replayed, properties.directory());
+    }
+
+    @Override
+    public void open(int shardCount) {
+        try {
+            Files.createDirectories(properties.directory());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create journal directory " + properties.directory(), e);
+        }
+        var generation = JournalFiles.list(properties.directory()).stream()
+                        .mapToLong(JournalFiles.Segment::generation)
+                        .max()
+                        .orElse(-1)
+                + 1;
+        writers = new JournalWriter[shardCount];
+        for (int shard = 0; shard < shardCount; shard++) {
+            writers[shard] = new JournalWriter(
+                    properties.directory(),
+                    generation,
+                    shard,
+                    (int) properties.segmentSize().toBytes(),
+                    properties.fsync());
+        }
+        log.info(
+                "Journalling generation {} to {} with fsync policy {}",
+                generation,
+                properties.directory(),
+                properties.fsync());
+    }
+
+    @Override
+    public void append(int shard, OrderEvent event, boolean endOfBatch) {
+        if (JournalCodec.isJournalled(event.getType())) {
+            writers[shard].append(event, endOfBatch);
+        } else if (event.getType() == EventType.SNAPSHOT) {
+            event.setJournalPosition(writers[shard].position());
+        }
+    }
+
+    @Override
+    public void close() {
+        for (var writer : writers) {
+            writer.close();
+        }
+    }
+
+    private static SegmentReplay replaySegment(JournalFiles.Segment segment, int start, Consumer<OrderEvent> consumer) {
+        try (var channel = FileChannel.open(segment.path(), StandardOpenOption.READ)) {
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.position(start);
+            var checksum = new CRC32C();
+            var count = 0L;
+            while (buffer.remaining() >= JournalWriter.HEADER_BYTES) {
+                var length = buffer.getInt();
+                var expectedChecksum = buffer.getInt();
+                if (length == 0) {
+                    return new SegmentReplay(count, false);
+                }
+                if (length < 0 || length > buffer.remaining()) {
+                    log.warn("Torn journal record at {} of {}", buffer.position(), segment.path());
+                    return new SegmentReplay(count, true);
+                }
+                var body = buffer.slice(buffer.position(), length);
+                checksum.reset();
+                checksum.update(body.duplicate());
+                if ((int) checksum.getValue() != expectedChecksum) {
+                    log.warn("Corrupt journal record at {} of {}", buffer.position(), segment.path());
+                    return new SegmentReplay(count, true);
+                }
+                consumer.accept(JournalCodec.decode(body));
+                buffer.position(buffer.position() + length);
+                count++;
+            }
+            return new SegmentReplay(count, false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read journal segment " + segment.path(), e);
+        }
+    }
+
+    private record SegmentReplay(long events, boolean torn) {}
+}
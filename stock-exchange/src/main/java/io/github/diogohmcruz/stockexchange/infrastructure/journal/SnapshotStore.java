@@ -0,0 +1,263 @@
+package io.github.diogohmcruz.stockexchange.infrastructure.journal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32C;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import io.github.diogohmcruz.marketlibrary.domain.model.OrderType;
+import io.github.diogohmcruz.stockexchange.domain.engine.BookSnapshot;
+import io.github.diogohmcruz.stockexchange.domain.engine.JournalPosition;
+import io.github.diogohmcruz.stockexchange.domain.engine.ShardSnapshot;
+import io.github.diogohmcruz.stockexchange.domain.model.Order;
+import io.github.diogohmcruz.stockexchange.domain.model.Position;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Binary book snapshots next to the journal, one file per shard. A snapshot only counts once every shard's file is in
+ * place, each file is checksummed as a whole and only becomes visible through an atomic rename, so a crash while
+ * writing leaves the previous snapshot in charge.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "engine.journal", name = "enabled", havingValue = "true")
+public class SnapshotStore {
+    private static final int MAGIC = 0x534E4150;
+    private static final int FORMAT_VERSION = 2;
+    private static final int FIRST_FORMAT_VERSION = 1;
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("snapshot-(\\d{12})-(\\d{3})\\.snap");
+    private static final OrderType[] ORDER_TYPES = OrderType.values();
+
+    private final Path directory;
+    private long lastSnapshotId = -1;
+
+    public SnapshotStore(JournalProperties properties) {
+        this.directory = properties.directory();
+    }
+
+    public synchronized void write(List<ShardSnapshot> shards) {
+        if (lastSnapshotId < 0) {
+            var existing = list();
+            lastSnapshotId = existing.isEmpty() ? 0 : existing.lastKey();
+        }
+        var snapshotId = ++lastSnapshotId;
+        try {
+            Files.createDirectories(directory);
+            for (var shard : shards) {
+                var path = directory.resolve(fileName(snapshotId, shard.shard()));
+                var temporary = path.resolveSibling(path.getFileName() + ".tmp");
+                try (var channel = FileChannel.open(
+                        temporary,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.WRITE)) {
+                    var bytes = ByteBuffer.wrap(encode(snapshotId, shards.size(), shard));
+                    while (bytes.hasRemaining()) {
+                        channel.write(bytes);
+                    }
+                    channel.force(true);
+                }
+                Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write snapshot " + snapshotId, e);
+        }
+        deleteOlderThan(snapshotId);
+        log.info(
+                "Wrote snapshot {} of {} books",
+                snapshotId,
+                shards.stream().mapToInt(shard -> shard.books().size()).sum());
+    }
+
+    /** The newest snapshot with a readable file for every shard, if there is one. */
+    public Optional<List<ShardSnapshot>> loadLatest() {
+        for (var entry : list().descendingMap().entrySet()) {
+            try {
+                var shards = new ArrayList<ShardSnapshot>();
+                var shardCount = -1;
+                for (var path : entry.getValue()) {
+                    var decoded = decode(Files.readAllBytes(path));
+                    shardCount = decoded.shardCount();
+                    shards.add(decoded.snapshot());
+                }
+                if (shards.size() == shardCount) {
+                    shards.sort(Comparator.comparingInt(ShardSnapshot::shard));
+                    return Optional.of(shards);
+                }
+                log.warn("Snapshot {} is incomplete, falling back to an older one", entry.getKey());
+            } catch (IOException | RuntimeException e) {
+                log.warn("Snapshot {} is unreadable, falling back to an older one", entry.getKey(), e);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private TreeMap<Long, List<Path>> list() {
+        var snapshots = new TreeMap<Long, List<Path>>();
+        if (!Files.isDirectory(directory)) {
+            return snapshots;
+        }
+        try (var files = Files.list(directory)) {
+            files.forEach(path -> {
+                var matcher = SNAPSHOT_NAME.matcher(path.getFileName().toString());
+                if (matcher.matches()) {
+                    snapshots
+                            .computeIfAbsent(Long.parseLong(matcher.group(1)), id -> new ArrayList<>())
+                            .add(path);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list snapshot directory " + directory, e);
+        }
+        return snapshots;
+    }
+
+    private void deleteOlderThan(long snapshotId) {
+        list().headMap(snapshotId).values().stream().flatMap(List::stream).forEach(path -> {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.warn("Failed to delete old snapshot file {}", path, e);
+            }
+        });
+    }
+
+    private static String fileName(long snapshotId, int shard) {
+        return String.format("snapshot-%012d-%03d.snap", snapshotId, shard);
+    }
+
+    private static byte[] encode(long snapshotId, int shardCount, ShardSnapshot shard) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        var out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(snapshotId);
+        out.writeInt(shardCount);
+        out.writeInt(shard.shard());
+        out.writeLong(shard.position().generation());
+        out.writeInt(shard.position().segment());
+        out.writeInt(shard.position().offset());
+        out.writeInt(shard.books().size());
+        for (var book : shard.books()) {
+            out.writeUTF(book.ticker());
+            out.writeLong(book.lastTradePriceTicks());
+            out.writeInt(book.orders().size());
+            for (var order : book.orders()) {
+                out.writeLong(order.getId().getMostSignificantBits());
+                out.writeLong(order.getId().getLeastSignificantBits());
+                out.writeByte(order.getType().ordinal());
+                writeDecimal(out, order.getPrice());
+                out.writeInt(order.getQuantity());
+                out.writeInt(order.getRemainingQuantity());
+                writeInstant(out, order.getTimestamp());
+                writeInstant(out, order.getExpirationTime());
+                out.writeUTF(order.getUserId());
+            }
+            out.writeInt(book.positions().size());
+            for (var position : book.positions()) {
+                out.writeUTF(position.userId());
+                out.writeLong(position.quantity());
+                writeDecimal(out, position.costBasis());
+                writeDecimal(out, position.realizedPnl());
+            }
+        }
+        var checksum = new CRC32C();
+        checksum.update(bytes.toByteArray());
+        out.writeInt((int) checksum.getValue());
+        return bytes.toByteArray();
+    }
+
+    private static DecodedSnapshot decode(byte[] bytes) throws IOException {
+        var checksum = new CRC32C();
+        checksum.update(bytes, 0, bytes.length - Integer.BYTES);
+        if ((int) checksum.getValue()
+                != ByteBuffer.wrap(bytes, bytes.length - Integer.BYTES, Integer.BYTES)
+                        .getInt()) {
+            throw new IOException("Snapshot checksum mismatch");
+        }
+        var in = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a snapshot file");
+        }
+        var formatVersion = in.readInt();
+        if (formatVersion < FIRST_FORMAT_VERSION || formatVersion > FORMAT_VERSION) {
+            throw new IOException("Unsupported snapshot format " + formatVersion);
+        }
+        in.readLong();
+        var shardCount = in.readInt();
+        var shard = in.readInt();
+        var position = new JournalPosition(in.readLong(), in.readInt(), in.readInt());
+        var books = new ArrayList<BookSnapshot>();
+        for (int book = in.readInt(); book > 0; book--) {
+            var ticker = in.readUTF();
+            var lastTradePriceTicks = in.readLong();
+            var orders = new ArrayList<Order>();
+            for (int count = in.readInt(); count > 0; count--) {
+                var order = new Order();
+                order.setId(new UUID(in.readLong(), in.readLong()));
+                order.setType(ORDER_TYPES[in.readByte()]);
+                order.setTicker(ticker);
+                order.setPrice(readDecimal(in));
+                order.setQuantity(in.readInt());
+                order.setRemainingQuantity(in.readInt());
+                order.setTimestamp(readInstant(in));
+                order.setExpirationTime(readInstant(in));
+                order.setUserId(in.readUTF());
+                orders.add(order);
+            }
+            var positions = new ArrayList<Position>();
+            // snapshots of the first format did not carry positions
+            for (int count = formatVersion > FIRST_FORMAT_VERSION ? in.readInt() : 0; count > 0; count--) {
+                positions.add(new Position(in.readUTF(), ticker, in.readLong(), readDecimal(in), readDecimal(in)));
+            }
+            books.add(new BookSnapshot(ticker, lastTradePriceTicks, orders, positions));
+        }
+        return new DecodedSnapshot(shardCount, new ShardSnapshot(shard, position, books));
+    }
+
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        var unscaled = value.unscaledValue().toByteArray();
+        out.writeByte(unscaled.length);
+        out.write(unscaled);
+        out.writeInt(value.scale());
+    }
+
+    private static BigDecimal readDecimal(DataInputStream in) throws IOException {
+        var unscaled = new byte[in.readUnsignedByte()];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), in.readInt());
+    }
+
+    private static void writeInstant(DataOutputStream out, Instant instant) throws IOException {
+        out.writeLong(instant.getEpochSecond());
+        out.writeInt(instant.getNano());
+    }
+
+    private static Instant readInstant(DataInputStream in) throws IOException {
+        return Instant.ofEpochSecond(in.readLong(), in.readInt());
+    }
+
+    private record DecodedSnapshot(int shardCount, ShardSnapshot snapshot) {}
+}
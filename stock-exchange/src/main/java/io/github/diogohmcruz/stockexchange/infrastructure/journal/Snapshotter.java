@@ -0,0 +1,33 @@
+package io.github.diogohmcruz.stockexchange.infrastructure.journal;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.github.diogohmcruz.stockexchange.domain.service.OrderMatchingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Periodically snapshots the books so that recovery only replays the journal written since. The matching threads only
+ * copy their books; encoding and writing the files happens here, on the scheduler thread.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "engine.journal", name = "enabled", havingValue = "true")
+public class Snapshotter {
+    private final OrderMatchingService orderMatchingService;
+    private final SnapshotStore snapshotStore;
+
+    @Scheduled(
+            initialDelayString = "${engine.journal.snapshot-interval:5m}",
+            fixedDelayString = "${engine.journal.snapshot-interval:5m}")
+    public void takeSnapshot() {
+        try {
+            snapshotStore.write(orderMatchingService.snapshot());
+        } catch (RuntimeException e) {
+            log.error("Failed to take a snapshot", e);
+        }
+    }
+}
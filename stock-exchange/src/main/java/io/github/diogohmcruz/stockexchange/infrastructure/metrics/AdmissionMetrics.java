@@ -0,0 +1,44 @@
+package io.github.diogohmcruz.stockexchange.infrastructure.metrics;
+
+import org.springframework.stereotype.Component;
+
+import io.github.diogohmcruz.stockexchange.domain.service.OrderMatchingService;
+import io.github.diogohmcruz.stockexchange.domain.service.UserRateLimiter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Publishes how full the matching shards are and how many orders admission control turned away. The values are read
+ * from the engine and the rate limiter when the registry is scraped, so admission itself never touches a meter.
+ */
+@Component
+@RequiredArgsConstructor
+public class AdmissionMetrics implements MeterBinder {
+    private final OrderMatchingService orderMatchingService;
+    private final UserRateLimiter rateLimiter;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (int shard = 0; shard < orderMatchingService.getShardCount(); shard++) {
+            var shardIndex = shard;
+            Gauge.builder("engine.queue.depth", () -> orderMatchingService.queueDepth(shardIndex))
+                    .description("Events published to a matching shard that it has not processed yet")
+                    .tag("shard", Integer.toString(shard))
+                    .register(registry);
+        }
+        FunctionCounter.builder("orders.rejected", orderMatchingService, OrderMatchingService::getOverloadRejections)
+                .description("Orders refused by admission control")
+                .tag("reason", "overloaded")
+                .register(registry);
+        FunctionCounter.builder("orders.rejected", rateLimiter, UserRateLimiter::getRejections)
+                .description("Orders refused by admission control")
+                .tag("reason", "rate-limited")
+                .register(registry);
+        FunctionCounter.builder("engine.ticks.skipped", orderMatchingService, OrderMatchingService::getSkippedTicks)
+                .description("Timer events not published because their matching shard was full")
+                .register(registry);
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.diogohmcruz.stockexchange.infrastructure.metrics;
+
+import org.springframework.stereotype.Component;
+
+import io.github.diogohmcruz.stockexchange.infrastructure.persistence.WriteBehindPersister;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+
+/** Publishes how far the write-behind stage is behind the engine and how often its flushes fail. */
+@Component
+@RequiredArgsConstructor
+public class PersistenceMetrics implements MeterBinder {
+    private final WriteBehindPersister writeBehindPersister;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("persistence.queue.size", writeBehindPersister, WriteBehindPersister::getQueueSize)
+                .description("Rows waiting to be written to the database")
+                .register(registry);
+        FunctionCounter.builder(
+                        "persistence.flush.failures", writeBehindPersister, WriteBehindPersister::getFailedFlushes)
+                .description("Batches that failed to be written and were retried")
+                .register(registry);
+        FunctionCounter.builder("persistence.rows.dropped", writeBehindPersister, WriteBehindPersister::getDroppedRows)
+                .description("Rows given up on because they could not be written before shutdown")
+                .register(registry);
+        FunctionCounter.builder(
+                        "persistence.rows.overflowed", writeBehindPersister, WriteBehindPersister::getOverflowedRows)
+                .description("Rows that found the queue full and waited in the overflow list")
+                .register(registry);
+        Gauge.builder(
+                        "persistence.backpressured",
+                        writeBehindPersister,
+                        persister -> persister.isBackpressured() ? 1 : 0)
+                .description("1 while new orders are refused for the database to catch up")
+                .register(registry);
+    }
+}
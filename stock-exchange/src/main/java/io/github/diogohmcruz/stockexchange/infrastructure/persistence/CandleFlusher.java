@@ -0,0 +1,56 @@
+package io.github.diogohmcruz.stockexchange.infrastructure.persistence;
+
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.github.diogohmcruz.stockexchange.domain.service.CandleService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/** Stores completed candles in one JDBC batch per flush. Rows are merged on their id, so re-flushed bars overwrite. */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CandleFlusher {
+    private static final String MERGE_CANDLE =
+            """
+            MERGE INTO candles (id, ticker, resolution, open_time, open_price, high_price, low_price, close_price,
+                                volume, trade_count)
+            KEY (id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final CandleService candleService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Scheduled(fixedDelayString = "${candles.flush-interval:1s}")
+    public void flush() {
+        var candles = candleService.drainCompleted(Instant.now());
+        if (candles.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(MERGE_CANDLE, candles, candles.size(), (ps, candle) -> {
+            ps.setObject(1, candle.getId());
+            ps.setString(2, candle.getTicker());
+            ps.setString(3, candle.getResolution().name());
+            ps.setTimestamp(4, Timestamp.from(candle.getOpenTime()));
+            ps.setBigDecimal(5, candle.getOpenPrice());
+            ps.setBigDecimal(6, candle.getHighPrice());
+            ps.setBigDecimal(7, candle.getLowPrice());
+            ps.setBigDecimal(8, candle.getClosePrice());
+            ps.setLong(9, candle.getVolume());
+            ps.setInt(10, candle.getTradeCount());
+        });
+        log.debug("Flushed {} candles", candles.size());
+    }
+
+    @PreDestroy
+    public void stop() {
+        flush();
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.diogohmcruz.stockexchange.infrastructure.persistence;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the orders table down to the orders that can still trade. Orders that the write-behind stage has marked
+ * inactive, whether filled, cancelled or expired, are moved to the order history in batches, each in one transaction,
+ * and the history is purged of orders closed longer ago than its retention. Closed orders never change again, so moving
+ * them cannot race an update; the history is merged on the id, so an order that a journal replay writes again is simply
+ * moved again.
+ */
+@Slf4j
+@Component
+public class OrderHistoryMover {
+    private static final String SELECT_CLOSED = "SELECT id FROM orders WHERE active = FALSE LIMIT ?";
+    private static final String MOVE_ORDER =
+            """
+            MERGE INTO order_history (id, type, ticker, price, quantity, remaining_quantity, timestamp, expiration_time,
+                                      user_id, closed_at)
+            KEY (id)
+            SELECT id, type, ticker, price, quantity, remaining_quantity, timestamp, expiration_time, user_id, ?
+            FROM orders
+            WHERE id = ?
+            """;
+    private static final String DELETE_ORDER = "DELETE FROM orders WHERE id = ?";
+    private static final String PURGE_HISTORY = "DELETE FROM order_history WHERE closed_at < ? LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration retention;
+
+    public OrderHistoryMover(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${order-history.batch-size:1000}") int batchSize,
+            @Value("${order-history.retention:30d}") Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${order-history.move-interval:1s}")
+    public void moveClosedOrders() {
+        try {
+            int moved;
+            do {
+                moved = moveBatch(Instant.now());
+            } while (moved == batchSize);
+        } catch (RuntimeException e) {
+            log.error("Failed to move closed orders to the order history", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order-history.purge-interval:1h}")
+    public void purgeHistory() {
+        try {
+            var cutoff = Timestamp.from(Instant.now().minus(retention));
+            int purged;
+            do {
+                purged = jdbcTemplate.update(PURGE_HISTORY, cutoff, batchSize);
+                log.debug("Purged {} closed orders from the order history", purged);
+            } while (purged == batchSize);
+        } catch (RuntimeException e) {
+            log.error("Failed to purge the order history", e);
+        }
+    }
+
+    private int moveBatch(Instant closedAt) {
+        var moved = transactionTemplate.execute(status -> {
+            var ids = jdbcTemplate.queryForList(SELECT_CLOSED, UUID.class, batchSize);
+            var closedAtTimestamp = Timestamp.from(closedAt);
+            jdbcTemplate.batchUpdate(MOVE_ORDER, ids, batchSize, (ps, id) -> {
+                ps.setTimestamp(1, closedAtTimestamp);
+                ps.setObject(2, id);
+            });
+            jdbcTemplate.batchUpdate(DELETE_ORDER, ids, batchSize, (ps, id) -> ps.setObject(1, id));
+            return ids.size();
+        });
+        if (moved > 0) {
+            log.debug("Moved {} closed orders to the order history", moved);
+        }
+        return moved;
+    }
+}
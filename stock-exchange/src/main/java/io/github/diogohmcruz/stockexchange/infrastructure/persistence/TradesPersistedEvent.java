@@ -0,0 +1,6 @@
+package io.github.diogohmcruz.stockexchange.infrastructure.persistence;
+
+import java.util.Set;
+
+/** Published once a write-behind batch holding trades has committed, naming the tickers and users they involve. */
+public record TradesPersistedEvent(Set<String> tickers, Set<String> userIds) {}
@@ -0,0 +1,391 @@
+package io.github.diogohmcruz.stockexchange.infrastructure.persistence;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.github.diogohmcruz.marketlibrary.domain.model.OrderType;
+import io.github.diogohmcruz.marketlibrary.infrastructure.SimpleThreadFactory;
+import io.github.diogohmcruz.stockexchange.domain.engine.EngineListener;
+import io.github.diogohmcruz.stockexchange.domain.model.Order;
+import io.github.diogohmcruz.stockexchange.domain.model.Trade;
+import io.github.diogohmcruz.stockexchange.domain.model.UserTrade;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write-behind stage between the in-memory engine and the database. Engine callbacks only enqueue immutable rows; a
+ * dedicated writer thread drains them into JDBC batches, flushing when a batch is full or the flush interval elapses.
+ * Within a batch, repeated updates of the same order collapse into one statement, and every batch is written in a
+ * single transaction with orders before the trades that reference them, and every trade together with its buy and sell
+ * entries in the user trade ledger. Rows are merged on their id, so the events re-emitted by a journal replay leave the
+ * database as they found it, which also makes it safe to retry a batch that failed: it is kept and written again with a
+ * growing backoff until it commits, while new rows wait in the queue. Only a batch that fails during shutdown is given
+ * up, and counted. Once a batch with trades commits, a {@link TradesPersistedEvent} tells readers of the trade history
+ * which of their views changed.
+ *
+ * <p>Enqueueing never blocks the matching thread. Once the queue is three quarters full the persister reports
+ * {@linkplain #isBackpressured() backpressure}, so new orders are refused at admission while the database catches up.
+ * Rows of orders that were already admitted keep coming after that; any that find the queue full wait in an overflow
+ * list, which the writer drains in order once the queue is empty.
+ */
+@Slf4j
+@Component
+public class WriteBehindPersister implements EngineListener {
+    private static final String INSERT_ORDER =
+            """
+            MERGE INTO orders (id, type, ticker, price, quantity, remaining_quantity, timestamp, expiration_time,
+                               user_id, active, version)
+            KEY (id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)
+            """;
+    private static final String UPDATE_ORDER =
+            "UPDATE orders SET remaining_quantity = ?, active = ?, version = version + 1 WHERE id = ?";
+    private static final String INSERT_TRADE =
+            """
+            MERGE INTO trades (id, ticker, price, quantity, timestamp, buy_order_id, sell_order_id, buyer_id,
+                               seller_id, version)
+            KEY (id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)
+            """;
+    private static final String INSERT_USER_TRADE =
+            """
+            MERGE INTO user_trades (id, user_id, side, counterparty_id, ticker, price, quantity, timestamp, trade_id)
+            KEY (id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BlockingQueue<Row> queue;
+    private final ConcurrentLinkedQueue<Row> overflow = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger overflowSize = new AtomicInteger();
+    private final int backpressureThreshold;
+    private final int flushSize;
+    private final long flushIntervalNanos;
+    private final long retryBackoffNanos;
+    private final long maxRetryBackoffNanos;
+    private final Thread writer;
+    private final LongAdder failedFlushes = new LongAdder();
+    private final LongAdder droppedRows = new LongAdder();
+    private final LongAdder overflowedRows = new LongAdder();
+    private volatile boolean running = true;
+
+    public WriteBehindPersister(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${persistence.write-behind.queue-capacity:65536}") int queueCapacity,
+            @Value("${persistence.write-behind.flush-size:500}") int flushSize,
+            @Value("${persistence.write-behind.flush-interval:50ms}") Duration flushInterval,
+            @Value("${persistence.write-behind.retry-backoff:100ms}") Duration retryBackoff,
+            @Value("${persistence.write-behind.max-retry-backoff:5s}") Duration maxRetryBackoff) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.backpressureThreshold = queueCapacity - queueCapacity / 4;
+        this.flushSize = flushSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.retryBackoffNanos = retryBackoff.toNanos();
+        this.maxRetryBackoffNanos = Math.max(retryBackoffNanos, maxRetryBackoff.toNanos());
+        this.writer = SimpleThreadFactory.builder()
+                .nameFormat("write-behind-%d")
+                .build()
+                .newThread(this::run);
+    }
+
+    @PostConstruct
+    public void start() {
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    /** Flushes that failed, each retried unless it failed during shutdown. */
+    public long getFailedFlushes() {
+        return failedFlushes.sum();
+    }
+
+    /** Rows given up on because their flush failed during shutdown. */
+    public long getDroppedRows() {
+        return droppedRows.sum();
+    }
+
+    /** Rows that found the queue full and had to wait in the overflow list. */
+    public long getOverflowedRows() {
+        return overflowedRows.sum();
+    }
+
+    public int getQueueSize() {
+        return queue.size() + overflowSize.get();
+    }
+
+    @Override
+    public boolean isBackpressured() {
+        return overflowSize.get() > 0 || queue.size() >= backpressureThreshold;
+    }
+
+    @Override
+    public void onOrderAccepted(Order order) {
+        enqueue(new OrderInsert(
+                order.getId(),
+                order.getType().name(),
+                order.getTicker(),
+                order.getPrice(),
+                order.getQuantity(),
+                order.getRemainingQuantity(),
+                order.getTimestamp(),
+                order.getExpirationTime(),
+                order.getUserId(),
+                order.isActive()));
+    }
+
+    @Override
+    public void onOrderUpdated(Order order) {
+        enqueue(new OrderUpdate(order.getId(), order.getRemainingQuantity(), order.isActive()));
+    }
+
+    @Override
+    public void onTrade(Trade trade) {
+        enqueue(new TradeInsert(
+                trade.getId(),
+                trade.getTicker(),
+                trade.getPrice(),
+                trade.getQuantity(),
+                trade.getTimestamp(),
+                trade.getBuyOrder().getId(),
+                trade.getSellOrder().getId(),
+                trade.getBuyerId(),
+                trade.getSellerId()));
+    }
+
+    /**
+     * Queues a row without blocking. While anything waits in the overflow list new rows join it rather than the queue,
+     * so each shard's rows still reach the writer in the order the engine produced them.
+     */
+    private void enqueue(Row row) {
+        if (overflowSize.get() == 0 && queue.offer(row)) {
+            return;
+        }
+        overflowSize.incrementAndGet();
+        overflow.add(row);
+        overflowedRows.increment();
+    }
+
+    /** The next row to write: the queue first, then the overflow list once the queue has nothing older left. */
+    private Row poll(long timeoutNanos) throws InterruptedException {
+        var row = queue.poll();
+        if (row == null) {
+            row = overflow.poll();
+            if (row != null) {
+                overflowSize.decrementAndGet();
+                return row;
+            }
+        }
+        return row != null || timeoutNanos <= 0 ? row : queue.poll(timeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void run() {
+        var batch = new ArrayList<Row>(flushSize);
+        var backoffNanos = 0L;
+        while (running || !queue.isEmpty() || overflowSize.get() > 0 || !batch.isEmpty()) {
+            try {
+                if (backoffNanos > 0) {
+                    TimeUnit.NANOSECONDS.sleep(backoffNanos);
+                }
+                var deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < flushSize) {
+                    var row = poll(deadline - System.nanoTime());
+                    if (row == null) {
+                        break;
+                    }
+                    batch.add(row);
+                    queue.drainTo(batch, flushSize - batch.size());
+                }
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                    batch.clear();
+                }
+                backoffNanos = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+                var lost = batch.size() + getQueueSize();
+                droppedRows.add(lost);
+                log.error("Interrupted with {} rows not persisted", lost);
+                return;
+            } catch (RuntimeException e) {
+                failedFlushes.increment();
+                if (!running) {
+                    droppedRows.add(batch.size());
+                    log.error("Dropping a batch of {} rows that failed to persist during shutdown", batch.size(), e);
+                    batch.clear();
+                    continue;
+                }
+                backoffNanos = backoffNanos == 0 ? retryBackoffNanos : Math.min(2 * backoffNanos, maxRetryBackoffNanos);
+                log.warn(
+                        "Failed to persist a batch of {} rows, retrying in {} ms",
+                        batch.size(),
+                        TimeUnit.NANOSECONDS.toMillis(backoffNanos),
+                        e);
+            }
+        }
+    }
+
+    private void flush(List<Row> batch) {
+        var orderInserts = new LinkedHashMap<UUID, OrderInsert>();
+        var orderUpdates = new LinkedHashMap<UUID, OrderUpdate>();
+        var tradeInserts = new ArrayList<TradeInsert>();
+        for (var row : batch) {
+            switch (row) {
+                case OrderInsert insert -> orderInserts.put(insert.id(), insert);
+                case OrderUpdate update -> {
+                    var insert = orderInserts.get(update.id());
+                    if (insert == null) {
+                        orderUpdates.put(update.id(), update);
+                    } else {
+                        orderInserts.put(update.id(), insert.with(update));
+                    }
+                }
+                case TradeInsert insert -> tradeInserts.add(insert);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_ORDER, orderInserts.values(), flushSize, (ps, order) -> {
+                ps.setObject(1, order.id());
+                ps.setString(2, order.type());
+                ps.setString(3, order.ticker());
+                ps.setBigDecimal(4, order.price());
+                ps.setInt(5, order.quantity());
+                ps.setInt(6, order.remainingQuantity());
+                ps.setTimestamp(7, Timestamp.from(order.timestamp()));
+                ps.setTimestamp(8, Timestamp.from(order.expirationTime()));
+                ps.setString(9, order.userId());
+                ps.setBoolean(10, order.active());
+            });
+            jdbcTemplate.batchUpdate(UPDATE_ORDER, orderUpdates.values(), flushSize, (ps, order) -> {
+                ps.setInt(1, order.remainingQuantity());
+                ps.setBoolean(2, order.active());
+                ps.setObject(3, order.id());
+            });
+            jdbcTemplate.batchUpdate(INSERT_TRADE, tradeInserts, flushSize, (ps, trade) -> {
+                ps.setObject(1, trade.id());
+                ps.setString(2, trade.ticker());
+                ps.setBigDecimal(3, trade.price());
+                ps.setInt(4, trade.quantity());
+                ps.setTimestamp(5, Timestamp.from(trade.timestamp()));
+                ps.setObject(6, trade.buyOrderId());
+                ps.setObject(7, trade.sellOrderId());
+                ps.setString(8, trade.buyerId());
+                ps.setString(9, trade.sellerId());
+            });
+            jdbcTemplate.batchUpdate(INSERT_USER_TRADE, ledgerEntries(tradeInserts), flushSize, (ps, entry) -> {
+                ps.setObject(1, UserTrade.entryId(entry.trade().id(), entry.side()));
+                ps.setString(2, entry.userId());
+                ps.setString(3, entry.side().name());
+                ps.setString(4, entry.counterpartyId());
+                ps.setString(5, entry.trade().ticker());
+                ps.setBigDecimal(6, entry.trade().price());
+                ps.setInt(7, entry.trade().quantity());
+                ps.setTimestamp(8, Timestamp.from(entry.trade().timestamp()));
+                ps.setObject(9, entry.trade().id());
+            });
+        });
+        if (!tradeInserts.isEmpty()) {
+            var tickers = new HashSet<String>();
+            var userIds = new HashSet<String>();
+            for (var trade : tradeInserts) {
+                tickers.add(trade.ticker());
+                userIds.add(trade.buyerId());
+                userIds.add(trade.sellerId());
+            }
+            eventPublisher.publishEvent(new TradesPersistedEvent(tickers, userIds));
+        }
+        log.debug(
+                "Persisted {} new orders, {} order updates and {} trades",
+                orderInserts.size(),
+                orderUpdates.size(),
+                tradeInserts.size());
+    }
+
+    private static List<LedgerEntry> ledgerEntries(List<TradeInsert> trades) {
+        var entries = new ArrayList<LedgerEntry>(2 * trades.size());
+        for (var trade : trades) {
+            entries.add(new LedgerEntry(trade, OrderType.BUY, trade.buyerId(), trade.sellerId()));
+            entries.add(new LedgerEntry(trade, OrderType.SELL, trade.sellerId(), trade.buyerId()));
+        }
+        return entries;
+    }
+
+    private sealed interface Row permits OrderInsert, OrderUpdate, TradeInsert {}
+
+    private record OrderInsert(
+            UUID id,
+            String type,
+            String ticker,
+            BigDecimal price,
+            int quantity,
+            int remainingQuantity,
+            Instant timestamp,
+            Instant expirationTime,
+            String userId,
+            boolean active)
+            implements Row {
+        private OrderInsert with(OrderUpdate update) {
+            return new OrderInsert(
+                    id,
+                    type,
+                    ticker,
+                    price,
+                    quantity,
+                    update.remainingQuantity(),
+                    timestamp,
+                    expirationTime,
+                    userId,
+                    update.active());
+        }
+    }
+
+    private record OrderUpdate(UUID id, int remainingQuantity, boolean active) implements Row {}
+
+    private record TradeInsert(
+            UUID id,
+            String ticker,
+            BigDecimal price,
+            int quantity,
+            Instant timestamp,
+            UUID buyOrderId,
+            UUID sellOrderId,
+            String buyerId,
+            String sellerId)
+            implements Row {}
+
+    private record LedgerEntry(TradeInsert trade, OrderType side, String userId, String counterpartyId) {}
+}
@@ -0,0 +1,41 @@
+package io.github.diogohmcruz.stockexchange.infrastructure.serialization;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+import lombok.Getter;
+
+/**
+ * Response body that is an immutable snapshot, written as is in whichever format the client negotiated. The bytes of
+ * each format are encoded the first time that format is asked for and reused from then on, so a snapshot served from
+ * {@link EncodedViewCache} costs a copy into the response rather than a walk through the object graph. Two threads
+ * asking for a new format at once may both encode it; either result is kept.
+ */
+public final class EncodedView {
+    @Getter
+    private final Object view;
+
+    /** Number of items the view holds, which is what the cache bounds. */
+    @Getter
+    private final int items;
+
+    private final AtomicReferenceArray<byte[]> encoded = new AtomicReferenceArray<>(ViewFormat.values().length);
+
+    private EncodedView(Object view, int items) {
+        this.view = view;
+        this.items = items;
+    }
+
+    public static EncodedView of(Object view, int items) {
+        return new EncodedView(view, items);
+    }
+
+    byte[] encode(ViewFormat format, Function<Object, byte[]> encoder) {
+        var bytes = encoded.get(format.ordinal());
+        if (bytes == null) {
+            bytes = encoder.apply(view);
+            encoded.compareAndSet(format.ordinal(), null, bytes);
+        }
+        return bytes;
+    }
+}
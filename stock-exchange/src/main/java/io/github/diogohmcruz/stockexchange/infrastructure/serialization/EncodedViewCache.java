@@ -0,0 +1,37 @@
+package io.github.diogohmcruz.stockexchange.infrastructure.serialization;
+
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Encoded snapshots of market data, keyed by whatever identifies the snapshot's content: a version of the state it was
+ * taken from, or the content itself when that is cheaper to compare than to encode. Nothing is ever evicted for being
+ * stale, since a changed snapshot comes with a new key; superseded ones make way for newer ones as the bound on cached
+ * items is reached.
+ */
+@Component
+public class EncodedViewCache {
+    private final Cache<Object, EncodedView> views;
+
+    public EncodedViewCache(@Value("${market-data.views.maximum-items:200000}") long maximumItems) {
+        this.views = Caffeine.newBuilder()
+                .maximumWeight(maximumItems)
+                .weigher((Object key, EncodedView view) -> Math.max(1, view.getItems()))
+                .build();
+    }
+
+    /**
+     * @param key equal for snapshots of the same content
+     * @param loader builds the snapshot when it is not cached, or returns {@code null} when there is none, which is not
+     *     cached
+     * @return the cached or loaded snapshot, or {@code null}
+     */
+    public EncodedView get(Object key, Supplier<EncodedView> loader) {
+        return views.get(key, ignored -> loader.get());
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.diogohmcruz.stockexchange.infrastructure.serialization;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/** Writes {@link EncodedView}s with the object mapper of the negotiated format, reusing what was already encoded. */
+final class EncodedViewConverter extends AbstractHttpMessageConverter<EncodedView> {
+    private final Map<ViewFormat, ObjectMapper> objectMappers;
+
+    EncodedViewConverter(Map<ViewFormat, ObjectMapper> objectMappers) {
+        super(Arrays.stream(ViewFormat.values()).map(ViewFormat::getMediaType).toArray(MediaType[]::new));
+        this.objectMappers = new EnumMap<>(objectMappers);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return EncodedView.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected EncodedView readInternal(Class<? extends EncodedView> clazz, HttpInputMessage inputMessage)
+            throws HttpMessageNotReadableException {
+        throw new HttpMessageNotReadableException("Encoded views are only written", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(EncodedView view, MediaType contentType) {
+        return (long) encode(view, contentType).length;
+    }
+
+    @Override
+    protected void writeInternal(EncodedView view, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        outputMessage.getBody().write(encode(view, outputMessage.getHeaders().getContentType()));
+    }
+
+    private byte[] encode(EncodedView view, MediaType contentType) {
+        var format = contentType == null ? ViewFormat.JSON : ViewFormat.of(contentType);
+        if (format == null) {
+            throw new HttpMessageNotWritableException("Cannot write an encoded view as " + contentType);
+        }
+        var objectMapper = objectMappers.get(format);
+        return view.encode(format, value -> {
+            try {
+                return objectMapper.writeValueAsBytes(value);
+            } catch (JsonProcessingException e) {
+                throw new HttpMessageNotWritableException(
+                        "Could not encode " + value.getClass().getName(), e);
+            }
+        });
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.diogohmcruz.stockexchange.infrastructure.serialization;
+
+import java.util.Map;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Smile and CBOR alongside JSON, for clients that send them in {@code Accept}. Their converters replace Spring's
+ * default ones so that binary responses use the same modules and settings as the application's JSON.
+ */
+@Configuration
+public class SerializationConfig {
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(new SmileFactory()));
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory()));
+    }
+
+    @Bean
+    public HttpMessageConverter<EncodedView> encodedViewConverter(
+            ObjectMapper objectMapper,
+            MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter,
+            MappingJackson2CborHttpMessageConverter cborHttpMessageConverter) {
+        return new EncodedViewConverter(Map.of(
+                ViewFormat.JSON, objectMapper,
+                ViewFormat.SMILE, smileHttpMessageConverter.getObjectMapper(),
+                ViewFormat.CBOR, cborHttpMessageConverter.getObjectMapper()));
+    }
+}
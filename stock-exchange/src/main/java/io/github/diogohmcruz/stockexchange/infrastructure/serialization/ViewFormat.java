@@ -0,0 +1,27 @@
+package io.github.diogohmcruz.stockexchange.infrastructure.serialization;
+
+import org.springframework.http.MediaType;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/** Formats an {@link EncodedView} can be written in, in the order they are offered to clients that accept any. */
+@Getter
+@RequiredArgsConstructor
+enum ViewFormat {
+    JSON(MediaType.APPLICATION_JSON),
+    SMILE(new MediaType("application", "x-jackson-smile")),
+    CBOR(MediaType.APPLICATION_CBOR);
+
+    private final MediaType mediaType;
+
+    /** @return the format of a negotiated content type, or {@code null} when it is none of them */
+    static ViewFormat of(MediaType contentType) {
+        for (var format : values()) {
+            if (format.mediaType.isCompatibleWith(contentType)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,86 @@
+package io.github.diogohmcruz.stockexchange.infrastructure.streaming;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import io.github.diogohmcruz.marketlibrary.api.dto.TradeTick;
+import io.github.diogohmcruz.stockexchange.domain.engine.EngineListener;
+import io.github.diogohmcruz.stockexchange.domain.model.BookDepth;
+import io.github.diogohmcruz.stockexchange.domain.model.Trade;
+import io.github.diogohmcruz.stockexchange.domain.service.TickSizeRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pushes trades and book updates to server-sent event subscribers as the engine produces them. New subscribers first
+ * receive the latest depth of every ticker they follow, then only what changes. Each subscriber drains on its own
+ * virtual thread, so blocking on a slow connection costs nothing but that subscriber's buffer.
+ */
+@Slf4j
+@Component
+public class MarketDataStream implements EngineListener {
+    private final TickSizeRegistry tickSizeRegistry;
+    private final int bufferSize;
+    private final Duration emitterTimeout;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("market-data-", 0).factory());
+    private final Set<MarketDataSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Map<String, BookDepth> latestBooks = new ConcurrentHashMap<>();
+
+    public MarketDataStream(
+            TickSizeRegistry tickSizeRegistry,
+            @Value("${market-data.buffer-size:1024}") int bufferSize,
+            @Value("${market-data.emitter-timeout:30m}") Duration emitterTimeout) {
+        this.tickSizeRegistry = tickSizeRegistry;
+        this.bufferSize = bufferSize;
+        this.emitterTimeout = emitterTimeout;
+    }
+
+    /** Opens a stream of the given tickers, or of every ticker when {@code tickers} is empty. */
+    public SseEmitter subscribe(Set<String> tickers) {
+        var emitter = new SseEmitter(emitterTimeout.toMillis());
+        var subscriber = new MarketDataSubscriber(
+                emitter, Set.copyOf(tickers), bufferSize, tickSizeRegistry::forTicker, executor);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        latestBooks.values().forEach(subscriber::offerBook);
+        log.debug("Market data subscriber added for {}; {} subscribed", tickers, subscribers.size());
+        return emitter;
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscribers.forEach(MarketDataSubscriber::close);
+        executor.shutdown();
+    }
+
+    @Override
+    public void onTrade(Trade trade) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        var tick = new TradeTick();
+        tick.setId(trade.getId());
+        tick.setTicker(trade.getTicker());
+        tick.setPrice(trade.getPrice());
+        tick.setQuantity(trade.getQuantity());
+        tick.setTimestamp(trade.getTimestamp());
+        subscribers.removeIf(subscriber -> !subscriber.offerTrade(tick));
+    }
+
+    @Override
+    public void onDepth(BookDepth depth) {
+        latestBooks.put(depth.ticker(), depth);
+        subscribers.removeIf(subscriber -> !subscriber.offerBook(depth));
+    }
+}
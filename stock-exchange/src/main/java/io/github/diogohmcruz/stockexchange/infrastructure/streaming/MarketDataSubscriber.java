@@ -0,0 +1,189 @@
+package io.github.diogohmcruz.stockexchange.infrastructure.streaming;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import io.github.diogohmcruz.marketlibrary.api.dto.BookUpdate;
+import io.github.diogohmcruz.marketlibrary.api.dto.PriceLevelResponse;
+import io.github.diogohmcruz.marketlibrary.api.dto.TradeTick;
+import io.github.diogohmcruz.stockexchange.domain.model.BookDepth;
+import io.github.diogohmcruz.stockexchange.domain.model.DepthLevel;
+import io.github.diogohmcruz.stockexchange.domain.model.TickSize;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * One client of the market data stream. Matching threads only offer events; a drain task on the executor writes them to
+ * the client, so a slow client never holds up matching or the other clients. Trades queue in a bounded buffer and a
+ * client that lets it overflow is disconnected, while book updates are conflated per ticker: a client that falls behind
+ * skips intermediate versions and receives the difference between the last depth it saw and the newest one.
+ *
+ * <p>{@link MarketDataStream} creates the subscribers of the running exchange. The class is public so that its
+ * buffering and conflation can be driven with any emitter and executor.
+ */
+@Slf4j
+public class MarketDataSubscriber {
+    private final SseEmitter emitter;
+    private final Set<String> tickers;
+    private final Function<String, TickSize> tickSizes;
+    private final Executor executor;
+    private final BlockingQueue<TradeTick> trades;
+    private final Map<String, BookDepth> pendingBooks = new ConcurrentHashMap<>();
+    private final Map<String, BookDepth> sentBooks = new HashMap<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean closed;
+
+    public MarketDataSubscriber(
+            SseEmitter emitter,
+            Set<String> tickers,
+            int bufferSize,
+            Function<String, TickSize> tickSizes,
+            Executor executor) {
+        this.emitter = emitter;
+        this.tickers = tickers;
+        this.tickSizes = tickSizes;
+        this.executor = executor;
+        this.trades = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    /** @return {@code false} when the subscriber is closed, either already or because its buffer overflowed */
+    public boolean offerTrade(TradeTick trade) {
+        if (closed) {
+            return false;
+        }
+        if (!isSubscribed(trade.getTicker())) {
+            return true;
+        }
+        if (!trades.offer(trade)) {
+            log.warn("Disconnecting slow market data subscriber: {} trades buffered", trades.size());
+            close();
+            return false;
+        }
+        scheduleDrain();
+        return true;
+    }
+
+    public boolean offerBook(BookDepth depth) {
+        if (closed) {
+            return false;
+        }
+        if (isSubscribed(depth.ticker())) {
+            pendingBooks.merge(depth.ticker(), depth, MarketDataSubscriber::newer);
+            scheduleDrain();
+        }
+        return true;
+    }
+
+    public void close() {
+        closed = true;
+        emitter.complete();
+    }
+
+    private boolean isSubscribed(String ticker) {
+        return tickers.isEmpty() || tickers.contains(ticker);
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            do {
+                TradeTick trade;
+                while (!closed && (trade = trades.poll()) != null) {
+                    emitter.send(SseEmitter.event().name("trade").data(trade));
+                }
+                for (var ticker : pendingBooks.keySet()) {
+                    var depth = pendingBooks.remove(ticker);
+                    if (!closed && depth != null) {
+                        sendBook(depth);
+                    }
+                }
+                draining.set(false);
+            } while (!closed && hasPending() && draining.compareAndSet(false, true));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Market data subscriber went away: {}", e.getMessage());
+            closed = true;
+            emitter.completeWithError(e);
+        }
+    }
+
+    private boolean hasPending() {
+        return !trades.isEmpty() || !pendingBooks.isEmpty();
+    }
+
+    private void sendBook(BookDepth depth) throws IOException {
+        var previous = sentBooks.get(depth.ticker());
+        if (previous != null && previous.version() >= depth.version()) {
+            return;
+        }
+        sentBooks.put(depth.ticker(), depth);
+        emitter.send(SseEmitter.event().name("book").data(toBookUpdate(previous, depth)));
+    }
+
+    private BookUpdate toBookUpdate(BookDepth previous, BookDepth depth) {
+        var tickSize = tickSizes.apply(depth.ticker());
+        var update = new BookUpdate();
+        update.setTicker(depth.ticker());
+        update.setVersion(depth.version());
+        update.setSnapshot(previous == null);
+        update.setBestBid(
+                depth.bids().isEmpty()
+                        ? null
+                        : tickSize.toPrice(depth.bids().getFirst().priceTicks()));
+        update.setBestAsk(
+                depth.asks().isEmpty()
+                        ? null
+                        : tickSize.toPrice(depth.asks().getFirst().priceTicks()));
+        if (depth.lastTradePriceTicks() > 0) {
+            update.setLastPrice(tickSize.toPrice(depth.lastTradePriceTicks()));
+        }
+        update.setBids(diff(previous == null ? List.of() : previous.bids(), depth.bids(), tickSize));
+        update.setAsks(diff(previous == null ? List.of() : previous.asks(), depth.asks(), tickSize));
+        return update;
+    }
+
+    /** Levels of {@code current} that differ from {@code previous}, followed by the ones that left it with nothing. */
+    static List<PriceLevelResponse> diff(List<DepthLevel> previous, List<DepthLevel> current, TickSize tickSize) {
+        var previousByPrice = new HashMap<Long, DepthLevel>(previous.size() * 2);
+        previous.forEach(level -> previousByPrice.put(level.priceTicks(), level));
+        var changes = new ArrayList<PriceLevelResponse>();
+        for (var level : current) {
+            if (!level.equals(previousByPrice.remove(level.priceTicks()))) {
+                changes.add(toPriceLevel(level.priceTicks(), level.quantity(), level.orderCount(), tickSize));
+            }
+        }
+        for (var level : previous) {
+            if (previousByPrice.containsKey(level.priceTicks())) {
+                changes.add(toPriceLevel(level.priceTicks(), 0, 0, tickSize));
+            }
+        }
+        return changes;
+    }
+
+    private static BookDepth newer(BookDepth depth, BookDepth other) {
+        return other.version() >= depth.version() ? other : depth;
+    }
+
+    private static PriceLevelResponse toPriceLevel(long priceTicks, long quantity, int orderCount, TickSize tickSize) {
+        var level = new PriceLevelResponse();
+        level.setPrice(tickSize.toPrice(priceTicks));
+        level.setQuantity(quantity);
+        level.setOrderCount(orderCount);
+        return level;
+    }
+}
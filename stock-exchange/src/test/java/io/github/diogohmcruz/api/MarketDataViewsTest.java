@@ -0,0 +1,149 @@
+package io.github.diogohmcruz.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import io.github.diogohmcruz.marketlibrary.domain.model.OrderType;
+import io.github.diogohmcruz.stockexchange.StockExchangeApplication;
+import io.github.diogohmcruz.stockexchange.domain.model.Order;
+import io.github.diogohmcruz.stockexchange.domain.service.OrderMatchingService;
+import io.github.diogohmcruz.stockexchange.domain.service.TickerService;
+
+@SpringBootTest(classes = StockExchangeApplication.class)
+@AutoConfigureMockMvc
+class MarketDataViewsTest {
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    private final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderMatchingService orderMatchingService;
+
+    @Autowired
+    private TickerService tickerService;
+
+    @Test
+    void orderBookSnapshotsAreNegotiatedAndReencodedOnlyWhenTheBookMoves() throws Exception {
+        submit("VIEWS", OrderType.BUY, 10);
+        await().atMost(Duration.ofSeconds(5))
+                .until(() ->
+                        json("/api/orders/by-ticker/VIEWS").path("buyOrders").size() == 1);
+
+        var cbor = fetch("/api/orders/by-ticker/VIEWS", MediaType.APPLICATION_CBOR);
+        assertThat(fetch("/api/orders/by-ticker/VIEWS", MediaType.APPLICATION_CBOR))
+                .isEqualTo(cbor);
+        var book = cborMapper.readTree(cbor);
+        assertThat(book.path("ticker").asText()).isEqualTo("VIEWS");
+        assertThat(book.path("buyOrders").get(0).path("userId").asText()).isEqualTo("views");
+        assertThat(book.path("buyOrders").get(0).path("timestamp").isTextual()).isTrue();
+        assertThat(book.path("sellOrders")).isEmpty();
+
+        submit("VIEWS", OrderType.SELL, 12);
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> cborMapper
+                                .readTree(fetch("/api/orders/by-ticker/VIEWS", MediaType.APPLICATION_CBOR))
+                                .path("sellOrders")
+                                .size()
+                        == 1);
+        var moved = cborMapper.readTree(fetch("/api/orders/by-ticker/VIEWS", MediaType.APPLICATION_CBOR));
+        assertThat(moved.path("version").asLong())
+                .isGreaterThan(book.path("version").asLong());
+    }
+
+    @Test
+    void orderBookListingIsCappedPerSideAndReportsTheTotals() throws Exception {
+        submit("VIEWL", OrderType.BUY, 10);
+        submit("VIEWL", OrderType.BUY, 11);
+        submit("VIEWL", OrderType.BUY, 9);
+        await().atMost(Duration.ofSeconds(5))
+                .until(() ->
+                        json("/api/orders/by-ticker/VIEWL").path("buyOrders").size() == 3);
+
+        var capped = json("/api/orders/by-ticker/VIEWL?limit=2");
+        assertThat(capped.path("buyOrders").findValuesAsText("price")).containsExactly("11", "10");
+        assertThat(capped.path("totalBuyOrders").asInt()).isEqualTo(3);
+        assertThat(capped.path("totalSellOrders").asInt()).isZero();
+
+        mockMvc.perform(get("/api/orders/by-ticker/VIEWL?limit=0")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void tickersWithoutABookGetAnEmptyListing() throws Exception {
+        var book = json("/api/orders/by-ticker/NOBOOK");
+        assertThat(book.path("ticker").asText()).isEqualTo("NOBOOK");
+        assertThat(book.path("buyOrders")).isEmpty();
+        assertThat(book.path("sellOrders")).isEmpty();
+        assertThat(book.path("version").asLong()).isZero();
+    }
+
+    @Test
+    void tickersAreServedInTheFormatTheClientAccepts() throws Exception {
+        submit("VIEWT", OrderType.SELL, 20);
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> tickerService.getAllActiveTickers().contains("VIEWT"));
+
+        var info = smileMapper.readTree(fetch("/api/tickers/info", SMILE));
+        assertThat(info.findValuesAsText("symbol")).contains("VIEWT");
+
+        mockMvc.perform(get("/api/tickers").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+        var tickers = json("/api/tickers");
+        assertThat(tickers.findValuesAsText("symbol")).isEmpty();
+        assertThat(tickers.toString()).contains("\"VIEWT\"");
+    }
+
+    private void submit(String ticker, OrderType type, int price) {
+        var order = new Order();
+        order.setUserId("views");
+        order.setType(type);
+        order.setTicker(ticker);
+        order.setPrice(BigDecimal.valueOf(price));
+        order.setQuantity(10);
+        order.setExpirationTime(Instant.now().plusSeconds(60));
+        order.setActive(true);
+        orderMatchingService.submitOrder(order);
+    }
+
+    private byte[] fetch(String path, MediaType mediaType) throws Exception {
+        return mockMvc.perform(get(path).accept(mediaType))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(mediaType))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+    }
+
+    private JsonNode json(String path) throws Exception {
+        return jsonMapper.readTree(mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray());
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.diogohmcruz.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import jakarta.validation.Validator;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import io.github.diogohmcruz.stockexchange.api.OrderController;
+import io.github.diogohmcruz.stockexchange.domain.service.OrderBookService;
+import io.github.diogohmcruz.stockexchange.domain.service.OrderMatchingService;
+import io.github.diogohmcruz.stockexchange.domain.service.TickSizeRegistry;
+import io.github.diogohmcruz.stockexchange.infrastructure.serialization.EncodedViewCache;
+
+class OrderControllerTest {
+    private final OrderMatchingService orderMatchingService = mock(OrderMatchingService.class);
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    private OrderController controller;
+
+    @BeforeEach
+    void setUp() {
+        executor.initialize();
+        controller = new OrderController(
+                orderMatchingService,
+                mock(OrderBookService.class),
+                mock(TickSizeRegistry.class),
+                mock(Validator.class),
+                executor,
+                mock(EncodedViewCache.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void cancelsAnswerWithWhatTheEngineDid() throws Exception {
+        var cancelled = UUID.randomUUID();
+        var unknown = UUID.randomUUID();
+        when(orderMatchingService.cancelOrderAsync(cancelled, "user"))
+                .thenReturn(CompletableFuture.completedFuture(true));
+        when(orderMatchingService.cancelOrderAsync(unknown, "user"))
+                .thenReturn(CompletableFuture.completedFuture(false));
+
+        assertThat(controller
+                        .cancelOrder(cancelled, "user")
+                        .get(5, TimeUnit.SECONDS)
+                        .getStatusCode())
+                .isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(controller
+                        .cancelOrder(unknown, "user")
+                        .get(5, TimeUnit.SECONDS)
+                        .getStatusCode())
+                .isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void cancelsTheEngineDidNotGetToInTimeAreAccepted() throws Exception {
+        var orderId = UUID.randomUUID();
+        when(orderMatchingService.cancelOrderAsync(orderId, "user"))
+                .thenReturn(CompletableFuture.failedFuture(new TimeoutException()));
+
+        assertThat(controller
+                        .cancelOrder(orderId, "user")
+                        .get(5, TimeUnit.SECONDS)
+                        .getStatusCode())
+                .isEqualTo(HttpStatus.ACCEPTED);
+    }
+}
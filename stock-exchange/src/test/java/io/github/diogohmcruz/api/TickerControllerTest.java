@@ -1,10 +1,10 @@
 package io.github.diogohmcruz.api;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.awaitility.Awaitility.await;
 
-import jakarta.transaction.Transactional;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.stream.Stream;
 
@@ -14,8 +14,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 
 import io.github.diogohmcruz.marketlibrary.domain.model.OrderType;
 import io.github.diogohmcruz.stockexchange.StockExchangeApplication;
+import io.github.diogohmcruz.stockexchange.domain.model.MarketState;
 import io.github.diogohmcruz.stockexchange.domain.model.Order;
-import io.github.diogohmcruz.stockexchange.domain.repositories.OrderRepository;
+import io.github.diogohmcruz.stockexchange.domain.service.OrderMatchingService;
 import io.github.diogohmcruz.stockexchange.domain.service.TickerService;
 
 @SpringBootTest(classes = StockExchangeApplication.class)
@@ -24,12 +25,11 @@ class TickerControllerTest {
     private TickerService tickerService;
 
     @Autowired
-    private OrderRepository orderRepository;
+    private OrderMatchingService orderMatchingService;
 
-    @Transactional
     @Test
     void getAllTickers_ShouldReturnListOfTickers() {
-        var tickers = Stream.of("AAPL", "GOOGL", "MSFT")
+        var tickers = Stream.of("TKRA", "TKRB", "TKRC")
                 .map(ticker -> {
                     var order = new Order();
                     order.setUserId("test");
@@ -41,9 +41,15 @@ class TickerControllerTest {
                     order.setActive(true);
                     return order;
                 })
-                .map(o -> orderRepository.save(o))
+                .peek(orderMatchingService::submitOrder)
+                .map(Order::getTicker)
                 .toList();
-        var activeTicker = tickerService.getAllActiveTickers();
-        assertThat(activeTicker).hasSameSizeAs(tickers);
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertThat(tickerService.getAllActiveTickers())
+                .containsAll(tickers));
+        assertThat(tickerService.getActiveStates())
+                .filteredOn(state -> tickers.contains(state.ticker()))
+                .extracting(MarketState::activeBuyOrders)
+                .containsOnly(1);
     }
 }
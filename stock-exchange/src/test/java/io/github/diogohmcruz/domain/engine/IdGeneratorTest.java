@@ -0,0 +1,55 @@
+package io.github.diogohmcruz.domain.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.diogohmcruz.stockexchange.domain.engine.IdGenerator;
+
+class IdGeneratorTest {
+    private static final Instant NOW = Instant.parse("2026-06-01T12:00:00Z");
+
+    @Test
+    void idsIncreaseWithinAFrozenMillisecondAndAcrossThreads() {
+        var generator = new IdGenerator(7, Clock.fixed(NOW, ZoneOffset.UTC));
+        var ids = new ConcurrentLinkedQueue<Long>();
+        IntStream.range(0, 4).parallel().forEach(thread -> {
+            var previous = Long.MIN_VALUE;
+            for (int i = 0; i < 5000; i++) {
+                var id = generator.nextId();
+                assertThat(id).isGreaterThan(previous);
+                previous = id;
+                ids.add(id);
+            }
+        });
+
+        assertThat(ids).doesNotHaveDuplicates().hasSize(20_000);
+        assertThat(ids).allSatisfy(id -> assertThat((id >>> 12) & 0x3FF).isEqualTo(7));
+    }
+
+    @Test
+    void uuidsSortByAdmissionAndCarryTheirTime() {
+        var generator = new IdGenerator(0, Clock.fixed(NOW, ZoneOffset.UTC));
+        var first = generator.nextOrderId();
+        var second = generator.nextOrderId();
+        var trade = IdGenerator.tradeId(first, 1);
+
+        assertThat(List.of(first, second, IdGenerator.tradeId(second, 0))).isSorted();
+        assertThat(IdGenerator.timestampOf(first)).isEqualTo(NOW);
+        assertThat(trade.getMostSignificantBits()).isEqualTo(first.getMostSignificantBits());
+        assertThat(trade).isNotEqualTo(IdGenerator.tradeId(first, 0)).isNotEqualTo(first);
+    }
+
+    @Test
+    void rejectsNodeIdsOutOfRange() {
+        assertThatThrownBy(() -> new IdGenerator(1024)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,208 @@
+package io.github.diogohmcruz.domain.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.diogohmcruz.marketlibrary.domain.model.OrderType;
+import io.github.diogohmcruz.stockexchange.domain.engine.AdmissionPolicy;
+import io.github.diogohmcruz.stockexchange.domain.engine.BookSnapshot;
+import io.github.diogohmcruz.stockexchange.domain.engine.EngineJournal;
+import io.github.diogohmcruz.stockexchange.domain.engine.EngineOverloadedException;
+import io.github.diogohmcruz.stockexchange.domain.engine.MatchingEngine;
+import io.github.diogohmcruz.stockexchange.domain.engine.OrderEventProcessor;
+import io.github.diogohmcruz.stockexchange.domain.engine.OrderResult;
+import io.github.diogohmcruz.stockexchange.domain.model.Order;
+
+class MatchingEngineTest {
+
+    @Test
+    void ordersForTheSameTickerAreProcessedInPublishOrderOnOneThread() throws InterruptedException {
+        var numberOfOrders = 1_000;
+        var latch = new CountDownLatch(numberOfOrders * 2);
+        var quantitiesByTicker = new ConcurrentHashMap<String, List<Integer>>();
+        var threadsByTicker = new ConcurrentHashMap<String, List<String>>();
+
+        try (var engine = new MatchingEngine(2, 1024, new RecordingProcessor(order -> {
+            quantitiesByTicker
+                    .computeIfAbsent(order.getTicker(), t -> new CopyOnWriteArrayList<>())
+                    .add(order.getQuantity());
+            threadsByTicker
+                    .computeIfAbsent(order.getTicker(), t -> new CopyOnWriteArrayList<>())
+                    .add(Thread.currentThread().getName());
+            latch.countDown();
+        }))) {
+            engine.start();
+            for (int i = 1; i <= numberOfOrders; i++) {
+                engine.publish(order("AAPL", i));
+                engine.publish(order("MSFT", i));
+            }
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        for (var ticker : List.of("AAPL", "MSFT")) {
+            assertThat(quantitiesByTicker.get(ticker)).isSorted().hasSize(numberOfOrders);
+            assertThat(threadsByTicker.get(ticker))
+                    .containsOnly(threadsByTicker.get(ticker).getFirst());
+        }
+    }
+
+    @Test
+    void batchesKeepTheirOrderPerTickerEvenWhenLongerThanTheRingBuffer() throws InterruptedException {
+        var batch = new ArrayList<Order>();
+        for (int i = 1; i <= 100; i++) {
+            batch.add(order(i % 3 == 0 ? "MSFT" : "AAPL", i));
+        }
+        var latch = new CountDownLatch(batch.size());
+        var quantitiesByTicker = new ConcurrentHashMap<String, List<Integer>>();
+
+        try (var engine = new MatchingEngine(2, 16, new RecordingProcessor(order -> {
+            quantitiesByTicker
+                    .computeIfAbsent(order.getTicker(), t -> new CopyOnWriteArrayList<>())
+                    .add(order.getQuantity());
+            latch.countDown();
+        }))) {
+            engine.start();
+            engine.publishAll(batch);
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(quantitiesByTicker.get("AAPL")).isSorted().hasSize(67);
+        assertThat(quantitiesByTicker.get("MSFT")).isSorted().hasSize(33);
+    }
+
+    @Test
+    void cancelsAndQueriesAreOrderedAfterPreviouslyPublishedOrders() {
+        var processed = new CopyOnWriteArrayList<String>();
+        try (var engine = new MatchingEngine(1, 64, new RecordingProcessor(order -> processed.add("order")))) {
+            engine.start();
+            engine.publish(order("AAPL", 1));
+
+            var cancelled = engine.cancel("AAPL", UUID.randomUUID(), "test");
+            var seen = engine.query("AAPL", () -> List.copyOf(processed));
+
+            assertThat(cancelled.join()).isTrue();
+            assertThat(seen.join()).containsExactly("order");
+        }
+    }
+
+    @Test
+    void snapshotCollectsEveryShard() {
+        try (var engine = new MatchingEngine(3, 64, new RecordingProcessor(order -> {}))) {
+            engine.start();
+
+            assertThat(engine.snapshot().join())
+                    .extracting(snapshot -> snapshot.books().getFirst().ticker())
+                    .containsExactly("SHARD0", "SHARD1", "SHARD2");
+        }
+    }
+
+    @Test
+    void fullShardsRefuseNewOrdersUnderTheRejectPolicy() throws InterruptedException {
+        var release = new CountDownLatch(1);
+        var processor = new RecordingProcessor(order -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try (var engine =
+                new MatchingEngine(1, 4, processor, EngineJournal.NONE, AdmissionPolicy.REJECT, Duration.ZERO)) {
+            engine.start();
+            for (int i = 1; i <= 4; i++) {
+                engine.publish(order("AAPL", i));
+            }
+
+            assertThat(engine.queueDepth(0)).isEqualTo(4);
+            assertThatThrownBy(() -> engine.publish(order("AAPL", 5))).isInstanceOf(EngineOverloadedException.class);
+            assertThat(engine.publishAll(List.of(order("AAPL", 6), order("AAPL", 7))))
+                    .extracting(Order::getQuantity)
+                    .containsExactly(6, 7);
+            assertThat(engine.getRejectedOrders()).isEqualTo(3);
+            release.countDown();
+        }
+    }
+
+    @Test
+    void controlEventsFailInsteadOfWaitingForeverOnAFullShard() {
+        var release = new CountDownLatch(1);
+        var processor = new RecordingProcessor(order -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try (var engine = new MatchingEngine(1, 4, processor)) {
+            engine.start();
+            for (int i = 1; i <= 4; i++) {
+                engine.publish(order("AAPL", i));
+            }
+
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+                engine.tick(Instant.now());
+                assertThat(engine.getSkippedTicks()).isEqualTo(1);
+                assertThat(engine.cancel("AAPL", UUID.randomUUID(), "test"))
+                        .failsWithin(Duration.ZERO)
+                        .withThrowableOfType(ExecutionException.class)
+                        .withCauseInstanceOf(EngineOverloadedException.class);
+                assertThat(engine.query("AAPL", () -> "seen")).isCompletedExceptionally();
+                assertThat(engine.snapshot()).isCompletedExceptionally();
+            });
+            release.countDown();
+        }
+    }
+
+    @Test
+    void rejectsRingBufferSizeThatIsNotAPowerOfTwo() {
+        assertThatThrownBy(() -> new MatchingEngine(1, 1000, new RecordingProcessor(order -> {})))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private record RecordingProcessor(Consumer<Order> onOrder) implements OrderEventProcessor {
+        @Override
+        public OrderResult processOrder(Order order) {
+            onOrder.accept(order);
+            return new OrderResult(true, List.of(), order.getQuantity(), true);
+        }
+
+        @Override
+        public boolean processCancel(UUID orderId, String userId) {
+            return true;
+        }
+
+        @Override
+        public void processTimer(Instant now, int shard, int shardCount) {}
+
+        @Override
+        public List<BookSnapshot> processSnapshot(int shard) {
+            return List.of(new BookSnapshot("SHARD" + shard, 0, List.of(), List.of()));
+        }
+    }
+
+    private static Order order(String ticker, int quantity) {
+        var order = new Order();
+        order.setType(OrderType.BUY);
+        order.setTicker(ticker);
+        order.setPrice(BigDecimal.TEN);
+        order.setQuantity(quantity);
+        order.setUserId("test");
+        return order;
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.diogohmcruz.domain.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.diogohmcruz.stockexchange.domain.model.Position;
+
+class PositionTest {
+
+    @Test
+    void closingPartOfALongRealizesAgainstTheAverageCost() {
+        var position = Position.empty("user", "AAPL")
+                .apply(10, new BigDecimal("100.00"))
+                .apply(10, new BigDecimal("110.00"))
+                .apply(-5, new BigDecimal("120.00"));
+
+        assertThat(position.quantity()).isEqualTo(15);
+        assertThat(position.averageCost()).isEqualByComparingTo("105.00");
+        assertThat(position.realizedPnl()).isEqualByComparingTo("75.00");
+        assertThat(position.unrealizedPnl(new BigDecimal("100.00"))).isEqualByComparingTo("-75.00");
+    }
+
+    @Test
+    void sellingThroughZeroOpensAShortAtTheTradePrice() {
+        var position = Position.empty("user", "AAPL")
+                .apply(10, new BigDecimal("100.00"))
+                .apply(-15, new BigDecimal("90.00"));
+
+        assertThat(position.quantity()).isEqualTo(-5);
+        assertThat(position.averageCost()).isEqualByComparingTo("90.00");
+        assertThat(position.realizedPnl()).isEqualByComparingTo("-100.00");
+
+        var covered = position.apply(5, new BigDecimal("80.00"));
+        assertThat(covered.quantity()).isZero();
+        assertThat(covered.averageCost()).isNull();
+        assertThat(covered.costBasis()).isEqualByComparingTo("0");
+        assertThat(covered.realizedPnl()).isEqualByComparingTo("-50.00");
+    }
+}
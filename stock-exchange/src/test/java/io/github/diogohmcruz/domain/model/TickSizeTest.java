@@ -0,0 +1,33 @@
+package io.github.diogohmcruz.domain.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.diogohmcruz.stockexchange.domain.model.TickSize;
+
+class TickSizeTest {
+    private final TickSize tickSize = new TickSize(new BigDecimal("0.05"));
+
+    @Test
+    void convertsPricesOnTheTickGridBothWays() {
+        assertThat(tickSize.toTicks(new BigDecimal("100.15"))).isEqualTo(2_003L);
+        assertThat(tickSize.toTicks(new BigDecimal("100.1500"))).isEqualTo(2_003L);
+        assertThat(tickSize.toPrice(2_003L)).isEqualByComparingTo("100.15");
+    }
+
+    @Test
+    void rejectsPricesOffTheTickGrid() {
+        assertThatThrownBy(() -> tickSize.toTicks(new BigDecimal("100.12")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("tick size");
+    }
+
+    @Test
+    void rejectsNonPositiveTickSize() {
+        assertThatThrownBy(() -> new TickSize(BigDecimal.ZERO)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,25 @@
+package io.github.diogohmcruz.domain.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.diogohmcruz.stockexchange.domain.model.TradeCursor;
+
+class TradeCursorTest {
+    @Test
+    void survivesEncodingWithNanosecondPrecision() {
+        var cursor = new TradeCursor(Instant.parse("2026-01-01T10:00:00.123456789Z"), UUID.randomUUID());
+
+        assertThat(TradeCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThatThrownBy(() -> TradeCursor.decode("not a cursor")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.diogohmcruz.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.diogohmcruz.stockexchange.domain.service.CandleSeries;
+
+class CandleSeriesTest {
+    @Test
+    void buildsBarsAndCompletesThemOncePerChange() {
+        var series = new CandleSeries(1_000, 4);
+        series.record(10_100, 100, 5);
+        series.record(10_200, 105, 1);
+        series.record(10_900, 98, 2);
+        series.record(11_500, 101, 3);
+
+        assertThat(series.drainCompleted(11_999)).containsExactly(new CandleSeries.Bar(10_000, 100, 105, 98, 98, 8, 3));
+        assertThat(series.drainCompleted(11_999)).isEmpty();
+
+        series.record(10_950, 110, 1);
+        assertThat(series.drainCompleted(12_000))
+                .containsExactlyInAnyOrder(
+                        new CandleSeries.Bar(10_000, 100, 110, 98, 110, 9, 4),
+                        new CandleSeries.Bar(11_000, 101, 101, 101, 101, 3, 1));
+    }
+
+    @Test
+    void servesOnlyRetainedPeriods() {
+        var series = new CandleSeries(1_000, 4);
+        series.record(10_000, 100, 1);
+        series.record(12_000, 102, 1);
+        series.record(14_000, 104, 1);
+
+        assertThat(series.oldestRetainedMillis()).isEqualTo(11_000);
+        assertThat(series.bars(0, 20_000))
+                .extracting(CandleSeries.Bar::openTimeMillis)
+                .containsExactly(12_000L, 14_000L);
+        assertThat(series.bars(12_500, 14_000)).isEmpty();
+
+        series.record(10_000, 99, 1);
+        assertThat(series.bars(0, 20_000)).hasSize(2);
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.diogohmcruz.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.diogohmcruz.stockexchange.domain.service.ExpiryWheel;
+
+class ExpiryWheelTest {
+    private static final long START = 1_000_000L;
+
+    @Test
+    void expiresEntriesOnceTheirDeadlineHasPassedAcrossLaps() {
+        var wheel = new ExpiryWheel<Timer>(8, 10);
+        wheel.advanceTo(START, timer -> {});
+        var soon = timer("soon", START + 25);
+        var sameSlotNextLap = timer("next-lap", START + 25 + 80);
+        var cancelled = timer("cancelled", START + 30);
+        wheel.schedule(soon);
+        wheel.schedule(sameSlotNextLap);
+        wheel.schedule(cancelled);
+        wheel.cancel(cancelled);
+        var expired = new ArrayList<String>();
+
+        wheel.advanceTo(START + 25, timer -> expired.add(timer.name));
+        assertThat(expired).isEmpty();
+
+        wheel.advanceTo(START + 26, timer -> expired.add(timer.name));
+        assertThat(expired).containsExactly("soon");
+
+        wheel.advanceTo(START + 10_000, timer -> expired.add(timer.name));
+        assertThat(expired).containsExactly("soon", "next-lap");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void entriesScheduledInThePastExpireOnTheNextAdvance() {
+        var wheel = new ExpiryWheel<Timer>(8, 10);
+        wheel.advanceTo(START, timer -> {});
+        wheel.schedule(timer("late", START - 500));
+        var expired = new ArrayList<String>();
+
+        wheel.advanceTo(START + 1, timer -> expired.add(timer.name));
+
+        assertThat(expired).containsExactly("late");
+    }
+
+    @Test
+    void earliestDeadlineBoundNeverPassesAPendingDeadline() {
+        var wheel = new ExpiryWheel<Timer>(8, 10);
+        wheel.advanceTo(START, timer -> {});
+        assertThat(wheel.earliestDeadlineBound()).isEqualTo(Long.MAX_VALUE);
+
+        wheel.schedule(timer("later", START + 57));
+        wheel.schedule(timer("next-lap", START + 25 + 80));
+        assertThat(wheel.earliestDeadlineBound()).isEqualTo(START + 20);
+
+        wheel.advanceTo(START + 40, timer -> {});
+        assertThat(wheel.earliestDeadlineBound()).isEqualTo(START + 50);
+
+        wheel.advanceTo(START + 60, timer -> {});
+        assertThat(wheel.earliestDeadlineBound()).isEqualTo(START + 100).isLessThanOrEqualTo(START + 105);
+    }
+
+    private static Timer timer(String name, long deadline) {
+        var timer = new Timer(name);
+        timer.setDeadline(deadline);
+        return timer;
+    }
+
+    private static final class Timer extends ExpiryWheel.Entry {
+        private final String name;
+
+        private Timer(String name) {
+            this.name = name;
+        }
+    }
+}
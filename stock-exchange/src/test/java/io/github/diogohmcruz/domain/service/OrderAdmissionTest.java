@@ -0,0 +1,138 @@
+package io.github.diogohmcruz.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import io.github.diogohmcruz.marketlibrary.domain.model.OrderType;
+import io.github.diogohmcruz.stockexchange.StockExchangeApplication;
+import io.github.diogohmcruz.stockexchange.domain.engine.EngineListener;
+import io.github.diogohmcruz.stockexchange.domain.engine.EngineOverloadedException;
+import io.github.diogohmcruz.stockexchange.domain.model.Order;
+import io.github.diogohmcruz.stockexchange.domain.service.OrderMatchingService;
+import io.github.diogohmcruz.stockexchange.domain.service.RateLimitExceededException;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(
+        classes = StockExchangeApplication.class,
+        properties = {"order.rate-limit.orders-per-second=0.001", "order.rate-limit.burst=2"})
+@Import(OrderAdmissionTest.LaggingListenerConfig.class)
+class OrderAdmissionTest {
+    @Autowired
+    private OrderMatchingService orderMatchingService;
+
+    @Autowired
+    private LaggingListener laggingListener;
+
+    @Test
+    void invalidOrdersDoNotUseUpTheRateLimit() {
+        var expired = order("admission-single", "10.00", Instant.now().minusSeconds(1));
+        var offTick = order("admission-single", "10.001", Instant.now().plusSeconds(60));
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> orderMatchingService.submitOrder(expired))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> orderMatchingService.submitOrder(offTick))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        orderMatchingService.submitOrder(
+                order("admission-single", "10.00", Instant.now().plusSeconds(60)));
+        orderMatchingService.submitOrder(
+                order("admission-single", "10.00", Instant.now().plusSeconds(60)));
+        assertThatThrownBy(() -> orderMatchingService.submitOrder(
+                        order("admission-single", "10.00", Instant.now().plusSeconds(60))))
+                .isInstanceOf(RateLimitExceededException.class);
+    }
+
+    @Test
+    void invalidOrdersInABatchDoNotUseUpTheRateLimit() {
+        var valid = Instant.now().plusSeconds(60);
+        var rejections = orderMatchingService.submitOrders(List.of(
+                order("admission-batch", "10.001", valid),
+                order("admission-batch", "10.00", Instant.now().minusSeconds(1)),
+                order("admission-batch", "10.00", valid),
+                order("admission-batch", "10.00", valid),
+                order("admission-batch", "10.00", valid)));
+
+        assertThat(rejections).containsOnlyKeys(0, 1, 4);
+        assertThat(rejections.get(4)).contains("rate limit");
+    }
+
+    @Test
+    void ordersAreRefusedWithoutChargingTheRateLimitWhileAListenerIsBehind() {
+        laggingListener.behind = true;
+        try {
+            for (int i = 0; i < 3; i++) {
+                assertThatThrownBy(() -> orderMatchingService.submitOrder(order(
+                                "admission-lagging", "10.00", Instant.now().plusSeconds(60))))
+                        .isInstanceOf(EngineOverloadedException.class);
+            }
+            assertThat(orderMatchingService.submitOrders(List.of(
+                            order("admission-lagging", "10.00", Instant.now().plusSeconds(60)))))
+                    .containsOnlyKeys(0);
+        } finally {
+            laggingListener.behind = false;
+        }
+
+        orderMatchingService.submitOrder(
+                order("admission-lagging", "10.00", Instant.now().plusSeconds(60)));
+        orderMatchingService.submitOrder(
+                order("admission-lagging", "10.00", Instant.now().plusSeconds(60)));
+    }
+
+    @Test
+    void oversizedUserIdsAndTickersNeverReachTheEngine() {
+        var longUserId = "u".repeat(Order.MAX_USER_ID_LENGTH + 1);
+        assertThatThrownBy(() -> orderMatchingService.submitOrder(
+                        order(longUserId, "10.00", Instant.now().plusSeconds(60))))
+                .isInstanceOf(IllegalArgumentException.class);
+        var longTicker = order("admission-sizes", "10.00", Instant.now().plusSeconds(60));
+        longTicker.setTicker("T".repeat(Order.MAX_TICKER_LENGTH + 1));
+        assertThatThrownBy(() -> orderMatchingService.submitOrder(longTicker))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(orderMatchingService.cancelOrderAsync(UUID.randomUUID(), longUserId))
+                .isCompletedWithValue(false);
+    }
+
+    private static Order order(String userId, String price, Instant expirationTime) {
+        var order = new Order();
+        order.setUserId(userId);
+        order.setType(OrderType.BUY);
+        order.setTicker("ADMIT");
+        order.setPrice(new BigDecimal(price));
+        order.setQuantity(1);
+        order.setExpirationTime(expirationTime);
+        order.setActive(true);
+        return order;
+    }
+
+    @TestConfiguration
+    static class LaggingListenerConfig {
+        @Bean
+        LaggingListener laggingListener() {
+            return new LaggingListener();
+        }
+    }
+
+    static class LaggingListener implements EngineListener {
+        private volatile boolean behind;
+
+        @Override
+        public boolean isBackpressured() {
+            return behind;
+        }
+    }
+}
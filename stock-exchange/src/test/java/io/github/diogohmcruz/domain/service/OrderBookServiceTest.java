@@ -0,0 +1,70 @@
+package io.github.diogohmcruz.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import io.github.diogohmcruz.marketlibrary.domain.model.OrderType;
+import io.github.diogohmcruz.stockexchange.StockExchangeApplication;
+import io.github.diogohmcruz.stockexchange.domain.model.Order;
+import io.github.diogohmcruz.stockexchange.domain.repositories.ClosedOrderRepository;
+import io.github.diogohmcruz.stockexchange.domain.repositories.OrderRepository;
+import io.github.diogohmcruz.stockexchange.domain.service.OrderBookService;
+import io.github.diogohmcruz.stockexchange.domain.service.OrderMatchingService;
+
+@SpringBootTest(classes = StockExchangeApplication.class)
+class OrderBookServiceTest {
+    @Autowired
+    private OrderBookService orderBookService;
+
+    @Autowired
+    private OrderMatchingService orderMatchingService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ClosedOrderRepository closedOrderRepository;
+
+    @Test
+    void closedOrdersMoveToTheHistoryAndStayReadable() {
+        var open = order(OrderType.BUY, "9.00");
+        var cancelled = order(OrderType.BUY, "9.50");
+        orderMatchingService.submitOrder(open);
+        orderMatchingService.submitOrder(cancelled);
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> orderMatchingService.cancelOrder(cancelled.getId(), "history-user"));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> closedOrderRepository.existsById(cancelled.getId()));
+        assertThat(orderRepository.existsById(cancelled.getId())).isFalse();
+        assertThat(orderBookService.getOrderById(cancelled.getId()))
+                .hasValueSatisfying(order -> assertThat(order.isActive()).isFalse());
+
+        var page = PageRequest.of(0, 10);
+        assertThat(orderBookService.getUserOrders("history-user", false, page))
+                .extracting(Order::getId)
+                .containsExactly(open.getId());
+        var all = orderBookService.getUserOrders("history-user", true, page);
+        assertThat(all).extracting(Order::getId).containsExactly(cancelled.getId(), open.getId());
+        assertThat(all.getTotalElements()).isEqualTo(2);
+    }
+
+    private static Order order(OrderType type, String price) {
+        var order = new Order();
+        order.setType(type);
+        order.setTicker("HIST");
+        order.setPrice(new BigDecimal(price));
+        order.setQuantity(5);
+        order.setUserId("history-user");
+        order.setExpirationTime(Instant.now().plusSeconds(60));
+        return order;
+    }
+}
@@ -0,0 +1,136 @@
+package io.github.diogohmcruz.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.diogohmcruz.marketlibrary.domain.model.OrderType;
+import io.github.diogohmcruz.stockexchange.domain.model.DepthLevel;
+import io.github.diogohmcruz.stockexchange.domain.model.Order;
+import io.github.diogohmcruz.stockexchange.domain.model.TickSize;
+import io.github.diogohmcruz.stockexchange.domain.service.OrderBook;
+
+class OrderBookTest {
+    private static final TickSize TICK_SIZE = new TickSize(new BigDecimal("0.01"));
+
+    @Test
+    void bestOrderFollowsPriceThenArrivalPriority() {
+        var orderBook = new OrderBook("AAPL");
+        var first = order(OrderType.SELL, "101.00");
+        var second = order(OrderType.SELL, "100.00");
+        var third = order(OrderType.SELL, "100.0");
+        orderBook.addOrder(first);
+        orderBook.addOrder(second);
+        orderBook.addOrder(third);
+
+        assertThat(orderBook.getBestAsk()).isEqualTo(10_000L);
+        assertThat(orderBook.getBestMatchingOrder(order(OrderType.BUY, "100"))).isSameAs(second);
+        assertThat(orderBook.getActiveSellOrders()).containsExactly(second, third, first);
+    }
+
+    @Test
+    void removingByIdUnlinksOrderAndDropsEmptyBestLevel() {
+        var orderBook = new OrderBook("AAPL");
+        var low = order(OrderType.BUY, "99.00");
+        var high = order(OrderType.BUY, "100.00");
+        orderBook.addOrder(low);
+        orderBook.addOrder(high);
+
+        assertThat(orderBook.removeOrder(high.getId())).isSameAs(high);
+        assertThat(orderBook.removeOrder(high.getId())).isNull();
+        assertThat(orderBook.getBestBid()).isEqualTo(9_900L);
+        assertThat(orderBook.getOrder(low.getId())).isSameAs(low);
+        assertThat(orderBook.size()).isEqualTo(1);
+    }
+
+    @Test
+    void emptySidesHaveNoPrice() {
+        var orderBook = new OrderBook("AAPL");
+
+        assertThat(orderBook.getBestBid()).isEqualTo(OrderBook.NO_PRICE);
+        assertThat(orderBook.getBestAsk()).isEqualTo(OrderBook.NO_PRICE);
+        assertThat(orderBook.getBestMatchingOrder(order(OrderType.BUY, "100"))).isNull();
+    }
+
+    @Test
+    void rejectsDuplicateOrderIds() {
+        var orderBook = new OrderBook("AAPL");
+        var order = order(OrderType.BUY, "100.00");
+
+        assertThat(orderBook.addOrder(order)).isTrue();
+        assertThat(orderBook.addOrder(order)).isFalse();
+        assertThat(orderBook.getActiveBuyOrders()).containsExactly(order);
+    }
+
+    @Test
+    void expiringUnlinksOrdersWhoseExpirationHasPassed() {
+        var orderBook = new OrderBook("AAPL");
+        var now = Instant.parse("2026-01-01T10:00:00Z");
+        var early = order(OrderType.SELL, "100.00");
+        early.setExpirationTime(now.plusSeconds(1));
+        var late = order(OrderType.SELL, "101.00");
+        late.setExpirationTime(now.plusSeconds(3600));
+        var cancelled = order(OrderType.BUY, "99.00");
+        cancelled.setExpirationTime(now.plusSeconds(1));
+        orderBook.addOrder(early);
+        orderBook.addOrder(late);
+        orderBook.addOrder(cancelled);
+        orderBook.removeOrder(cancelled);
+        var expired = new ArrayList<Order>();
+
+        orderBook.expireUntil(now.plusSeconds(1), expired::add);
+        assertThat(expired).isEmpty();
+
+        orderBook.expireUntil(now.plusSeconds(2), expired::add);
+        assertThat(expired).containsExactly(early);
+        assertThat(orderBook.getActiveSellOrders()).containsExactly(late);
+        assertThat(orderBook.getOrder(early.getId())).isNull();
+
+        orderBook.expireUntil(now.plusSeconds(7200), expired::add);
+        assertThat(expired).containsExactly(early, late);
+        assertThat(orderBook.size()).isZero();
+    }
+
+    @Test
+    void depthAggregatesLevelsAndFollowsFillsAndRemovals() {
+        var orderBook = new OrderBook("AAPL");
+        var first = order(OrderType.SELL, "100.00");
+        var second = order(OrderType.SELL, "100.00");
+        var outside = order(OrderType.SELL, "102.00");
+        var bid = order(OrderType.BUY, "99.00");
+        orderBook.addOrder(first);
+        orderBook.addOrder(second);
+        orderBook.addOrder(outside);
+        orderBook.addOrder(bid);
+
+        var depth = orderBook.publishDepth(1);
+        assertThat(depth.asks()).containsExactly(new DepthLevel(10_000L, 20, 2));
+        assertThat(depth.bids()).containsExactly(new DepthLevel(9_900L, 10, 1));
+        assertThat(orderBook.publishDepth(1)).isSameAs(depth);
+
+        orderBook.fill(first, 4);
+        orderBook.removeOrder(second);
+        var updated = orderBook.publishDepth(2);
+        assertThat(updated.version()).isGreaterThan(depth.version());
+        assertThat(updated.asks()).containsExactly(new DepthLevel(10_000L, 6, 1), new DepthLevel(10_200L, 10, 1));
+        assertThat(orderBook.getDepth()).isSameAs(updated);
+    }
+
+    private static Order order(OrderType type, String price) {
+        var order = new Order();
+        order.setId(UUID.randomUUID());
+        order.setType(type);
+        order.setTicker("AAPL");
+        order.setPrice(new BigDecimal(price));
+        order.setPriceTicks(TICK_SIZE.toTicks(order.getPrice()));
+        order.setQuantity(10);
+        order.setRemainingQuantity(10);
+        order.setUserId("test");
+        return order;
+    }
+}
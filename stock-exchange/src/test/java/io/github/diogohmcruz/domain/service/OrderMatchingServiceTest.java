@@ -1,8 +1,14 @@
 package io.github.diogohmcruz.domain.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.awaitility.Awaitility.await;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
@@ -10,11 +16,15 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import io.github.diogohmcruz.marketlibrary.domain.model.OrderType;
 import io.github.diogohmcruz.stockexchange.StockExchangeApplication;
 import io.github.diogohmcruz.stockexchange.domain.model.Order;
+import io.github.diogohmcruz.stockexchange.domain.model.Trade;
+import io.github.diogohmcruz.stockexchange.domain.repositories.TradeRepository;
+import io.github.diogohmcruz.stockexchange.domain.service.OrderBookService;
 import io.github.diogohmcruz.stockexchange.domain.service.OrderMatchingService;
 
 @ExtendWith(SpringExtension.class)
@@ -23,6 +33,12 @@ public class OrderMatchingServiceTest {
     @Autowired
     private OrderMatchingService orderMatchingService;
 
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private OrderBookService orderBookService;
+
     @Test
     void testConcurrentOrderProcessing() throws InterruptedException {
         try (var executorService = Executors.newFixedThreadPool(10)) {
@@ -46,4 +62,110 @@ public class OrderMatchingServiceTest {
             assertThat(executorService.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
         }
     }
+
+    @Test
+    void aggressiveOrderSweepsPriceLevelsAndRestsItsRemainder() {
+        orderMatchingService.submitOrder(order(OrderType.SELL, "10.00", 5, "seller-1"));
+        orderMatchingService.submitOrder(order(OrderType.SELL, "10.01", 5, "seller-2"));
+        orderMatchingService.submitOrder(order(OrderType.SELL, "10.05", 5, "seller-3"));
+        orderMatchingService.submitOrder(order(OrderType.BUY, "10.02", 12, "buyer"));
+
+        var buyOrders = orderMatchingService.getActiveOrders("SWEEP", OrderType.BUY);
+        var sellOrders = orderMatchingService.getActiveOrders("SWEEP", OrderType.SELL);
+
+        assertThat(buyOrders).singleElement().satisfies(order -> {
+            assertThat(order.getUserId()).isEqualTo("buyer");
+            assertThat(order.getRemainingQuantity()).isEqualTo(2);
+        });
+        assertThat(sellOrders).singleElement().satisfies(order -> {
+            assertThat(order.getUserId()).isEqualTo("seller-3");
+            assertThat(order.getRemainingQuantity()).isEqualTo(5);
+        });
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertThat(
+                        tradeRepository.findLatestByTicker("SWEEP", Limit.of(10)))
+                .extracting(Trade::getPrice, Trade::getQuantity)
+                .containsExactlyInAnyOrder(tuple(new BigDecimal("10.00"), 5), tuple(new BigDecimal("10.01"), 5)));
+
+        var firstPage = tradeRepository.findLatestByTicker("SWEEP", Limit.of(1));
+        var last = firstPage.getLast();
+        var secondPage = tradeRepository.findByTickerBefore("SWEEP", last.getTimestamp(), last.getId(), Limit.of(1));
+        assertThat(secondPage).singleElement().isNotEqualTo(last);
+        assertThat(tradeRepository.findByTickerBefore(
+                        "SWEEP",
+                        secondPage.getLast().getTimestamp(),
+                        secondPage.getLast().getId(),
+                        Limit.of(1)))
+                .isEmpty();
+    }
+
+    @Test
+    void asyncSubmissionCompletesWithTheMatchOutcome() {
+        var resting = order(OrderType.SELL, "30.00", 5, "async-seller");
+        resting.setTicker("ASYNC");
+        var crossing = order(OrderType.BUY, "30.00", 8, "async-buyer");
+        crossing.setTicker("ASYNC");
+        var expired = order(OrderType.BUY, "30.00", 1, "async-late");
+        expired.setTicker("ASYNC");
+        expired.setTimestamp(Instant.now().minusSeconds(120));
+        expired.setExpirationTime(Instant.now().minusSeconds(60));
+
+        var restingResult = orderMatchingService.submitOrderAsync(resting).join();
+        var crossingResult = orderMatchingService.submitOrderAsync(crossing).join();
+
+        assertThat(restingResult.accepted()).isTrue();
+        assertThat(restingResult.fills()).isEmpty();
+        assertThat(restingResult.remainingQuantity()).isEqualTo(5);
+        assertThat(crossingResult.fills())
+                .singleElement()
+                .satisfies(trade -> assertThat(trade.getSellOrder().getId()).isEqualTo(resting.getId()));
+        assertThat(crossingResult.remainingQuantity()).isEqualTo(3);
+        assertThat(crossingResult.active()).isTrue();
+        assertThatThrownBy(() -> orderMatchingService.submitOrderAsync(expired))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void batchPublishesValidOrdersAndReportsInvalidOnesByPosition() {
+        var sell = order(OrderType.SELL, "20.00", 5, "batch-seller");
+        var expired = order(OrderType.BUY, "20.00", 5, "batch-late");
+        expired.setExpirationTime(Instant.now().minusSeconds(1));
+        var offTick = order(OrderType.BUY, "20.001", 5, "batch-odd");
+        var buy = order(OrderType.BUY, "20.00", 3, "batch-buyer");
+        for (var order : List.of(sell, expired, offTick, buy)) {
+            order.setTicker("BATCH");
+        }
+
+        var rejections = orderMatchingService.submitOrders(List.of(sell, expired, offTick, buy));
+
+        assertThat(rejections).containsOnlyKeys(1, 2);
+        assertThat(orderMatchingService.getActiveOrders("BATCH", OrderType.BUY)).isEmpty();
+        assertThat(orderMatchingService.getActiveOrders("BATCH", OrderType.SELL))
+                .singleElement()
+                .satisfies(order -> assertThat(order.getRemainingQuantity()).isEqualTo(2));
+    }
+
+    @Test
+    void restingOrdersExpireOnTheTimerWithoutAnyOtherOrderForTheirBook() {
+        var shortLived = order(OrderType.BUY, "15.00", 5, "timer-user");
+        shortLived.setTicker("TIMER");
+        shortLived.setExpirationTime(Instant.now().plusMillis(500));
+        orderMatchingService.submitOrder(shortLived);
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> orderBookService.getDepth("TIMER").isPresent());
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertThat(
+                        orderBookService.getDepth("TIMER").orElseThrow().bidOrderCount())
+                .isZero());
+    }
+
+    private static Order order(OrderType type, String price, int quantity, String userId) {
+        var order = new Order();
+        order.setType(type);
+        order.setTicker("SWEEP");
+        order.setPrice(new BigDecimal(price));
+        order.setQuantity(quantity);
+        order.setUserId(userId);
+        order.setExpirationTime(Instant.now().plusSeconds(60));
+        return order;
+    }
 }
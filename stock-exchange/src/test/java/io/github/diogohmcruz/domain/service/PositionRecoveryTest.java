@@ -0,0 +1,102 @@
+package io.github.diogohmcruz.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import io.github.diogohmcruz.marketlibrary.domain.model.OrderType;
+import io.github.diogohmcruz.stockexchange.StockExchangeApplication;
+import io.github.diogohmcruz.stockexchange.domain.model.MarketState;
+import io.github.diogohmcruz.stockexchange.domain.model.Order;
+import io.github.diogohmcruz.stockexchange.domain.model.Position;
+import io.github.diogohmcruz.stockexchange.domain.service.MarketStateRegistry;
+import io.github.diogohmcruz.stockexchange.domain.service.OrderMatchingService;
+import io.github.diogohmcruz.stockexchange.domain.service.PositionTracker;
+import io.github.diogohmcruz.stockexchange.infrastructure.journal.Snapshotter;
+
+class PositionRecoveryTest {
+    @TempDir
+    Path journalDirectory;
+
+    @Test
+    void positionsSurviveARestartFromASnapshot() {
+        try (var context = start()) {
+            trade(context, 10, "10.00");
+            var buyer = context.getBean(PositionTracker.class);
+            await().atMost(Duration.ofSeconds(5)).until(() -> quantity(buyer, "recovery-buyer") == 10);
+            context.getBean(Snapshotter.class).takeSnapshot();
+            trade(context, 5, "12.00");
+            await().atMost(Duration.ofSeconds(5)).until(() -> quantity(buyer, "recovery-buyer") == 15);
+        }
+
+        try (var context = start()) {
+            var positions = context.getBean(PositionTracker.class);
+            assertThat(positions.getPosition("recovery-buyer", "RCVR"))
+                    .get()
+                    .extracting(Position::quantity, Position::costBasis)
+                    .containsExactly(15L, new BigDecimal("160.00"));
+            assertThat(positions.getPosition("recovery-seller", "RCVR"))
+                    .get()
+                    .extracting(Position::quantity)
+                    .isEqualTo(-15L);
+        }
+    }
+
+    @Test
+    void theLastTradePriceSurvivesARestartFromASnapshot() {
+        try (var context = start()) {
+            trade(context, 10, "10.00");
+            var buyer = context.getBean(PositionTracker.class);
+            await().atMost(Duration.ofSeconds(5)).until(() -> quantity(buyer, "recovery-buyer") == 10);
+            context.getBean(Snapshotter.class).takeSnapshot();
+        }
+
+        try (var context = start()) {
+            assertThat(context.getBean(MarketStateRegistry.class).getState("RCVR"))
+                    .get()
+                    .extracting(MarketState::lastPrice, MarketState::lastTradeTime)
+                    .containsExactly(new BigDecimal("10.00"), null);
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(StockExchangeApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:position-recovery",
+                        "--engine.journal.enabled=true",
+                        "--engine.journal.directory=" + journalDirectory,
+                        "--engine.journal.snapshot-interval=1h");
+    }
+
+    private static void trade(ConfigurableApplicationContext context, int quantity, String price) {
+        var orderMatchingService = context.getBean(OrderMatchingService.class);
+        orderMatchingService.submitOrder(order("recovery-seller", OrderType.SELL, quantity, price));
+        orderMatchingService.submitOrder(order("recovery-buyer", OrderType.BUY, quantity, price));
+    }
+
+    private static long quantity(PositionTracker positions, String userId) {
+        return positions.getPosition(userId, "RCVR").map(Position::quantity).orElse(0L);
+    }
+
+    private static Order order(String userId, OrderType type, int quantity, String price) {
+        var order = new Order();
+        order.setUserId(userId);
+        order.setType(type);
+        order.setTicker("RCVR");
+        order.setPrice(new BigDecimal(price));
+        order.setQuantity(quantity);
+        order.setExpirationTime(Instant.now().plusSeconds(60));
+        order.setActive(true);
+        return order;
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.diogohmcruz.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.diogohmcruz.stockexchange.domain.service.RollingWindow;
+
+class RollingWindowTest {
+    @Test
+    void summarizesTradesInsideWindow() {
+        var window = new RollingWindow(1_000, 60);
+        window.record(10_000, 10_000, 5);
+        window.record(10_500, 9_000, 10);
+        window.record(42_000, 11_000, 1);
+
+        var summary = window.summarize(42_999);
+
+        assertThat(summary.count()).isEqualTo(3);
+        assertThat(summary.minTicks()).isEqualTo(9_000);
+        assertThat(summary.maxTicks()).isEqualTo(11_000);
+        assertThat(summary.sumTicks()).isEqualTo(30_000);
+        assertThat(summary.volume()).isEqualTo(16);
+    }
+
+    @Test
+    void dropsBucketsThatSlidOutAndReusesTheirSlots() {
+        var window = new RollingWindow(1_000, 60);
+        window.record(10_000, 10_000, 5);
+        window.record(69_000, 12_000, 2);
+
+        assertThat(window.summarize(69_000).count()).isEqualTo(2);
+        assertThat(window.summarize(70_000).count()).isEqualTo(1);
+
+        window.record(70_000, 8_000, 3);
+        window.record(10_000, 1, 1);
+        var summary = window.summarize(70_000);
+        assertThat(summary.count()).isEqualTo(2);
+        assertThat(summary.minTicks()).isEqualTo(8_000);
+        assertThat(summary.volume()).isEqualTo(5);
+        assertThat(window.summarize(200_000).count()).isZero();
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.diogohmcruz.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import io.github.diogohmcruz.marketlibrary.domain.model.OrderType;
+import io.github.diogohmcruz.stockexchange.StockExchangeApplication;
+import io.github.diogohmcruz.stockexchange.domain.model.Order;
+import io.github.diogohmcruz.stockexchange.domain.model.Trade;
+import io.github.diogohmcruz.stockexchange.domain.model.TradeCursor;
+import io.github.diogohmcruz.stockexchange.domain.service.OrderMatchingService;
+import io.github.diogohmcruz.stockexchange.domain.service.TradeService;
+
+@SpringBootTest(classes = StockExchangeApplication.class)
+class TradeServiceTest {
+    @Autowired
+    private TradeService tradeService;
+
+    @Autowired
+    private OrderMatchingService orderMatchingService;
+
+    @Test
+    void cachedTradeHistoryIsEvictedOncePersistedTradesChangeIt() {
+        assertThat(tradeService.getTradesByTicker("CACHE", null, 10)).isEmpty();
+        assertThat(tradeService.getUserRecentTrades("cache-buyer", 10)).isEmpty();
+
+        orderMatchingService.submitOrder(order(OrderType.SELL, "cache-seller"));
+        orderMatchingService.submitOrder(order(OrderType.BUY, "cache-buyer"));
+
+        await().atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(tradeService.getTradesByTicker("CACHE", null, 10))
+                        .singleElement()
+                        .extracting(Trade::getBuyerId, Trade::getSellerId)
+                        .containsExactly("cache-buyer", "cache-seller"));
+        assertThat(tradeService.getUserRecentTrades("cache-buyer", 10)).hasSize(1);
+    }
+
+    @Test
+    void userTradesAreReadFromTheLedgerOncePerTrade() {
+        orderMatchingService.submitOrder(order("LEDG", OrderType.SELL, "ledger-self"));
+        orderMatchingService.submitOrder(order("LEDG", OrderType.BUY, "ledger-self"));
+        orderMatchingService.submitOrder(order("LEDG", OrderType.SELL, "ledger-other"));
+        orderMatchingService.submitOrder(order("LEDG", OrderType.BUY, "ledger-self"));
+
+        await().atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(tradeService.getTradesByTicker("LEDG", null, 10))
+                        .hasSize(2));
+        var trades = tradeService.getTradesByTicker("LEDG", null, 10);
+        var firstPage = tradeService.getTradesByUser("ledger-self", null, 1);
+        var secondPage = tradeService.getTradesByUser("ledger-self", TradeCursor.after(firstPage.getFirst()), 10);
+        var inRange = tradeService.getTradesByUserInTimeRange(
+                "ledger-other", Instant.now().minusSeconds(60), Instant.now(), 10);
+
+        assertThat(firstPage)
+                .extracting(Trade::getId)
+                .containsExactly(trades.get(0).getId());
+        assertThat(secondPage)
+                .extracting(Trade::getId)
+                .containsExactly(trades.get(1).getId());
+        assertThat(inRange)
+                .singleElement()
+                .extracting(Trade::getBuyerId, Trade::getSellerId)
+                .containsExactly("ledger-self", "ledger-other");
+    }
+
+    private static Order order(OrderType type, String userId) {
+        return order("CACHE", type, userId);
+    }
+
+    private static Order order(String ticker, OrderType type, String userId) {
+        var order = new Order();
+        order.setType(type);
+        order.setTicker(ticker);
+        order.setPrice(new BigDecimal("10.00"));
+        order.setQuantity(5);
+        order.setUserId(userId);
+        order.setExpirationTime(Instant.now().plusSeconds(60));
+        return order;
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.diogohmcruz.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.diogohmcruz.stockexchange.domain.model.StatisticsWindow;
+import io.github.diogohmcruz.stockexchange.domain.model.Trade;
+import io.github.diogohmcruz.stockexchange.domain.service.TickSizeRegistry;
+import io.github.diogohmcruz.stockexchange.domain.service.TradeStatisticsTracker;
+import io.github.diogohmcruz.stockexchange.infrastructure.TickSizeProperties;
+
+class TradeStatisticsTrackerTest {
+    @Test
+    void volumesBeyondTheRangeOfAnIntAreReported() {
+        var tracker = new TradeStatisticsTracker(
+                new TickSizeRegistry(new TickSizeProperties(new BigDecimal("0.01"), Map.of())));
+        var now = Instant.now();
+        tracker.onTrade(trade(now, Integer.MAX_VALUE));
+        tracker.onTrade(trade(now, Integer.MAX_VALUE));
+
+        var expected = 2L * Integer.MAX_VALUE;
+        assertThat(tracker.getVolumes(StatisticsWindow.DAY, now)).containsEntry("HUGE", expected);
+        assertThat(tracker.getStatistics(StatisticsWindow.DAY, now).get("HUGE").getTotalVolume())
+                .isEqualTo(expected);
+    }
+
+    private static Trade trade(Instant timestamp, int quantity) {
+        var trade = new Trade();
+        trade.setTicker("HUGE");
+        trade.setPrice(BigDecimal.ONE);
+        trade.setPriceTicks(100);
+        trade.setQuantity(quantity);
+        trade.setTimestamp(timestamp);
+        return trade;
+    }
+}
@@ -0,0 +1,62 @@
+package io.github.diogohmcruz.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.diogohmcruz.stockexchange.domain.service.RateLimitExceededException;
+import io.github.diogohmcruz.stockexchange.domain.service.UserRateLimiter;
+
+class UserRateLimiterTest {
+
+    @Test
+    void usersCanBurstThenAreHeldToTheRate() {
+        var now = new AtomicLong();
+        var rateLimiter = new UserRateLimiter(10, 3, now::get);
+
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.acquire("alice");
+        }
+        assertThatThrownBy(() -> rateLimiter.acquire("alice"))
+                .isInstanceOfSatisfying(RateLimitExceededException.class, e -> assertThat(e.getRetryAfter())
+                        .isEqualTo(Duration.ofMillis(100)));
+        rateLimiter.acquire("bob");
+
+        now.addAndGet(Duration.ofMillis(100).toNanos());
+        rateLimiter.acquire("alice");
+        assertThatThrownBy(() -> rateLimiter.acquire("alice")).isInstanceOf(RateLimitExceededException.class);
+        assertThat(rateLimiter.getRejections()).isEqualTo(2);
+    }
+
+    @Test
+    void releasedTokensCanBeTakenAgainUpToTheBurst() {
+        var rateLimiter = new UserRateLimiter(10, 2, () -> 0);
+
+        rateLimiter.acquire("alice");
+        rateLimiter.acquire("alice");
+        rateLimiter.release("alice");
+        rateLimiter.acquire("alice");
+        assertThatThrownBy(() -> rateLimiter.acquire("alice")).isInstanceOf(RateLimitExceededException.class);
+
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.release("alice");
+        }
+        rateLimiter.acquire("alice");
+        rateLimiter.acquire("alice");
+        assertThatThrownBy(() -> rateLimiter.acquire("alice")).isInstanceOf(RateLimitExceededException.class);
+    }
+
+    @Test
+    void aRateOfZeroTurnsTheLimitOff() {
+        var rateLimiter = new UserRateLimiter(0, 1, () -> 0);
+
+        for (int i = 0; i < 100; i++) {
+            rateLimiter.acquire("alice");
+        }
+        assertThat(rateLimiter.isEnabled()).isFalse();
+    }
+}
@@ -0,0 +1,107 @@
+package io.github.diogohmcruz.infrastructure.archive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.diogohmcruz.stockexchange.domain.model.TickSize;
+import io.github.diogohmcruz.stockexchange.domain.model.Trade;
+import io.github.diogohmcruz.stockexchange.domain.model.TradeCursor;
+import io.github.diogohmcruz.stockexchange.infrastructure.archive.ArchiveProperties;
+import io.github.diogohmcruz.stockexchange.infrastructure.archive.ArchivedTrade;
+import io.github.diogohmcruz.stockexchange.infrastructure.archive.TradeArchive;
+
+class TradeArchiveTest {
+    private static final TickSize TICK_SIZE = new TickSize(new BigDecimal("0.01"));
+    private static final LocalDate DAY = LocalDate.parse("2026-01-01");
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void storedTradesAreReadBackNewestFirstAcrossDays() {
+        var archive = archive();
+        var first = trade("2026-01-01T10:00:00.123456789Z", 15_000, "alice", "bob");
+        var second = trade("2026-01-01T10:00:01Z", 14_995, "bob", "carol");
+        var third = trade("2026-01-02T09:00:00Z", 15_010, "alice", "carol");
+        archive.store("AAPL", DAY, TICK_SIZE, List.of(second, first));
+        archive.store("AAPL", DAY.plusDays(1), TICK_SIZE, List.of(third));
+
+        var page = archive.findByTicker("AAPL", null, 2);
+        assertThat(page).extracting(Trade::getId).containsExactly(third.id(), second.id());
+        assertThat(page.getLast().getPrice()).isEqualByComparingTo("149.95");
+        assertThat(page.getLast().getBuyOrder().getId()).isEqualTo(second.buyOrderId());
+
+        var next = archive.findByTicker("AAPL", TradeCursor.after(page.getLast()), 2);
+        assertThat(next).singleElement().satisfies(trade -> {
+            assertThat(trade.getId()).isEqualTo(first.id());
+            assertThat(trade.getTimestamp()).isEqualTo(first.timestamp());
+            assertThat(trade.getBuyerId()).isEqualTo("alice");
+            assertThat(trade.getSellerId()).isEqualTo("bob");
+        });
+    }
+
+    @Test
+    void userQueriesMergeTickersAndRespectTheRange() {
+        var archive = archive();
+        var apple = trade("2026-01-01T10:00:00Z", 15_000, "alice", "bob");
+        var microsoft = trade("2026-01-01T11:00:00Z", 40_000, "carol", "alice");
+        var other = trade("2026-01-01T12:00:00Z", 40_100, "carol", "bob");
+        archive.store("AAPL", DAY, TICK_SIZE, List.of(apple));
+        archive.store("MSFT", DAY, TICK_SIZE, List.of(microsoft, other));
+
+        assertThat(archive.findByUser("alice", null, null, null, 10))
+                .extracting(Trade::getId)
+                .containsExactly(microsoft.id(), apple.id());
+        assertThat(archive.findByUser(
+                        "alice",
+                        null,
+                        Instant.parse("2026-01-01T10:30:00Z"),
+                        Instant.parse("2026-01-02T00:00:00Z"),
+                        10))
+                .extracting(Trade::getTicker)
+                .containsExactly("MSFT");
+        assertThat(archive.findByUser("dave", null, null, null, 10)).isEmpty();
+    }
+
+    @Test
+    void storingAgainMergesWithoutDuplicatesAndSurvivesARestart() {
+        var archive = archive();
+        var first = trade("2026-01-01T10:00:00Z", 15_000, "alice", "bob");
+        var second = trade("2026-01-01T10:00:00Z", 15_000, "alice", "bob");
+        archive.store("AAPL", DAY, TICK_SIZE, List.of(first));
+        archive.store("AAPL", DAY, TICK_SIZE, List.of(first, second));
+
+        assertThat(Files.exists(directory.resolve("AAPL").resolve("2026-01-01.trades")))
+                .isTrue();
+        assertThat(archive().findByTicker("AAPL", null, 10))
+                .extracting(Trade::getId)
+                .containsExactlyInAnyOrder(first.id(), second.id());
+    }
+
+    private TradeArchive archive() {
+        return new TradeArchive(new ArchiveProperties(true, directory, Duration.ofDays(7)));
+    }
+
+    private static ArchivedTrade trade(String timestamp, long priceTicks, String buyerId, String sellerId) {
+        return new ArchivedTrade(
+                UUID.randomUUID(),
+                Instant.parse(timestamp),
+                priceTicks,
+                10,
+                UUID.randomUUID(),
+                UUID.randomUUID(),
+                buyerId,
+                sellerId);
+    }
+}
@@ -0,0 +1,282 @@
+package io.github.diogohmcruz.infrastructure.gateway;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import io.github.diogohmcruz.stockexchange.StockExchangeApplication;
+import io.github.diogohmcruz.stockexchange.domain.engine.EngineListener;
+import io.github.diogohmcruz.stockexchange.domain.model.Order;
+import io.github.diogohmcruz.stockexchange.infrastructure.gateway.GatewayOrderRouter;
+import io.github.diogohmcruz.stockexchange.infrastructure.gateway.GatewayProtocol;
+import io.github.diogohmcruz.stockexchange.infrastructure.gateway.OrderGateway;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(
+        classes = StockExchangeApplication.class,
+        properties = {
+            "gateway.enabled=true",
+            "gateway.port=0",
+            "engine.shards=1",
+            "engine.ring-buffer-size=8",
+            "engine.admission.policy=reject"
+        })
+@Import(OrderGatewayTest.StallingListenerConfig.class)
+class OrderGatewayTest {
+    private static final long PRICE = 2_500_000_000L;
+
+    @Autowired
+    private OrderGateway orderGateway;
+
+    @Autowired
+    private GatewayOrderRouter router;
+
+    @Autowired
+    private StallingListener stallingListener;
+
+    @Test
+    void crossingOrdersAreAckedAndFilledOnBothSessions() throws IOException {
+        try (var seller = connect("gw-seller");
+                var buyer = connect("gw-buyer")) {
+            seller.newOrder(1, 11, (byte) 1, "GWAY", PRICE, 10);
+            var sellAck = seller.expect(GatewayProtocol.ACK);
+            buyer.newOrder(1, 21, (byte) 0, "GWAY", PRICE, 4);
+            var buyAck = buyer.expect(GatewayProtocol.ACK);
+
+            var buyFill = buyer.expect(GatewayProtocol.FILL);
+            assertThat(GatewayProtocol.clientOrderId(buyFill, 0)).isEqualTo(21);
+            assertThat(buyFill.getLong(20)).isEqualTo(buyAck.getLong(20));
+            assertThat(buyFill.getLong(52)).isEqualTo(PRICE);
+            assertThat(buyFill.getInt(60)).isEqualTo(4);
+            assertThat(buyFill.getInt(64)).isZero();
+
+            var sellFill = seller.expect(GatewayProtocol.FILL);
+            assertThat(GatewayProtocol.clientOrderId(sellFill, 0)).isEqualTo(11);
+            assertThat(sellFill.getLong(36)).isEqualTo(buyFill.getLong(36));
+            assertThat(sellFill.getInt(64)).isEqualTo(6);
+
+            var restingId = GatewayProtocol.orderId(sellAck, 0);
+            seller.cancel(2, 12, restingId);
+            var cancelled = seller.expect(GatewayProtocol.CANCEL);
+            assertThat(GatewayProtocol.clientOrderId(cancelled, 0)).isEqualTo(12);
+            assertThat(GatewayProtocol.orderId(cancelled, 0)).isEqualTo(restingId);
+            assertThat(GatewayProtocol.sequence(cancelled, 0)).isEqualTo(GatewayProtocol.sequence(sellFill, 0) + 1);
+        }
+    }
+
+    @Test
+    void invalidOrdersAreRejectedAndDuplicatesIgnored() throws IOException {
+        try (var client = connect("gw-rejects")) {
+            client.newOrder(1, 1, (byte) 0, "GWAY", PRICE + 1, 1);
+            var rejected = client.expect(GatewayProtocol.REJECT);
+            assertThat(GatewayProtocol.clientOrderId(rejected, 0)).isEqualTo(1);
+            assertThat(GatewayProtocol.reason(rejected, 0)).isEqualTo(GatewayProtocol.REASON_INVALID_ORDER);
+
+            client.newOrder(1, 1, (byte) 0, "GWAY", PRICE + 1, 1);
+            client.newOrder(2, 2, (byte) 0, "lower", PRICE, 1);
+            rejected = client.expect(GatewayProtocol.REJECT);
+            assertThat(GatewayProtocol.clientOrderId(rejected, 0)).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void sequenceGapsDisconnectAndLogonReportsWhereToResume() throws IOException {
+        try (var client = connect("gw-resume")) {
+            client.newOrder(1, 1, (byte) 0, "GWAY", PRICE / 2, 1);
+            client.expect(GatewayProtocol.ACK);
+            client.newOrder(3, 3, (byte) 0, "GWAY", PRICE / 2, 1);
+            var rejected = client.expect(GatewayProtocol.REJECT);
+            assertThat(GatewayProtocol.reason(rejected, 0)).isEqualTo(GatewayProtocol.REASON_SEQUENCE_GAP);
+            assertThat(client.isClosedByServer()).isTrue();
+        }
+        try (var client = new Client(orderGateway.getPort())) {
+            client.logon("gw-resume");
+            var logon = client.expect(GatewayProtocol.LOGON);
+            assertThat(GatewayProtocol.lastSequence(logon, 0)).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void logonsWithoutAUserAreRejectedAsInvalidCredentials() throws IOException {
+        try (var client = new Client(orderGateway.getPort())) {
+            client.logon(" ");
+            var rejected = client.expect(GatewayProtocol.REJECT);
+            assertThat(GatewayProtocol.reason(rejected, 0)).isEqualTo(GatewayProtocol.REASON_INVALID_CREDENTIALS);
+            assertThat(client.isClosedByServer()).isTrue();
+        }
+    }
+
+    @Test
+    void ordersRefusedByAnOverloadedShardLeaveNoRouteBehind() throws IOException {
+        var routesBefore = router.getRouteCount();
+        var orders = 16;
+        var acks = 0;
+        var throttled = 0;
+        try (var client = connect("gw-overload")) {
+            stallingListener.stall();
+            try {
+                for (int i = 1; i <= orders; i++) {
+                    client.newOrder(i, i, (byte) 0, "STALL", PRICE, 1);
+                }
+                stallingListener.awaitStalled();
+            } finally {
+                stallingListener.release();
+            }
+            for (int i = 0; i < orders; i++) {
+                var message = client.next();
+                if (GatewayProtocol.type(message, 0) == GatewayProtocol.ACK) {
+                    acks++;
+                } else {
+                    assertThat(GatewayProtocol.type(message, 0)).isEqualTo(GatewayProtocol.REJECT);
+                    assertThat(GatewayProtocol.reason(message, 0)).isEqualTo(GatewayProtocol.REASON_THROTTLED);
+                    throttled++;
+                }
+            }
+        }
+
+        assertThat(throttled).isPositive();
+        assertThat(router.getRouteCount()).isEqualTo(routesBefore + acks);
+    }
+
+    private Client connect(String userId) throws IOException {
+        var client = new Client(orderGateway.getPort());
+        client.logon(userId);
+        client.expect(GatewayProtocol.LOGON);
+        return client;
+    }
+
+    private static final class Client implements AutoCloseable {
+        private final SocketChannel channel;
+        private final ByteBuffer out =
+                ByteBuffer.allocate(GatewayProtocol.MAX_LENGTH).order(GatewayProtocol.BYTE_ORDER);
+
+        private Client(int port) throws IOException {
+            channel = SocketChannel.open(new InetSocketAddress("localhost", port));
+            channel.socket().setSoTimeout((int) Duration.ofSeconds(5).toMillis());
+        }
+
+        private void logon(String userId) throws IOException {
+            out.clear();
+            GatewayProtocol.putLogon(out, 0, userId, 0);
+            send();
+        }
+
+        private void newOrder(long sequence, long clientOrderId, byte side, String ticker, long price, int quantity)
+                throws IOException {
+            out.clear();
+            GatewayProtocol.putNewOrder(out, sequence, clientOrderId, side, ticker, price, quantity, 0);
+            send();
+        }
+
+        private void cancel(long sequence, long clientOrderId, UUID orderId) throws IOException {
+            out.clear();
+            GatewayProtocol.putCancel(out, sequence, clientOrderId, orderId);
+            send();
+        }
+
+        private ByteBuffer expect(byte type) throws IOException {
+            var message = next();
+            assertThat(GatewayProtocol.type(message, 0)).isEqualTo(type);
+            return message;
+        }
+
+        private ByteBuffer next() throws IOException {
+            var header = read(GatewayProtocol.HEADER_LENGTH);
+            var length = GatewayProtocol.length(header, 0);
+            var message = ByteBuffer.allocate(length).order(GatewayProtocol.BYTE_ORDER);
+            message.put(header.flip())
+                    .put(read(length - GatewayProtocol.HEADER_LENGTH).flip());
+            return message;
+        }
+
+        private boolean isClosedByServer() throws IOException {
+            return channel.socket().getInputStream().read() < 0;
+        }
+
+        private ByteBuffer read(int length) throws IOException {
+            var buffer = ByteBuffer.allocate(length).order(GatewayProtocol.BYTE_ORDER);
+            var in = channel.socket().getInputStream();
+            while (buffer.hasRemaining()) {
+                var read = in.read(buffer.array(), buffer.position(), buffer.remaining());
+                if (read < 0) {
+                    throw new IOException("Gateway closed the connection");
+                }
+                buffer.position(buffer.position() + read);
+            }
+            return buffer;
+        }
+
+        private void send() throws IOException {
+            out.flip();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    @TestConfiguration
+    static class StallingListenerConfig {
+        @Bean
+        StallingListener stallingListener() {
+            return new StallingListener();
+        }
+    }
+
+    /** Holds the matching thread on the first order for the STALL ticker while armed, so its shard fills up. */
+    static class StallingListener implements EngineListener {
+        private volatile CountDownLatch stalled = new CountDownLatch(0);
+        private volatile CountDownLatch release = new CountDownLatch(0);
+
+        void stall() {
+            stalled = new CountDownLatch(1);
+            release = new CountDownLatch(1);
+        }
+
+        void awaitStalled() {
+            try {
+                assertThat(stalled.await(5, TimeUnit.SECONDS)).isTrue();
+                // the selector thread publishes the rest while the shard is held
+                Thread.sleep(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        void release() {
+            release.countDown();
+        }
+
+        @Override
+        public void onOrderAccepted(Order order) {
+            if ("STALL".equals(order.getTicker()) && stalled.getCount() > 0) {
+                stalled.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
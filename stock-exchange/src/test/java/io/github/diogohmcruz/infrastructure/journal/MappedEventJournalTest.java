@@ -0,0 +1,168 @@
+package io.github.diogohmcruz.infrastructure.journal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import io.github.diogohmcruz.marketlibrary.domain.model.OrderType;
+import io.github.diogohmcruz.stockexchange.domain.engine.BookSnapshot;
+import io.github.diogohmcruz.stockexchange.domain.engine.EventType;
+import io.github.diogohmcruz.stockexchange.domain.engine.OrderEvent;
+import io.github.diogohmcruz.stockexchange.domain.engine.ShardSnapshot;
+import io.github.diogohmcruz.stockexchange.domain.model.Order;
+import io.github.diogohmcruz.stockexchange.domain.model.Position;
+import io.github.diogohmcruz.stockexchange.infrastructure.journal.FsyncPolicy;
+import io.github.diogohmcruz.stockexchange.infrastructure.journal.JournalProperties;
+import io.github.diogohmcruz.stockexchange.infrastructure.journal.MappedEventJournal;
+import io.github.diogohmcruz.stockexchange.infrastructure.journal.SnapshotStore;
+
+class MappedEventJournalTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysEventsInOrderAcrossSegmentsAndRestarts() throws IOException {
+        var written = new ArrayList<OrderEvent>();
+        var journal = journal(FsyncPolicy.BATCH);
+        journal.open(2);
+        for (int i = 1; i <= 200; i++) {
+            var event = newOrder("AAPL", i);
+            journal.append(0, event, i % 10 == 0);
+            written.add(event);
+        }
+        var cancel = cancel(written.getFirst().getOrder().getId());
+        journal.append(1, cancel, true);
+        written.add(cancel);
+        journal.close();
+
+        var restarted = journal(FsyncPolicy.EVENT);
+        restarted.open(1);
+        var afterRestart = newOrder("MSFT", 1);
+        restarted.append(0, afterRestart, true);
+        written.add(afterRestart);
+        restarted.close();
+
+        try (var segments = Files.list(directory)) {
+            assertThat(segments.count()).isGreaterThan(3);
+        }
+        assertThat(replay(journal)).containsExactlyElementsOf(describe(written));
+    }
+
+    @Test
+    void replayStopsAtATornRecord() throws IOException {
+        var journal = journal(FsyncPolicy.NONE);
+        journal.open(1);
+        var events = List.of(newOrder("AAPL", 1), newOrder("AAPL", 2), newOrder("AAPL", 3));
+        events.forEach(event -> journal.append(0, event, true));
+        journal.close();
+
+        try (var segments = Files.list(directory)) {
+            var segment = segments.findFirst().orElseThrow();
+            var bytes = Files.readAllBytes(segment);
+            var last = bytes.length - 1;
+            while (bytes[last] == 0) {
+                last--;
+            }
+            bytes[last] ^= 1;
+            Files.write(segment, bytes);
+        }
+
+        assertThat(replay(journal)).containsExactlyElementsOf(describe(events.subList(0, 2)));
+    }
+
+    @Test
+    void recoveryRestoresTheSnapshotAndReplaysOnlyLaterEvents() {
+        var journal = journal(FsyncPolicy.BATCH);
+        journal.open(1);
+        journal.append(0, newOrder("AAPL", 1), true);
+        var snapshotEvent = new OrderEvent();
+        snapshotEvent.setType(EventType.SNAPSHOT);
+        journal.append(0, snapshotEvent, true);
+        var later = newOrder("AAPL", 2);
+        journal.append(0, later, true);
+        journal.close();
+
+        var resting = later.getOrder().copy();
+        var position = new Position("trader-1", "AAPL", -5, new BigDecimal("501.25"), new BigDecimal("-3.50"));
+        var book = new BookSnapshot("AAPL", 10_025, List.of(resting), List.of(position));
+        snapshotStore().write(List.of(new ShardSnapshot(0, snapshotEvent.getJournalPosition(), List.of(book))));
+
+        var restored = new ArrayList<BookSnapshot>();
+        var replayed = new ArrayList<OrderEvent>();
+        journal(FsyncPolicy.BATCH).recover(restored::add, replayed::add);
+
+        assertThat(restored).singleElement().satisfies(snapshot -> {
+            assertThat(snapshot.lastTradePriceTicks()).isEqualTo(10_025);
+            assertThat(snapshot.orders())
+                    .extracting(Order::getId, Order::getPrice, Order::getUserId)
+                    .containsExactly(tuple(resting.getId(), resting.getPrice(), resting.getUserId()));
+            assertThat(snapshot.positions()).containsExactly(position);
+        });
+        assertThat(describe(replayed)).containsExactlyElementsOf(describe(List.of(later)));
+    }
+
+    private MappedEventJournal journal(FsyncPolicy fsync) {
+        return new MappedEventJournal(properties(fsync), snapshotStore());
+    }
+
+    private SnapshotStore snapshotStore() {
+        return new SnapshotStore(properties(FsyncPolicy.NONE));
+    }
+
+    private JournalProperties properties(FsyncPolicy fsync) {
+        return new JournalProperties(true, directory, DataSize.ofKilobytes(4), fsync);
+    }
+
+    private List<String> replay(MappedEventJournal journal) {
+        var replayed = new ArrayList<OrderEvent>();
+        journal.recover(book -> {}, replayed::add);
+        return describe(replayed);
+    }
+
+    private static List<String> describe(List<OrderEvent> events) {
+        return events.stream()
+                .map(event -> event.getType() == EventType.NEW_ORDER
+                        ? event.getOrder().getId() + " " + event.getOrder().getTicker() + " "
+                                + event.getOrder().getPrice() + "x"
+                                + event.getOrder().getQuantity() + " "
+                                + event.getOrder().getExpirationTime() + " "
+                                + event.getOrder().getUserId()
+                        : event.getType() + " " + event.getOrderId() + " " + event.getUserId())
+                .toList();
+    }
+
+    private static OrderEvent newOrder(String ticker, int quantity) {
+        var order = new Order();
+        order.setId(UUID.randomUUID());
+        order.setType(quantity % 2 == 0 ? OrderType.BUY : OrderType.SELL);
+        order.setTicker(ticker);
+        order.setPrice(new BigDecimal("100.25"));
+        order.setQuantity(quantity);
+        order.setUserId("user-" + quantity);
+        order.setExpirationTime(Instant.now().plusSeconds(60));
+        var event = new OrderEvent();
+        event.setType(EventType.NEW_ORDER);
+        event.setOrder(order);
+        return event;
+    }
+
+    private static OrderEvent cancel(UUID orderId) {
+        var event = new OrderEvent();
+        event.setType(EventType.CANCEL_ORDER);
+        event.setOrderId(orderId);
+        event.setUserId("user-1");
+        return event;
+    }
+}
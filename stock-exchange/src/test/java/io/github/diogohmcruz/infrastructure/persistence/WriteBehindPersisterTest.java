@@ -0,0 +1,147 @@
+package io.github.diogohmcruz.infrastructure.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import io.github.diogohmcruz.marketlibrary.domain.model.OrderType;
+import io.github.diogohmcruz.stockexchange.domain.model.Order;
+import io.github.diogohmcruz.stockexchange.domain.model.Trade;
+import io.github.diogohmcruz.stockexchange.infrastructure.persistence.TradesPersistedEvent;
+import io.github.diogohmcruz.stockexchange.infrastructure.persistence.WriteBehindPersister;
+
+class WriteBehindPersisterTest {
+    @Test
+    @SuppressWarnings("unchecked")
+    void failedBatchesAreKeptAndWrittenOnRetry() throws InterruptedException {
+        var jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any()))
+                .thenThrow(new DataAccessResourceFailureException("database unavailable"))
+                .thenReturn(new int[0][]);
+        var eventPublisher = mock(ApplicationEventPublisher.class);
+        var persister = new WriteBehindPersister(
+                jdbcTemplate,
+                mock(PlatformTransactionManager.class),
+                eventPublisher,
+                16,
+                10,
+                Duration.ofMillis(5),
+                Duration.ofMillis(10),
+                Duration.ofMillis(20));
+        persister.start();
+        try {
+            persister.onTrade(trade());
+
+            await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> verify(eventPublisher)
+                    .publishEvent(new TradesPersistedEvent(Set.of("WBP"), Set.of("buyer", "seller"))));
+            assertThat(persister.getFailedFlushes()).isEqualTo(1);
+            assertThat(persister.getDroppedRows()).isZero();
+
+            var trades = ArgumentCaptor.forClass(Collection.class);
+            verify(jdbcTemplate, atLeast(1))
+                    .batchUpdate(
+                            contains("INTO trades"),
+                            trades.capture(),
+                            eq(10),
+                            any(ParameterizedPreparedStatementSetter.class));
+            assertThat(trades.getValue()).hasSize(1);
+        } finally {
+            persister.stop();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void aStalledDatabaseNeverBlocksTheEngineAndRaisesBackpressure() throws InterruptedException {
+        var stalled = new AtomicBoolean(true);
+        var written = new AtomicInteger();
+        var jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any()))
+                .thenAnswer(invocation -> {
+                    if (stalled.get()) {
+                        throw new DataAccessResourceFailureException("database unavailable");
+                    }
+                    if (invocation.<String>getArgument(0).contains("INTO trades")) {
+                        written.addAndGet(
+                                invocation.<Collection<?>>getArgument(1).size());
+                    }
+                    return new int[0][];
+                });
+        var persister = new WriteBehindPersister(
+                jdbcTemplate,
+                mock(PlatformTransactionManager.class),
+                mock(ApplicationEventPublisher.class),
+                8,
+                4,
+                Duration.ofMillis(5),
+                Duration.ofMillis(10),
+                Duration.ofMillis(20));
+        persister.start();
+        try {
+            assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+                for (int i = 0; i < 50; i++) {
+                    persister.onTrade(trade());
+                }
+            });
+            assertThat(persister.isBackpressured()).isTrue();
+            assertThat(persister.getOverflowedRows()).isPositive();
+
+            stalled.set(false);
+            await().atMost(Duration.ofSeconds(5)).until(() -> written.get() == 50);
+            assertThat(persister.isBackpressured()).isFalse();
+            assertThat(persister.getQueueSize()).isZero();
+            assertThat(persister.getDroppedRows()).isZero();
+        } finally {
+            persister.stop();
+        }
+    }
+
+    private static Trade trade() {
+        var trade = new Trade();
+        trade.setId(UUID.randomUUID());
+        trade.setTicker("WBP");
+        trade.setPrice(BigDecimal.TEN);
+        trade.setQuantity(5);
+        trade.setTimestamp(Instant.now());
+        trade.setBuyOrder(order(OrderType.BUY, "buyer"));
+        trade.setSellOrder(order(OrderType.SELL, "seller"));
+        trade.setBuyerId("buyer");
+        trade.setSellerId("seller");
+        return trade;
+    }
+
+    private static Order order(OrderType type, String userId) {
+        var order = new Order();
+        order.setId(UUID.randomUUID());
+        order.setType(type);
+        order.setUserId(userId);
+        return order;
+    }
+}
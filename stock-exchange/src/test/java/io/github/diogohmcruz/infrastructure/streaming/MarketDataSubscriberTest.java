@@ -0,0 +1,97 @@
+package io.github.diogohmcruz.infrastructure.streaming;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import io.github.diogohmcruz.marketlibrary.api.dto.BookUpdate;
+import io.github.diogohmcruz.marketlibrary.api.dto.TradeTick;
+import io.github.diogohmcruz.stockexchange.domain.model.BookDepth;
+import io.github.diogohmcruz.stockexchange.domain.model.DepthLevel;
+import io.github.diogohmcruz.stockexchange.domain.model.TickSize;
+import io.github.diogohmcruz.stockexchange.infrastructure.streaming.MarketDataSubscriber;
+
+class MarketDataSubscriberTest {
+    private static final TickSize TICK_SIZE = new TickSize(new BigDecimal("0.01"));
+
+    private final RecordingEmitter emitter = new RecordingEmitter();
+    private final List<Runnable> drains = new ArrayList<>();
+
+    @Test
+    void conflatesBookUpdatesAndSendsOnlyChangedLevels() {
+        var subscriber = new MarketDataSubscriber(emitter, Set.of("AAPL"), 16, ticker -> TICK_SIZE, drains::add);
+
+        subscriber.offerBook(depth(1, List.of(new DepthLevel(10_000, 10, 1))));
+        runDrains();
+        subscriber.offerBook(depth(2, List.of(new DepthLevel(10_000, 20, 2))));
+        subscriber.offerBook(depth(3, List.of(new DepthLevel(10_000, 20, 2), new DepthLevel(9_900, 5, 1))));
+        subscriber.offerBook(depth(4, List.of(new DepthLevel(9_900, 5, 1))));
+        assertThat(drains).hasSize(1);
+        runDrains();
+
+        assertThat(emitter.sent).hasSize(2);
+        var snapshot = (BookUpdate) emitter.sent.get(0);
+        assertThat(snapshot.isSnapshot()).isTrue();
+        assertThat(snapshot.getBids()).hasSize(1);
+        var update = (BookUpdate) emitter.sent.get(1);
+        assertThat(update.isSnapshot()).isFalse();
+        assertThat(update.getVersion()).isEqualTo(4);
+        assertThat(update.getBestBid()).isEqualByComparingTo("99.00");
+        assertThat(update.getBids())
+                .extracting(level -> level.getPrice().toPlainString(), level -> level.getQuantity())
+                .containsExactly(tuple("99.00", 5L), tuple("100.00", 0L));
+    }
+
+    @Test
+    void disconnectsWhenTradeBufferOverflows() {
+        var subscriber = new MarketDataSubscriber(emitter, Set.of(), 2, ticker -> TICK_SIZE, drains::add);
+
+        assertThat(subscriber.offerTrade(trade("AAPL"))).isTrue();
+        assertThat(subscriber.offerTrade(trade("MSFT"))).isTrue();
+        assertThat(subscriber.offerTrade(trade("AAPL"))).isFalse();
+        assertThat(subscriber.offerBook(depth(1, List.of()))).isFalse();
+        assertThat(emitter.completed).isTrue();
+    }
+
+    private void runDrains() {
+        var pending = new ArrayList<>(drains);
+        drains.clear();
+        pending.forEach(Runnable::run);
+    }
+
+    private static BookDepth depth(long version, List<DepthLevel> bids) {
+        return new BookDepth("AAPL", version, 0, bids, List.of(), bids.size(), 0);
+    }
+
+    private static TradeTick trade(String ticker) {
+        var trade = new TradeTick();
+        trade.setTicker(ticker);
+        return trade;
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<Object> sent = new ArrayList<>();
+        private boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            builder.build().stream()
+                    .map(DataWithMediaType::getData)
+                    .filter(data -> !(data instanceof String))
+                    .forEach(sent::add);
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package io.github.diogohmcruz.trader.infrastructure.generator;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.List;
 import java.util.Random;
 
@@ -19,7 +20,7 @@ public class RandomOrderGenerator {
         var ticker = SAMPLE_TICKERS.get(random.nextInt(SAMPLE_TICKERS.size()));
         var basePrice = new BigDecimal("100.00");
         var variation = BigDecimal.valueOf(random.nextDouble() * 10);
-        var price = basePrice.add(variation);
+        var price = basePrice.add(variation).setScale(2, RoundingMode.HALF_UP);
         var quantity = 1 + random.nextInt(100);
 
         var request = new CreateOrderRequest();